@@ -65,6 +65,12 @@ public class Configuration {
   static final String BATCH_THREAD_POOL_SIZE_KEY = "batchThreadPoolSize";
   static final int DEFAULT_THREAD_POOL_SIZE = 4;
 
+  // common parameters to autoReindex and indexSync sections
+  static final String HOT_SET_SIZE_KEY = "hotSetSize";
+  static final int DEFAULT_HOT_SET_SIZE = 1000;
+  static final String MAX_QUEUED_CHANGES_KEY = "maxQueuedChanges";
+  static final int DEFAULT_MAX_QUEUED_CHANGES = 100000;
+
   private final Main main;
   private final AutoReindex autoReindex;
   private final IndexSync indexSync;
@@ -264,11 +270,19 @@ public class Configuration {
     private final boolean enabled;
     private final Duration delay;
     private final Duration pollInterval;
+    private final int threadPoolSize;
+    private final int hotSetSize;
+    private final int maxQueuedChanges;
 
     public AutoReindex(Config cfg) {
       enabled = cfg.getBoolean(AUTO_REINDEX_SECTION, ENABLED, DEFAULT_AUTO_REINDEX);
       delay = getDuration(cfg, AUTO_REINDEX_SECTION, DELAY, DEFAULT_DELAY);
       pollInterval = getDuration(cfg, AUTO_REINDEX_SECTION, POLL_INTERVAL, DEFAULT_POLL_INTERVAL);
+      threadPoolSize =
+          getInt(cfg, AUTO_REINDEX_SECTION, THREAD_POOL_SIZE_KEY, DEFAULT_THREAD_POOL_SIZE);
+      hotSetSize = getInt(cfg, AUTO_REINDEX_SECTION, HOT_SET_SIZE_KEY, DEFAULT_HOT_SET_SIZE);
+      maxQueuedChanges =
+          getInt(cfg, AUTO_REINDEX_SECTION, MAX_QUEUED_CHANGES_KEY, DEFAULT_MAX_QUEUED_CHANGES);
     }
 
     public boolean enabled() {
@@ -282,6 +296,18 @@ public class Configuration {
     public Duration pollInterval() {
       return pollInterval;
     }
+
+    public int threadPoolSize() {
+      return threadPoolSize;
+    }
+
+    public int hotSetSize() {
+      return hotSetSize;
+    }
+
+    public int maxQueuedChanges() {
+      return maxQueuedChanges;
+    }
   }
 
   public static class IndexSync {
@@ -292,18 +318,33 @@ public class Configuration {
     static final String PERIOD = "period";
     static final String INITIAL_SYNC_AGE = "initialSyncAge";
     static final String SYNC_AGE = "syncAge";
+    static final String CURSOR_OVERLAP = "cursorOverlap";
+    static final String DELETION_AUDIT_INTERVAL = "deletionAuditInterval";
+    static final String DELETION_JOURNAL_SIZE = "deletionJournalSize";
+    static final String ENTITY_JOURNAL_SIZE = "entityJournalSize";
 
     static final boolean DEFAULT_SYNC_INDEX = false;
     static final Duration DEFAULT_DELAY = Duration.ofSeconds(0);
     static final Duration DEFAULT_PERIOD = Duration.ofSeconds(2);
     static final String DEFAULT_INITIAL_SYNC_AGE = "1hour";
     static final String DEFAULT_SYNC_AGE = "1minute";
+    static final Duration DEFAULT_CURSOR_OVERLAP = Duration.ofSeconds(5);
+    static final Duration DEFAULT_DELETION_AUDIT_INTERVAL = Duration.ofHours(1);
+    static final int DEFAULT_DELETION_JOURNAL_SIZE = 10000;
+    static final int DEFAULT_ENTITY_JOURNAL_SIZE = 10000;
 
     private final boolean enabled;
     private final Duration delay;
     private final Duration period;
     private final String initialSyncAge;
     private final String syncAge;
+    private final Duration cursorOverlap;
+    private final Duration deletionAuditInterval;
+    private final int deletionJournalSize;
+    private final int entityJournalSize;
+    private final int threadPoolSize;
+    private final int hotSetSize;
+    private final int maxQueuedChanges;
 
     public IndexSync(Config cfg) {
       enabled = cfg.getBoolean(INDEX_SYNC_SECTION, ENABLED, DEFAULT_SYNC_INDEX);
@@ -315,6 +356,21 @@ public class Configuration {
 
       v = cfg.getString(INDEX_SYNC_SECTION, "", SYNC_AGE);
       syncAge = v != null ? v : DEFAULT_SYNC_AGE;
+
+      cursorOverlap =
+          getDuration(cfg, INDEX_SYNC_SECTION, CURSOR_OVERLAP, DEFAULT_CURSOR_OVERLAP);
+      deletionAuditInterval =
+          getDuration(
+              cfg, INDEX_SYNC_SECTION, DELETION_AUDIT_INTERVAL, DEFAULT_DELETION_AUDIT_INTERVAL);
+      deletionJournalSize =
+          getInt(cfg, INDEX_SYNC_SECTION, DELETION_JOURNAL_SIZE, DEFAULT_DELETION_JOURNAL_SIZE);
+      entityJournalSize =
+          getInt(cfg, INDEX_SYNC_SECTION, ENTITY_JOURNAL_SIZE, DEFAULT_ENTITY_JOURNAL_SIZE);
+      threadPoolSize =
+          getInt(cfg, INDEX_SYNC_SECTION, THREAD_POOL_SIZE_KEY, DEFAULT_THREAD_POOL_SIZE);
+      hotSetSize = getInt(cfg, INDEX_SYNC_SECTION, HOT_SET_SIZE_KEY, DEFAULT_HOT_SET_SIZE);
+      maxQueuedChanges =
+          getInt(cfg, INDEX_SYNC_SECTION, MAX_QUEUED_CHANGES_KEY, DEFAULT_MAX_QUEUED_CHANGES);
     }
 
     public boolean enabled() {
@@ -336,6 +392,34 @@ public class Configuration {
     public String syncAge() {
       return syncAge;
     }
+
+    public Duration cursorOverlap() {
+      return cursorOverlap;
+    }
+
+    public Duration deletionAuditInterval() {
+      return deletionAuditInterval;
+    }
+
+    public int deletionJournalSize() {
+      return deletionJournalSize;
+    }
+
+    public int entityJournalSize() {
+      return entityJournalSize;
+    }
+
+    public int threadPoolSize() {
+      return threadPoolSize;
+    }
+
+    public int hotSetSize() {
+      return hotSetSize;
+    }
+
+    public int maxQueuedChanges() {
+      return maxQueuedChanges;
+    }
   }
 
   public static class PeerInfo {
@@ -604,34 +688,175 @@ public class Configuration {
   public static class Cache extends Forwarding {
     static final String CACHE_SECTION = "cache";
     static final String PATTERN_KEY = "pattern";
+    static final String EVICTION_BATCH_WINDOW_KEY = "evictionBatchWindow";
+    static final Duration DEFAULT_EVICTION_BATCH_WINDOW = Duration.ZERO;
+    static final String PROJECT_LIST_CHECK_INTERVAL_KEY = "projectListCheckInterval";
+    static final Duration DEFAULT_PROJECT_LIST_CHECK_INTERVAL = Duration.ofHours(1);
+    static final String REFRESH_AHEAD_KEY = "refreshAhead";
+    static final String REFRESH_AHEAD_THREAD_POOL_SIZE_KEY = "refreshAheadThreadPoolSize";
+    static final int DEFAULT_REFRESH_AHEAD_THREAD_POOL_SIZE = 1;
+    static final String REFRESH_AHEAD_RATE_KEY = "refreshAheadRate";
+    static final int DEFAULT_REFRESH_AHEAD_RATE = 10;
 
     private final List<String> patterns;
+    private final Duration evictionBatchWindow;
+    private final Duration projectListCheckInterval;
+    private final Set<String> refreshAhead;
+    private final int refreshAheadThreadPoolSize;
+    private final int refreshAheadRate;
 
     private Cache(Config cfg) {
       super(cfg, CACHE_SECTION);
       patterns = Arrays.asList(cfg.getStringList(CACHE_SECTION, null, PATTERN_KEY));
+      evictionBatchWindow =
+          getDuration(
+              cfg, CACHE_SECTION, EVICTION_BATCH_WINDOW_KEY, DEFAULT_EVICTION_BATCH_WINDOW);
+      projectListCheckInterval =
+          getDuration(
+              cfg,
+              CACHE_SECTION,
+              PROJECT_LIST_CHECK_INTERVAL_KEY,
+              DEFAULT_PROJECT_LIST_CHECK_INTERVAL);
+      refreshAhead = ImmutableSet.copyOf(cfg.getStringList(CACHE_SECTION, null, REFRESH_AHEAD_KEY));
+      refreshAheadThreadPoolSize =
+          getInt(
+              cfg,
+              CACHE_SECTION,
+              REFRESH_AHEAD_THREAD_POOL_SIZE_KEY,
+              DEFAULT_REFRESH_AHEAD_THREAD_POOL_SIZE);
+      refreshAheadRate =
+          getInt(cfg, CACHE_SECTION, REFRESH_AHEAD_RATE_KEY, DEFAULT_REFRESH_AHEAD_RATE);
     }
 
     public List<String> patterns() {
       return Collections.unmodifiableList(patterns);
     }
+
+    public Duration evictionBatchWindow() {
+      return evictionBatchWindow;
+    }
+
+    public Duration projectListCheckInterval() {
+      return projectListCheckInterval;
+    }
+
+    public Set<String> refreshAhead() {
+      return refreshAhead;
+    }
+
+    public int refreshAheadThreadPoolSize() {
+      return refreshAheadThreadPoolSize;
+    }
+
+    public int refreshAheadRate() {
+      return refreshAheadRate;
+    }
   }
 
   public static class Event extends Forwarding {
     static final String EVENT_SECTION = "event";
     static final String ALLOWED_LISTENERS = "allowedListeners";
+    static final String BATCH_WINDOW_KEY = "batchWindow";
+    static final Duration DEFAULT_BATCH_WINDOW = Duration.ZERO;
+    static final String BATCH_MAX_SIZE_KEY = "batchMaxSize";
+    static final int DEFAULT_BATCH_MAX_SIZE = 100;
+    static final String TYPE_KEY = "type";
+    static final String PROJECT_KEY = "project";
+    static final String EXCLUDE_ATTRIBUTE_KEY = "excludeAttribute";
+    static final String REORDER_TIMEOUT_KEY = "reorderTimeout";
+    static final Duration DEFAULT_REORDER_TIMEOUT = Duration.ofSeconds(5);
+    static final String JOURNAL_KEY = "journal";
+    static final boolean DEFAULT_JOURNAL = false;
+    static final String JOURNAL_MAX_SIZE_KEY = "journalMaxSize";
+    static final long DEFAULT_JOURNAL_MAX_SIZE = 100 * 1024 * 1024;
+    static final String JOURNAL_MAX_AGE_KEY = "journalMaxAge";
+    static final Duration DEFAULT_JOURNAL_MAX_AGE = Duration.ofDays(1);
+    static final String MAX_QUEUED_EVENTS_KEY = "maxQueuedEvents";
+    static final int DEFAULT_MAX_QUEUED_EVENTS = 10000;
 
     private final Set<String> allowedListeners;
+    private final Duration batchWindow;
+    private final int batchMaxSize;
+    private final Set<String> types;
+    private final List<String> projects;
+    private final List<String> excludedAttributes;
+    private final Duration reorderTimeout;
+    private final boolean journal;
+    private final long journalMaxSize;
+    private final Duration journalMaxAge;
+    private final int threadPoolSize;
+    private final int maxQueuedEvents;
 
     private Event(Config cfg) {
       super(cfg, EVENT_SECTION);
 
       allowedListeners = Sets.newHashSet(cfg.getStringList(EVENT_SECTION, null, ALLOWED_LISTENERS));
+      batchWindow = getDuration(cfg, EVENT_SECTION, BATCH_WINDOW_KEY, DEFAULT_BATCH_WINDOW);
+      int batchSize = getInt(cfg, EVENT_SECTION, BATCH_MAX_SIZE_KEY, DEFAULT_BATCH_MAX_SIZE);
+      batchMaxSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_MAX_SIZE;
+      types = Sets.newHashSet(cfg.getStringList(EVENT_SECTION, null, TYPE_KEY));
+      projects = Arrays.asList(cfg.getStringList(EVENT_SECTION, null, PROJECT_KEY));
+      excludedAttributes =
+          Arrays.asList(cfg.getStringList(EVENT_SECTION, null, EXCLUDE_ATTRIBUTE_KEY));
+      reorderTimeout =
+          getDuration(cfg, EVENT_SECTION, REORDER_TIMEOUT_KEY, DEFAULT_REORDER_TIMEOUT);
+      journal = cfg.getBoolean(EVENT_SECTION, JOURNAL_KEY, DEFAULT_JOURNAL);
+      long maxSize =
+          cfg.getLong(EVENT_SECTION, null, JOURNAL_MAX_SIZE_KEY, DEFAULT_JOURNAL_MAX_SIZE);
+      journalMaxSize = maxSize > 0 ? maxSize : DEFAULT_JOURNAL_MAX_SIZE;
+      journalMaxAge = getDuration(cfg, EVENT_SECTION, JOURNAL_MAX_AGE_KEY, DEFAULT_JOURNAL_MAX_AGE);
+      threadPoolSize = getInt(cfg, EVENT_SECTION, THREAD_POOL_SIZE_KEY, DEFAULT_THREAD_POOL_SIZE);
+      int queued = getInt(cfg, EVENT_SECTION, MAX_QUEUED_EVENTS_KEY, DEFAULT_MAX_QUEUED_EVENTS);
+      maxQueuedEvents = queued > 0 ? queued : DEFAULT_MAX_QUEUED_EVENTS;
     }
 
     public Set<String> allowedListeners() {
       return allowedListeners;
     }
+
+    public Duration batchWindow() {
+      return batchWindow;
+    }
+
+    public int batchMaxSize() {
+      return batchMaxSize;
+    }
+
+    public Set<String> types() {
+      return types;
+    }
+
+    public List<String> projects() {
+      return Collections.unmodifiableList(projects);
+    }
+
+    public List<String> excludedAttributes() {
+      return Collections.unmodifiableList(excludedAttributes);
+    }
+
+    public Duration reorderTimeout() {
+      return reorderTimeout;
+    }
+
+    public boolean journal() {
+      return journal;
+    }
+
+    public long journalMaxSize() {
+      return journalMaxSize;
+    }
+
+    public Duration journalMaxAge() {
+      return journalMaxAge;
+    }
+
+    public int threadPoolSize() {
+      return threadPoolSize;
+    }
+
+    public int maxQueuedEvents() {
+      return maxQueuedEvents;
+    }
   }
 
   public static class Index extends Forwarding {
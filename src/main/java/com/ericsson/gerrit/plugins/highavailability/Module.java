@@ -16,6 +16,7 @@ package com.ericsson.gerrit.plugins.highavailability;
 
 import com.ericsson.gerrit.plugins.highavailability.autoreindex.AutoReindexModule;
 import com.ericsson.gerrit.plugins.highavailability.cache.CacheModule;
+import com.ericsson.gerrit.plugins.highavailability.event.EventJournalModule;
 import com.ericsson.gerrit.plugins.highavailability.event.EventModule;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
@@ -77,6 +78,9 @@ class Module extends LifecycleModule {
     }
     if (config.event().synchronize()) {
       install(new EventModule());
+      if (config.event().journal() && config.main().transport() == Configuration.Transport.HTTP) {
+        install(new EventJournalModule());
+      }
     }
     if (config.index().synchronize()) {
       install(new IndexModule());
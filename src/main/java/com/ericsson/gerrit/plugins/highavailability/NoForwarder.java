@@ -17,9 +17,11 @@ package com.ericsson.gerrit.plugins.highavailability;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.IndexEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.entities.Project.NameKey;
-import com.google.gerrit.server.events.Event;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -66,15 +68,25 @@ public class NoForwarder implements Forwarder {
   }
 
   @Override
-  public CompletableFuture<Result> send(Event event) {
+  public CompletableFuture<Result> send(SequencedEvent event) {
     return recoverableFailure(EventType.EVENT_SENT);
   }
 
+  @Override
+  public CompletableFuture<Result> sendAll(List<SequencedEvent> events) {
+    return recoverableFailure(EventType.EVENT_BATCH_SENT);
+  }
+
   @Override
   public CompletableFuture<Result> evict(String cacheName, Object key) {
     return recoverableFailure(EventType.CACHE_EVICTION);
   }
 
+  @Override
+  public CompletableFuture<Result> evictAll(String cacheName, Collection<?> keys) {
+    return recoverableFailure(EventType.CACHE_EVICTION_BATCH);
+  }
+
   @Override
   public CompletableFuture<Result> addToProjectList(String projectName) {
     return recoverableFailure(EventType.PROJECT_LIST_ADDITION);
@@ -19,50 +19,61 @@ import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexingH
 import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.entities.Account;
-import com.google.gerrit.server.account.AccountState;
-import com.google.gerrit.server.account.Accounts;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.server.config.AllUsersName;
+import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.gerrit.server.util.OneOffRequestContext;
 import com.google.inject.Inject;
 import java.io.IOException;
 import java.sql.Timestamp;
 import java.util.Optional;
 
-public class AccountReindexRunnable extends ReindexRunnable<AccountState> {
+/** Reindexes the accounts whose {@code refs/users/*} ref in All-Users moved. */
+public class AccountReindexRunnable extends AllUsersRefsReindexRunnable<Account.Id> {
   private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  private static final String SNAPSHOT_FILE = "account-refs";
 
   private final ForwardedIndexAccountHandler accountIdx;
 
-  private final Accounts accounts;
-
   @Inject
   public AccountReindexRunnable(
       ForwardedIndexAccountHandler accountIdx,
       IndexTs indexTs,
       OneOffRequestContext ctx,
-      Accounts accounts) {
-    super(AbstractIndexRestApiServlet.IndexName.ACCOUNT, indexTs, ctx);
+      GitRepositoryManager repoManager,
+      AllUsersName allUsers,
+      RefStateSnapshot.Factory snapshotFactory) {
+    super(
+        AbstractIndexRestApiServlet.IndexName.ACCOUNT,
+        indexTs,
+        ctx,
+        repoManager,
+        allUsers,
+        RefNames.REFS_USERS,
+        snapshotFactory.create(SNAPSHOT_FILE));
     this.accountIdx = accountIdx;
-    this.accounts = accounts;
   }
 
   @Override
-  protected Iterable<AccountState> fetchItems() throws Exception {
-    return accounts.all();
+  protected Account.Id fromKey(String refName) {
+    return Account.Id.fromRef(refName);
+  }
+
+  @Override
+  protected String toKey(Account.Id id) {
+    return RefNames.refsUsers(id);
   }
 
+  /** Reindexes the account, only called for the accounts whose ref moved. */
   @Override
-  protected Optional<Timestamp> indexIfNeeded(AccountState as, Timestamp sinceTs) {
+  protected boolean reindex(Account.Id id, Timestamp sinceTs) {
     try {
-      Account a = as.account();
-      Timestamp accountTs = Timestamp.from(a.registeredOn());
-      if (accountTs.after(sinceTs)) {
-        log.atInfo().log("Index %s/%s/%s/%s", a.id(), a.fullName(), a.preferredEmail(), accountTs);
-        accountIdx.index(a.id(), Operation.INDEX, Optional.empty());
-        return Optional.of(accountTs);
-      }
+      log.atInfo().log("Index account %s updated after %s", id, sinceTs);
+      accountIdx.index(id, Operation.INDEX, Optional.empty());
+      return true;
     } catch (IOException e) {
       log.atSevere().withCause(e).log("Reindex failed");
     }
-    return Optional.empty();
+    return false;
   }
 }
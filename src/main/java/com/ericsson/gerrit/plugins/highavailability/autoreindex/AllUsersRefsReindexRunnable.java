@@ -0,0 +1,66 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet;
+import com.google.gerrit.server.config.AllUsersName;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Reindexes the items whose ref in All-Users moved since the previous scan. Without a previous
+ * scan, the items whose ref was updated after the watermark are reindexed.
+ *
+ * <p>The items are recorded in the snapshot under their ref name.
+ */
+abstract class AllUsersRefsReindexRunnable<T> extends RefStateReindexRunnable<T> {
+  private final GitRepositoryManager repoManager;
+  private final AllUsersName allUsers;
+  private final String refPrefix;
+
+  AllUsersRefsReindexRunnable(
+      AbstractIndexRestApiServlet.IndexName itemName,
+      IndexTs indexTs,
+      OneOffRequestContext ctx,
+      GitRepositoryManager repoManager,
+      AllUsersName allUsers,
+      String refPrefix,
+      RefStateSnapshot refs) {
+    super(itemName, indexTs, ctx, refs);
+    this.repoManager = repoManager;
+    this.allUsers = allUsers;
+    this.refPrefix = refPrefix;
+  }
+
+  @Override
+  protected List<T> collectUpdatedItems(RefScan scan) throws Exception {
+    List<T> updatedItems = new ArrayList<>();
+    try (Repository repo = repoManager.openRepository(allUsers);
+        RevWalk rw = new RevWalk(repo)) {
+      for (Ref ref : repo.getRefDatabase().getRefsByPrefix(refPrefix)) {
+        T item = fromKey(ref.getName());
+        if (item != null && scan.isUpdated(ref.getName(), ref, rw)) {
+          updatedItems.add(item);
+        }
+      }
+    }
+    return updatedItems;
+  }
+}
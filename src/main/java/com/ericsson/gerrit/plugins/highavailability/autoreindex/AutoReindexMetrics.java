@@ -0,0 +1,145 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet.IndexName;
+import com.google.gerrit.metrics.Counter0;
+import com.google.gerrit.metrics.Counter1;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.Field;
+import com.google.gerrit.metrics.MetricMaker;
+import com.google.gerrit.metrics.Timer0;
+import com.google.gerrit.server.logging.PluginMetadata;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Singleton
+public class AutoReindexMetrics {
+  private final AtomicLong pendingProjects = new AtomicLong();
+  private final Timer0 changeScanLatency;
+  private final Timer0 hotSetFreshLatency;
+  private final Counter0 scannedProjects;
+  private final Counter0 skippedProjects;
+  private final Counter0 reindexedChanges;
+  private final Counter0 droppedChanges;
+  private final Counter1<String> indexTsUpdates;
+  private final Counter1<String> indexTsFlushes;
+
+  @Inject
+  AutoReindexMetrics(MetricMaker metricMaker) {
+    metricMaker.newCallbackMetric(
+        "autoreindex/pending_projects",
+        Long.class,
+        new Description("Projects left to scan by the running auto-reindex change scan")
+            .setGauge(),
+        pendingProjects::get);
+    this.changeScanLatency =
+        metricMaker.newTimer(
+            "autoreindex/change_scan_latency",
+            new Description("Time to scan the projects for changes updated by other nodes")
+                .setCumulative()
+                .setUnit(Description.Units.MILLISECONDS));
+    this.hotSetFreshLatency =
+        metricMaker.newTimer(
+            "autoreindex/hot_set_fresh_latency",
+            new Description(
+                    "Time to reindex the most recently updated changes found stale by a scan")
+                .setCumulative()
+                .setUnit(Description.Units.MILLISECONDS));
+    this.scannedProjects =
+        metricMaker.newCounter(
+            "autoreindex/scanned_projects",
+            new Description("Projects whose changes were scanned by the auto-reindex")
+                .setCumulative()
+                .setRate());
+    this.skippedProjects =
+        metricMaker.newCounter(
+            "autoreindex/skipped_projects",
+            new Description("Projects skipped by the auto-reindex as their changes did not move")
+                .setCumulative()
+                .setRate());
+    this.reindexedChanges =
+        metricMaker.newCounter(
+            "autoreindex/reindexed_changes",
+            new Description("Changes reindexed by the auto-reindex").setCumulative().setRate());
+    this.droppedChanges =
+        metricMaker.newCounter(
+            "autoreindex/dropped_changes",
+            new Description(
+                    "Stale changes left for the next scan, past autoReindex.maxQueuedChanges")
+                .setCumulative()
+                .setRate());
+
+    Field<String> indexField =
+        Field.ofString(
+                "index",
+                (metadataBuilder, fieldValue) ->
+                    metadataBuilder.addPluginMetadata(PluginMetadata.create("index", fieldValue)))
+            .description("Index whose latest timestamp is tracked")
+            .build();
+    this.indexTsUpdates =
+        metricMaker.newCounter(
+            "autoreindex/index_ts_updates",
+            new Description("Updates of the latest indexed timestamp").setCumulative().setRate(),
+            indexField);
+    this.indexTsFlushes =
+        metricMaker.newCounter(
+            "autoreindex/index_ts_flushes",
+            new Description("Writes of the latest indexed timestamp to disk")
+                .setCumulative()
+                .setRate(),
+            indexField);
+  }
+
+  public void startChangeScan(int projects) {
+    pendingProjects.set(projects);
+  }
+
+  public void recordProjectScanned(boolean skipped) {
+    pendingProjects.decrementAndGet();
+    if (skipped) {
+      skippedProjects.increment();
+    } else {
+      scannedProjects.increment();
+    }
+  }
+
+  public void recordReindexedChanges(int reindexed) {
+    reindexedChanges.incrementBy(reindexed);
+  }
+
+  public void recordDroppedChanges(int dropped) {
+    droppedChanges.incrementBy(dropped);
+  }
+
+  public void recordIndexTsUpdate(IndexName index) {
+    indexTsUpdates.increment(index.name().toLowerCase());
+  }
+
+  public void recordIndexTsFlush(IndexName index) {
+    indexTsFlushes.increment(index.name().toLowerCase());
+  }
+
+  public void recordHotSetFresh(long latencyMs) {
+    hotSetFreshLatency.record(latencyMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void recordChangeScan(long latencyMs) {
+    pendingProjects.set(0);
+    changeScanLatency.record(latencyMs, TimeUnit.MILLISECONDS);
+  }
+}
@@ -14,18 +14,28 @@
 
 package com.ericsson.gerrit.plugins.highavailability.autoreindex;
 
+import com.google.gerrit.extensions.config.FactoryModule;
 import com.google.gerrit.extensions.events.AccountIndexedListener;
 import com.google.gerrit.extensions.events.ChangeIndexedListener;
+import com.google.gerrit.extensions.events.GroupIndexedListener;
 import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.events.ProjectIndexedListener;
 import com.google.gerrit.extensions.registration.DynamicSet;
-import com.google.inject.AbstractModule;
+import java.util.concurrent.ExecutorService;
 
-public class AutoReindexModule extends AbstractModule {
+public class AutoReindexModule extends FactoryModule {
 
   @Override
   protected void configure() {
     DynamicSet.bind(binder(), LifecycleListener.class).to(AutoReindexScheduler.class);
+    bind(ExecutorService.class)
+        .annotatedWith(ChangeScanExecutor.class)
+        .toProvider(ChangeScanExecutorProvider.class);
+    DynamicSet.bind(binder(), LifecycleListener.class).to(ChangeScanExecutorProvider.class);
     DynamicSet.bind(binder(), ChangeIndexedListener.class).to(IndexTs.class);
     DynamicSet.bind(binder(), AccountIndexedListener.class).to(IndexTs.class);
+    DynamicSet.bind(binder(), GroupIndexedListener.class).to(IndexTs.class);
+    DynamicSet.bind(binder(), ProjectIndexedListener.class).to(IndexTs.class);
+    factory(RefStateSnapshot.Factory.class);
   }
 }
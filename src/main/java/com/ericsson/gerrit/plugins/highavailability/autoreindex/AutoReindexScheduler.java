@@ -33,6 +33,8 @@ public class AutoReindexScheduler implements LifecycleListener {
   private final Configuration.AutoReindex cfg;
   private final ChangeReindexRunnable changeReindex;
   private final AccountReindexRunnable accountReindex;
+  private final GroupReindexRunnable groupReindex;
+  private final ProjectReindexRunnable projectReindex;
   private final ScheduledExecutorService executor;
   private final List<Future<?>> futureTasks = new ArrayList<>();
 
@@ -41,10 +43,14 @@ public class AutoReindexScheduler implements LifecycleListener {
       Configuration cfg,
       WorkQueue workQueue,
       ChangeReindexRunnable changeReindex,
-      AccountReindexRunnable accountReindex) {
+      AccountReindexRunnable accountReindex,
+      GroupReindexRunnable groupReindex,
+      ProjectReindexRunnable projectReindex) {
     this.cfg = cfg.autoReindex();
     this.changeReindex = changeReindex;
     this.accountReindex = accountReindex;
+    this.groupReindex = groupReindex;
+    this.projectReindex = projectReindex;
     this.executor = workQueue.createQueue(1, "HighAvailability-AutoReindex");
   }
 
@@ -53,7 +59,7 @@ public class AutoReindexScheduler implements LifecycleListener {
     if (cfg.pollInterval().compareTo(Duration.ZERO) > 0) {
       log.atInfo().log(
           "Scheduling auto-reindex after %s and every %s", cfg.delay(), cfg.pollInterval());
-      for (Runnable reindexTask : List.of(changeReindex, accountReindex)) {
+      for (Runnable reindexTask : reindexTasks()) {
         futureTasks.add(
             executor.scheduleAtFixedRate(
                 reindexTask,
@@ -63,12 +69,16 @@ public class AutoReindexScheduler implements LifecycleListener {
       }
     } else {
       log.atInfo().log("Scheduling auto-reindex after %s", cfg.delay());
-      for (Runnable reindexTask : List.of(changeReindex, accountReindex)) {
+      for (Runnable reindexTask : reindexTasks()) {
         futureTasks.add(executor.schedule(reindexTask, cfg.delay().toSeconds(), TimeUnit.SECONDS));
       }
     }
   }
 
+  private List<Runnable> reindexTasks() {
+    return List.of(changeReindex, accountReindex, groupReindex, projectReindex);
+  }
+
   @Override
   public void stop() {
     futureTasks.forEach(t -> t.cancel(true));
@@ -0,0 +1,88 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.List;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Persisted digest of the change meta refs of each project, as of the last auto-reindex scan.
+ *
+ * <p>Changes updated by other nodes move their {@code refs/changes/*}{@code /meta} ref in the
+ * shared repositories, so only the projects whose digest differs need to have their changes
+ * scanned. Listing the refs is much cheaper than loading the notes of every change.
+ */
+@Singleton
+class ChangeMetaRefsSnapshot {
+  private static final String SNAPSHOT_FILE = "change-meta-refs";
+
+  private final RefStateSnapshot snapshot;
+
+  @Inject
+  ChangeMetaRefsSnapshot(RefStateSnapshot.Factory snapshotFactory) {
+    this.snapshot = snapshotFactory.create(SNAPSHOT_FILE);
+  }
+
+  /** Starts recording the digests of a new scan, discarding the ones of an incomplete scan. */
+  void startScan() {
+    snapshot.startScan();
+  }
+
+  /**
+   * Records the current digest of the project and returns whether its change meta refs are the
+   * same as on the last completed scan.
+   */
+  boolean isUnchanged(Project.NameKey project, Repository repo) throws IOException {
+    // Listing the refs is done outside of the lock as projects are scanned concurrently
+    return !snapshot.record(project.get(), digest(repo));
+  }
+
+  /** Forces the project to be scanned again by the next scan, e.g. after a failure. */
+  void forget(Project.NameKey project) {
+    snapshot.forget(project.get());
+  }
+
+  /**
+   * Makes the digests recorded since {@link #startScan()} the reference for the next scan. Projects
+   * not seen during the scan, e.g. deleted, are dropped.
+   */
+  void completeScan() {
+    snapshot.completeScan();
+  }
+
+  private static ObjectId digest(Repository repo) throws IOException {
+    List<Ref> refs = repo.getRefDatabase().getRefsByPrefix(RefNames.REFS_CHANGES);
+    MessageDigest md = Constants.newMessageDigest();
+    refs.stream()
+        .filter(ref -> ref.getName().endsWith(RefNames.META_SUFFIX))
+        .sorted(Comparator.comparing(Ref::getName))
+        .forEachOrdered(
+            ref -> {
+              md.update(Constants.encode(ref.getName()));
+              md.update(Constants.encode(ObjectId.toString(ref.getObjectId())));
+            });
+    return ObjectId.fromRaw(md.digest());
+  }
+}
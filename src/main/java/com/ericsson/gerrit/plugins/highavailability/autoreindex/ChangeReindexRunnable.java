@@ -14,49 +14,65 @@
 
 package com.ericsson.gerrit.plugins.highavailability.autoreindex;
 
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexChangeHandler;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexingHandler.Operation;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet;
-import com.google.common.collect.Streams;
+import com.ericsson.gerrit.plugins.highavailability.index.RecentFirstQueue;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.entities.Change;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.gerrit.server.notedb.ChangeNotes;
 import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.util.ManualRequestContext;
 import com.google.gerrit.server.util.OneOffRequestContext;
 import com.google.inject.Inject;
 import java.io.IOException;
 import java.sql.Timestamp;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.jgit.lib.Repository;
 
-public class ChangeReindexRunnable extends ReindexRunnable<Change> {
+public class ChangeReindexRunnable extends ReindexRunnable {
   private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
   private final ForwardedIndexChangeHandler changeIdx;
 
+  private final OneOffRequestContext ctx;
+
   private final ProjectCache projectCache;
 
   private final GitRepositoryManager repoManager;
 
   private final ChangeNotes.Factory notesFactory;
 
-  private static class StreamIterable implements Iterable<Change> {
+  private final ChangeMetaRefsSnapshot metaRefsSnapshot;
 
-    private final Stream<Change> stream;
+  private final ProjectWatermarks watermarks;
 
-    public StreamIterable(Stream<Change> stream) {
-      this.stream = stream;
-    }
+  private final AutoReindexMetrics metrics;
 
-    @Override
-    public Iterator<Change> iterator() {
-      return stream.iterator();
-    }
-  }
+  private final ExecutorService executor;
+
+  private final int hotSetSize;
+
+  private final int maxQueuedChanges;
+
+  private ImmutableSet<Project.NameKey> scannedProjects = ImmutableSet.of();
 
   @Inject
   public ChangeReindexRunnable(
@@ -65,40 +81,248 @@ public class ChangeReindexRunnable extends ReindexRunnable<Change> {
       OneOffRequestContext ctx,
       ProjectCache projectCache,
       GitRepositoryManager repoManager,
-      ChangeNotes.Factory notesFactory) {
+      ChangeNotes.Factory notesFactory,
+      ChangeMetaRefsSnapshot metaRefsSnapshot,
+      ProjectWatermarks watermarks,
+      AutoReindexMetrics metrics,
+      @ChangeScanExecutor ExecutorService executor,
+      Configuration cfg) {
     super(AbstractIndexRestApiServlet.IndexName.CHANGE, indexTs, ctx);
     this.changeIdx = changeIdx;
+    this.ctx = ctx;
     this.projectCache = projectCache;
     this.repoManager = repoManager;
     this.notesFactory = notesFactory;
+    this.metaRefsSnapshot = metaRefsSnapshot;
+    this.watermarks = watermarks;
+    this.metrics = metrics;
+    this.executor = executor;
+    this.hotSetSize = cfg.autoReindex().hotSetSize();
+    this.maxQueuedChanges = cfg.autoReindex().maxQueuedChanges();
+  }
+
+  /** Outcome of the scan of a project, whose stale changes are queued as soon as found. */
+  private record ProjectScan(
+      Project.NameKey project, Timestamp sinceTs, boolean skipped, boolean failed) {}
+
+  /**
+   * Changes of all the projects updated after the watermark of their project, most recent first.
+   * Past {@code autoReindex.maxQueuedChanges}, the least recent ones are dropped and their project
+   * is scanned again from the same watermark on the next run.
+   */
+  private static class StaleChanges {
+    private final RecentFirstQueue<Change> queue;
+    private final Set<Project.NameKey> truncatedProjects = new HashSet<>();
+
+    StaleChanges(int hotSetSize, int maxQueuedChanges) {
+      this.queue = new RecentFirstQueue<>(hotSetSize, maxQueuedChanges);
+    }
+
+    synchronized void add(Change c) {
+      queue
+          .add(c, c.getLastUpdatedOn().toEpochMilli())
+          .ifPresent(dropped -> truncatedProjects.add(dropped.getProject()));
+    }
+
+    synchronized boolean isTruncated(Project.NameKey project) {
+      return truncatedProjects.contains(project);
+    }
+
+    synchronized int dropped() {
+      return queue.dropped();
+    }
+
+    synchronized List<Change> drainHotSet() {
+      return queue.drainHotSet();
+    }
+
+    synchronized List<Change> drainOverflow() {
+      return queue.drainOverflow();
+    }
   }
 
+  /**
+   * Scans the projects in parallel, each one on a single thread of the {@link ChangeScanExecutor}
+   * bounded by {@code autoReindex.threadPoolSize}, then reindexes the changes updated after the
+   * watermark of their project, most recently updated first, so that the changes users are looking
+   * at are fresh first.
+   */
   @Override
-  protected Iterable<Change> fetchItems() throws Exception {
-    Stream<Change> allChangesStream = Stream.empty();
-    Iterable<Project.NameKey> projects = projectCache.all();
+  protected ScanResult scan(Timestamp sinceTs) throws Exception {
+    ImmutableSet<Project.NameKey> projects = ImmutableSet.copyOf(projectCache.all());
+    scannedProjects = projects;
+    metaRefsSnapshot.startScan();
+    metrics.startChangeScan(projects.size());
+    AtomicInteger unchangedProjects = new AtomicInteger();
+    StaleChanges staleChanges = new StaleChanges(hotSetSize, maxQueuedChanges);
+    List<Callable<ProjectScan>> projectScans = new ArrayList<>(projects.size());
     for (Project.NameKey projectName : projects) {
-      try (Repository repo = repoManager.openRepository(projectName)) {
-        Stream<Change> projectChangesStream =
-            notesFactory
-                .scan(repo, projectName)
-                .filter(
-                    cnr -> {
-                      if (cnr.error().isEmpty()) {
-                        return true;
-                      }
-                      log.atWarning().withCause(cnr.error().get()).log(
-                          "Error fetching change %s", cnr.id());
-                      return false;
-                    })
-                .map(cnr -> cnr.notes().getChange());
-        allChangesStream = Streams.concat(allChangesStream, projectChangesStream);
+      projectScans.add(() -> scanProject(projectName, sinceTs, staleChanges, unchangedProjects));
+    }
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    List<Future<?>> hotSet = List.of();
+    List<Future<?>> overflow = List.of();
+    try {
+      Map<Project.NameKey, ProjectScan> scans = new HashMap<>();
+      for (Future<ProjectScan> projectScan : executor.invokeAll(projectScans)) {
+        ProjectScan scan = projectScan.get();
+        scans.put(scan.project(), scan);
+      }
+      log.atFine().log(
+          "Skipped %d projects without change meta refs updates", unchangedProjects.get());
+      if (staleChanges.dropped() > 0) {
+        log.atWarning().log(
+            "Left %d stale changes for the next scan, more than autoReindex.maxQueuedChanges",
+            staleChanges.dropped());
+        metrics.recordDroppedChanges(staleChanges.dropped());
       }
+
+      // The executor runs the reindexes in submission order: the hot set first
+      Map<Project.NameKey, ScanResult> results = new ConcurrentHashMap<>();
+      Stopwatch hotSetStopwatch = Stopwatch.createStarted();
+      hotSet = reindexAll(staleChanges.drainHotSet(), scans, results);
+      overflow = reindexAll(staleChanges.drainOverflow(), scans, results);
+      for (Future<?> reindex : hotSet) {
+        reindex.get();
+      }
+      if (!hotSet.isEmpty()) {
+        metrics.recordHotSetFresh(hotSetStopwatch.elapsed(TimeUnit.MILLISECONDS));
+      }
+      for (Future<?> reindex : overflow) {
+        reindex.get();
+      }
+
+      ScanResult result = ScanResult.EMPTY;
+      for (ProjectScan scan : scans.values()) {
+        result =
+            result.merge(
+                completeProjectScan(
+                    scan, sinceTs, results, staleChanges.isTruncated(scan.project())));
+      }
+      return result;
+    } finally {
+      // Left over when the scan is interrupted or failed
+      hotSet.forEach(r -> r.cancel(true));
+      overflow.forEach(r -> r.cancel(true));
+      metrics.recordChangeScan(stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+  }
+
+  private List<Future<?>> reindexAll(
+      List<Change> changes,
+      Map<Project.NameKey, ProjectScan> scans,
+      Map<Project.NameKey, ScanResult> results) {
+    List<Future<?>> reindexes = new ArrayList<>(changes.size());
+    for (Change c : changes) {
+      Timestamp projectSinceTs = scans.get(c.getProject()).sinceTs();
+      reindexes.add(
+          executor.submit(
+              () -> {
+                try (ManualRequestContext mctx = ctx.open()) {
+                  results.merge(
+                      c.getProject(), reindexIfNeeded(c, projectSinceTs), ScanResult::merge);
+                }
+              }));
+    }
+    return reindexes;
+  }
+
+  /**
+   * Queues the changes of the project updated after its own watermark, or after {@code sinceTs}
+   * when it has none.
+   */
+  private ProjectScan scanProject(
+      Project.NameKey projectName,
+      Timestamp sinceTs,
+      StaleChanges staleChanges,
+      AtomicInteger unchangedProjects) {
+    Timestamp projectSinceTs = watermarks.get(projectName).orElse(sinceTs);
+    try (ManualRequestContext mctx = ctx.open();
+        Repository repo = repoManager.openRepository(projectName)) {
+      if (metaRefsSnapshot.isUnchanged(projectName, repo)) {
+        unchangedProjects.incrementAndGet();
+        metrics.recordProjectScanned(true);
+        return new ProjectScan(projectName, projectSinceTs, true, false);
+      }
+      notesFactory
+          .scan(repo, projectName)
+          .filter(
+              cnr -> {
+                if (cnr.error().isEmpty()) {
+                  return true;
+                }
+                log.atWarning().withCause(cnr.error().get()).log(
+                    "Error fetching change %s", cnr.id());
+                return false;
+              })
+          .map(cnr -> cnr.notes().getChange())
+          .filter(c -> Timestamp.from(c.getLastUpdatedOn()).after(projectSinceTs))
+          .forEach(staleChanges::add);
+      metrics.recordProjectScanned(false);
+      return new ProjectScan(projectName, projectSinceTs, false, false);
+    } catch (IOException | RuntimeException e) {
+      log.atSevere().withCause(e).log("Unable to scan the changes of project %s", projectName);
+      metrics.recordProjectScanned(false);
+      return new ProjectScan(projectName, projectSinceTs, false, true);
+    }
+  }
+
+  /**
+   * Advances the watermark of the project when it was scanned and all its changes reindexed
+   * successfully, otherwise makes sure it is scanned again from where this scan started.
+   */
+  private ScanResult completeProjectScan(
+      ProjectScan scan,
+      Timestamp sinceTs,
+      Map<Project.NameKey, ScanResult> results,
+      boolean truncated) {
+    if (scan.skipped()) {
+      return ScanResult.EMPTY;
+    }
+    if (scan.failed()) {
+      retryProjectScan(scan);
+      return new ScanResult(0, 1, null);
+    }
+    ScanResult result = results.getOrDefault(scan.project(), ScanResult.EMPTY);
+    metrics.recordReindexedChanges(result.reindexed());
+    if (result.errors() == 0 && !truncated) {
+      watermarks.advance(
+          scan.project(),
+          maxTimestamp(maxTimestamp(scan.sinceTs(), sinceTs), result.maxItemTs()));
+    } else {
+      retryProjectScan(scan);
+    }
+    return result;
+  }
+
+  /**
+   * Pins the project at the timestamp its scan started from: IndexTs still moves forward, so a
+   * project without a watermark yet would otherwise be scanned from past its failed changes.
+   */
+  private void retryProjectScan(ProjectScan scan) {
+    metaRefsSnapshot.forget(scan.project());
+    watermarks.advance(scan.project(), scan.sinceTs());
+  }
+
+  private ScanResult reindexIfNeeded(Change c, Timestamp sinceTs) {
+    try {
+      return indexIfNeeded(c, sinceTs)
+          .map(changeTs -> new ScanResult(1, 0, changeTs))
+          .orElse(ScanResult.EMPTY);
+    } catch (Exception e) {
+      log.atSevere().withCause(e).log("Unable to reindex change %s", c);
+      return new ScanResult(0, 1, null);
     }
-    return new StreamIterable(allChangesStream);
   }
 
   @Override
+  protected void onScanCompleted() {
+    metaRefsSnapshot.completeScan();
+    watermarks.flush(scannedProjects);
+  }
+
+  /** Reindexes the change if updated after {@code sinceTs} and returns its timestamp if so. */
   protected Optional<Timestamp> indexIfNeeded(Change c, Timestamp sinceTs) {
     try {
       Timestamp changeTs = Timestamp.from(c.getLastUpdatedOn());
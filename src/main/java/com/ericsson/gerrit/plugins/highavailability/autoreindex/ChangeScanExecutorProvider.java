@@ -0,0 +1,52 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.util.concurrent.ExecutorService;
+
+/** Executor scanning the projects and reindexing their changes on each auto-reindex run. */
+@Singleton
+public class ChangeScanExecutorProvider implements Provider<ExecutorService>, LifecycleListener {
+  static final String CHANGE_SCAN_THREAD_PREFIX = "HighAvailability-AutoReindex-Changes";
+
+  private final ExecutorService executor;
+
+  @Inject
+  ChangeScanExecutorProvider(WorkQueue workQueue, Configuration cfg) {
+    this.executor =
+        workQueue.createQueue(cfg.autoReindex().threadPoolSize(), CHANGE_SCAN_THREAD_PREFIX);
+  }
+
+  @Override
+  public void start() {
+    // do nothing
+  }
+
+  @Override
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public ExecutorService get() {
+    return executor;
+  }
+}
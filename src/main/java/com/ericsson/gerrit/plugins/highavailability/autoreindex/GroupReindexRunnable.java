@@ -0,0 +1,79 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexGroupHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexingHandler.Operation;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.AccountGroup;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.server.config.AllUsersName;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.Inject;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/** Reindexes the groups whose {@code refs/groups/*} ref in All-Users moved. */
+public class GroupReindexRunnable extends AllUsersRefsReindexRunnable<AccountGroup.UUID> {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  private static final String SNAPSHOT_FILE = "group-refs";
+
+  private final ForwardedIndexGroupHandler groupIdx;
+
+  @Inject
+  public GroupReindexRunnable(
+      ForwardedIndexGroupHandler groupIdx,
+      IndexTs indexTs,
+      OneOffRequestContext ctx,
+      GitRepositoryManager repoManager,
+      AllUsersName allUsers,
+      RefStateSnapshot.Factory snapshotFactory) {
+    super(
+        AbstractIndexRestApiServlet.IndexName.GROUP,
+        indexTs,
+        ctx,
+        repoManager,
+        allUsers,
+        RefNames.REFS_GROUPS,
+        snapshotFactory.create(SNAPSHOT_FILE));
+    this.groupIdx = groupIdx;
+  }
+
+  @Override
+  protected AccountGroup.UUID fromKey(String refName) {
+    return AccountGroup.UUID.fromRef(refName);
+  }
+
+  @Override
+  protected String toKey(AccountGroup.UUID uuid) {
+    return RefNames.refsGroups(uuid);
+  }
+
+  /** Reindexes the group, only called for the groups whose ref moved. */
+  @Override
+  protected boolean reindex(AccountGroup.UUID uuid, Timestamp sinceTs) {
+    try {
+      log.atInfo().log("Index group %s updated after %s", uuid, sinceTs);
+      groupIdx.index(uuid, Operation.INDEX, Optional.empty());
+      return true;
+    } catch (IOException e) {
+      log.atSevere().withCause(e).log("Reindex failed");
+    }
+    return false;
+  }
+}
@@ -14,16 +14,23 @@
 
 package com.ericsson.gerrit.plugins.highavailability.autoreindex;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
 import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet.IndexName;
 import com.ericsson.gerrit.plugins.highavailability.index.CurrentRequestContext;
 import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
 import com.google.gerrit.extensions.annotations.PluginData;
 import com.google.gerrit.extensions.events.AccountIndexedListener;
 import com.google.gerrit.extensions.events.ChangeIndexedListener;
-import com.google.gerrit.server.change.ChangeFinder;
+import com.google.gerrit.extensions.events.GroupIndexedListener;
+import com.google.gerrit.extensions.events.ProjectIndexedListener;
+import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.gerrit.server.git.WorkQueue;
-import com.google.gerrit.server.notedb.ChangeNotes;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.io.IOException;
@@ -31,42 +38,73 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.jgit.internal.storage.file.FileSnapshot;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
 
 @Singleton
-public class IndexTs implements ChangeIndexedListener, AccountIndexedListener {
+public class IndexTs
+    implements ChangeIndexedListener,
+        AccountIndexedListener,
+        GroupIndexedListener,
+        ProjectIndexedListener {
   private static final FluentLogger log = FluentLogger.forEnclosingClass();
   private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
+  private static final Duration FLUSH_DELAY = Duration.ofSeconds(1);
 
   private final Path dataDir;
   private final ScheduledExecutorService exec;
   private final FlusherRunner changeFlusher;
   private final FlusherRunner accountFlusher;
-  private final ChangeFinder changeFinder;
+  private final FlusherRunner groupFlusher;
+  private final FlusherRunner projectFlusher;
+  private final GitRepositoryManager repoManager;
   private final CurrentRequestContext currCtx;
+  private final AutoReindexMetrics metrics;
 
   private volatile LocalDateTime changeTs;
   private volatile LocalDateTime accountTs;
+  private volatile LocalDateTime groupTs;
+  private volatile LocalDateTime projectTs;
 
+  /**
+   * Write-behind flusher of the timestamp of one index. At most one flush is pending per index:
+   * the updates received while it is pending are coalesced and written by it.
+   */
   class FlusherRunner implements Runnable {
     private final AbstractIndexRestApiServlet.IndexName index;
     private final Path tsPath;
+    private final AtomicBoolean pending = new AtomicBoolean();
     private FileSnapshot tsPathSnapshot;
 
     @Override
     public void run() {
-      reloadIndexTimeStampIfChanged();
-      LocalDateTime latestTs = getIndexTimeStamp();
-      Optional<LocalDateTime> currTs = getUpdateTs(index);
-      if (!currTs.isPresent() || latestTs.isAfter(currTs.get())) {
-        try {
-          Files.write(tsPath, latestTs.format(formatter).getBytes(StandardCharsets.UTF_8));
-        } catch (IOException e) {
-          log.atSevere().withCause(e).log("Unable to update last timestamp for index %s", index);
+      // Updates received from now on need another flush
+      pending.set(false);
+      synchronized (this) {
+        reloadIndexTimeStampIfChanged();
+        LocalDateTime latestTs = getIndexTimeStamp();
+        Optional<LocalDateTime> currTs = getUpdateTs(index);
+        if (!currTs.isPresent() || latestTs.isAfter(currTs.get())) {
+          try {
+            Path tmp = Files.createTempFile(dataDir, tsPath.getFileName().toString(), ".tmp");
+            Files.write(tmp, latestTs.format(formatter).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, tsPath, ATOMIC_MOVE, REPLACE_EXISTING);
+            tsPathSnapshot = FileSnapshot.save(tsPath.toFile());
+            metrics.recordIndexTsFlush(index);
+          } catch (IOException e) {
+            log.atSevere().withCause(e).log("Unable to update last timestamp for index %s", index);
+          }
         }
       }
     }
@@ -77,12 +115,22 @@ public class IndexTs implements ChangeIndexedListener, AccountIndexedListener {
       this.tsPathSnapshot = FileSnapshot.save(tsPath.toFile());
     }
 
+    void schedule() {
+      if (pending.compareAndSet(false, true)) {
+        exec.schedule(this, FLUSH_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+      }
+    }
+
     private LocalDateTime getIndexTimeStamp() {
       switch (index) {
         case CHANGE:
           return changeTs;
         case ACCOUNT:
           return accountTs;
+        case GROUP:
+          return groupTs;
+        case PROJECT:
+          return projectTs;
         default:
           throw new IllegalArgumentException("Unsupported index " + index);
       }
@@ -102,6 +150,12 @@ public class IndexTs implements ChangeIndexedListener, AccountIndexedListener {
         case ACCOUNT:
           accountTs = newTs;
           break;
+        case GROUP:
+          groupTs = newTs;
+          break;
+        case PROJECT:
+          projectTs = newTs;
+          break;
       }
 
       tsPathSnapshot = FileSnapshot.save(tsPath.toFile());
@@ -112,13 +166,17 @@ public class IndexTs implements ChangeIndexedListener, AccountIndexedListener {
   public IndexTs(
       @PluginData Path dataDir,
       WorkQueue queue,
-      ChangeFinder changeFinder,
-      CurrentRequestContext currCtx) {
+      GitRepositoryManager repoManager,
+      CurrentRequestContext currCtx,
+      AutoReindexMetrics metrics) {
     this.dataDir = dataDir;
     this.exec = queue.getDefaultQueue();
+    this.metrics = metrics;
     this.changeFlusher = new FlusherRunner(AbstractIndexRestApiServlet.IndexName.CHANGE);
     this.accountFlusher = new FlusherRunner(AbstractIndexRestApiServlet.IndexName.ACCOUNT);
-    this.changeFinder = changeFinder;
+    this.groupFlusher = new FlusherRunner(AbstractIndexRestApiServlet.IndexName.GROUP);
+    this.projectFlusher = new FlusherRunner(AbstractIndexRestApiServlet.IndexName.PROJECT);
+    this.repoManager = repoManager;
     this.currCtx = currCtx;
   }
 
@@ -127,24 +185,49 @@ public class IndexTs implements ChangeIndexedListener, AccountIndexedListener {
     currCtx.onlyWithContext((ctx) -> update(IndexName.ACCOUNT, LocalDateTime.now()));
   }
 
+  @Override
+  public void onGroupIndexed(String uuid) {
+    currCtx.onlyWithContext((ctx) -> update(IndexName.GROUP, LocalDateTime.now()));
+  }
+
+  @Override
+  public void onProjectIndexed(String project) {
+    currCtx.onlyWithContext((ctx) -> update(IndexName.PROJECT, LocalDateTime.now()));
+  }
+
   @Override
   public void onChangeIndexed(String projectName, int id) {
     currCtx.onlyWithContext(
         (ctx) -> {
           try {
-            Optional<ChangeNotes> changeNotes = changeFinder.findOne(projectName + "~" + id);
+            Optional<Instant> lastUpdatedOn = getLastUpdatedOn(Project.nameKey(projectName), id);
             update(
                 IndexName.CHANGE,
-                !changeNotes.isPresent()
+                lastUpdatedOn.isEmpty()
                     ? LocalDateTime.now()
-                    : Timestamp.from(changeNotes.get().getChange().getLastUpdatedOn())
-                        .toLocalDateTime());
+                    : Timestamp.from(lastUpdatedOn.get()).toLocalDateTime());
           } catch (Exception e) {
             log.atWarning().withCause(e).log("Unable to update the latest TS for change %d", id);
           }
         });
   }
 
+  /**
+   * Returns the time of the latest update of the change, read from its meta ref commit rather than
+   * by loading its notes, so that tracking the indexing does not add a NoteDb load to it.
+   */
+  private Optional<Instant> getLastUpdatedOn(Project.NameKey project, int id) throws IOException {
+    try (Repository repo = repoManager.openRepository(project);
+        RevWalk rw = new RevWalk(repo)) {
+      Ref metaRef = repo.exactRef(RefNames.changeMetaRef(Change.id(id)));
+      if (metaRef == null) {
+        return Optional.empty();
+      }
+      RevCommit meta = rw.parseCommit(metaRef.getObjectId());
+      return Optional.of(meta.getCommitterIdent().getWhenAsInstant());
+    }
+  }
+
   @Override
   public void onChangeDeleted(String projectName, int id) {
     currCtx.onlyWithContext((ctx) -> update(IndexName.CHANGE, LocalDateTime.now()));
@@ -164,14 +247,23 @@ public class IndexTs implements ChangeIndexedListener, AccountIndexedListener {
   }
 
   void update(AbstractIndexRestApiServlet.IndexName index, LocalDateTime dateTime) {
+    metrics.recordIndexTsUpdate(index);
     switch (index) {
       case CHANGE:
         changeTs = dateTime;
-        exec.execute(changeFlusher);
+        changeFlusher.schedule();
         break;
       case ACCOUNT:
         accountTs = dateTime;
-        exec.execute(accountFlusher);
+        accountFlusher.schedule();
+        break;
+      case GROUP:
+        groupTs = dateTime;
+        groupFlusher.schedule();
+        break;
+      case PROJECT:
+        projectTs = dateTime;
+        projectFlusher.schedule();
         break;
       default:
         throw new IllegalArgumentException("Unsupported index " + index);
@@ -0,0 +1,111 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexProjectHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexingHandler.Operation;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.Inject;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Reindexes the projects whose {@code refs/meta/config} moved since the previous scan, and the
+ * projects deleted since then. Without a previous scan, the projects whose configuration was
+ * updated after the watermark are reindexed.
+ *
+ * <p>The projects are recorded in the snapshot under their name.
+ */
+public class ProjectReindexRunnable extends RefStateReindexRunnable<Project.NameKey> {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  private static final String SNAPSHOT_FILE = "project-config-refs";
+
+  private final ForwardedIndexProjectHandler projectIdx;
+  private final ProjectCache projectCache;
+  private final GitRepositoryManager repoManager;
+
+  @Inject
+  public ProjectReindexRunnable(
+      ForwardedIndexProjectHandler projectIdx,
+      IndexTs indexTs,
+      OneOffRequestContext ctx,
+      ProjectCache projectCache,
+      GitRepositoryManager repoManager,
+      RefStateSnapshot.Factory snapshotFactory) {
+    super(
+        AbstractIndexRestApiServlet.IndexName.PROJECT,
+        indexTs,
+        ctx,
+        snapshotFactory.create(SNAPSHOT_FILE));
+    this.projectIdx = projectIdx;
+    this.projectCache = projectCache;
+    this.repoManager = repoManager;
+  }
+
+  @Override
+  protected List<Project.NameKey> collectUpdatedItems(RefScan scan) {
+    List<Project.NameKey> updatedProjects = new ArrayList<>();
+    for (Project.NameKey project : projectCache.all()) {
+      try (Repository repo = repoManager.openRepository(project);
+          RevWalk rw = new RevWalk(repo)) {
+        Ref configRef = repo.exactRef(RefNames.REFS_CONFIG);
+        if (configRef != null && scan.isUpdated(project.get(), configRef, rw)) {
+          updatedProjects.add(project);
+        }
+      } catch (RepositoryNotFoundException e) {
+        log.atFine().log("Project %s was deleted while scanning", project);
+      } catch (IOException e) {
+        log.atWarning().withCause(e).log("Unable to read the configuration of %s", project);
+      }
+    }
+    return updatedProjects;
+  }
+
+  @Override
+  protected Project.NameKey fromKey(String projectName) {
+    return Project.nameKey(projectName);
+  }
+
+  @Override
+  protected String toKey(Project.NameKey project) {
+    return project.get();
+  }
+
+  /** Reindexes the project, only called for the projects whose configuration moved. */
+  @Override
+  protected boolean reindex(Project.NameKey project, Timestamp sinceTs) {
+    try {
+      log.atInfo().log("Index project %s updated after %s", project, sinceTs);
+      projectIdx.index(project, Operation.INDEX, Optional.empty());
+      return true;
+    } catch (IOException e) {
+      log.atSevere().withCause(e).log("Reindex failed");
+    }
+    return false;
+  }
+}
@@ -0,0 +1,130 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-project watermarks of the change auto-reindex: the timestamp after which the changes of each
+ * project still have to be checked.
+ *
+ * <p>A project whose scan fails keeps its watermark, so that only that project is scanned again
+ * from where it stopped, while the others resume from their own. The watermarks are stored in a
+ * compact binary file sorted by project name.
+ */
+@Singleton
+class ProjectWatermarks {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  private static final String WATERMARKS_FILE = "change-watermarks";
+  private static final int FORMAT_VERSION = 1;
+
+  private final Path watermarksPath;
+  private volatile ConcurrentSkipListMap<Project.NameKey, Timestamp> watermarks;
+
+  @Inject
+  ProjectWatermarks(@PluginData Path dataDir) {
+    this.watermarksPath = dataDir.resolve(WATERMARKS_FILE);
+  }
+
+  Optional<Timestamp> get(Project.NameKey project) {
+    return Optional.ofNullable(watermarks().get(project));
+  }
+
+  /** Moves the watermark of the project forward; older timestamps are ignored. */
+  void advance(Project.NameKey project, Timestamp ts) {
+    watermarks().merge(project, ts, ReindexRunnable::maxTimestamp);
+  }
+
+  /** Persists the watermarks of the given projects, dropping the ones of the other projects. */
+  synchronized void flush(Set<Project.NameKey> projects) {
+    ConcurrentSkipListMap<Project.NameKey, Timestamp> current = watermarks();
+    current.keySet().retainAll(projects);
+    try {
+      Path tmp =
+          Files.createTempFile(
+              watermarksPath.getParent(), watermarksPath.getFileName().toString(), ".tmp");
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(current.size());
+        for (Map.Entry<Project.NameKey, Timestamp> e : current.entrySet()) {
+          out.writeUTF(e.getKey().get());
+          out.writeLong(e.getValue().getTime());
+          out.writeInt(e.getValue().getNanos());
+        }
+      }
+      Files.move(tmp, watermarksPath, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.atWarning().withCause(e).log("Unable to persist %s", watermarksPath);
+    }
+  }
+
+  private ConcurrentSkipListMap<Project.NameKey, Timestamp> watermarks() {
+    if (watermarks == null) {
+      synchronized (this) {
+        if (watermarks == null) {
+          watermarks = load();
+        }
+      }
+    }
+    return watermarks;
+  }
+
+  private ConcurrentSkipListMap<Project.NameKey, Timestamp> load() {
+    ConcurrentSkipListMap<Project.NameKey, Timestamp> loaded = new ConcurrentSkipListMap<>();
+    if (!Files.exists(watermarksPath)) {
+      return loaded;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(watermarksPath)))) {
+      int version = in.readInt();
+      if (version != FORMAT_VERSION) {
+        log.atWarning().log("Ignoring %s with unknown format %d", watermarksPath, version);
+        return loaded;
+      }
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        Project.NameKey project = Project.nameKey(in.readUTF());
+        Timestamp ts = new Timestamp(in.readLong());
+        ts.setNanos(in.readInt());
+        loaded.put(project, ts);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      log.atWarning().withCause(e).log(
+          "Unable to read %s, using the global watermark", watermarksPath);
+      loaded.clear();
+    }
+    return loaded;
+  }
+}
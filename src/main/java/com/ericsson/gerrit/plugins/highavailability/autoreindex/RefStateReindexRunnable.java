@@ -0,0 +1,125 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Reindexes the items whose ref moved since the previous scan, as recorded by a {@link
+ * RefStateSnapshot}, and the items whose ref was removed since then. Without a previous scan, the
+ * items whose ref was committed after the watermark are reindexed.
+ */
+abstract class RefStateReindexRunnable<T> extends ReindexRunnable {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+  private final RefStateSnapshot refs;
+
+  RefStateReindexRunnable(
+      AbstractIndexRestApiServlet.IndexName itemName,
+      IndexTs indexTs,
+      OneOffRequestContext ctx,
+      RefStateSnapshot refs) {
+    super(itemName, indexTs, ctx);
+    this.refs = refs;
+  }
+
+  /** Refs of the items seen by the current scan, telling which ones need a reindex. */
+  protected class RefScan {
+    private final boolean hasLastScan;
+    private final Timestamp sinceTs;
+
+    private RefScan(boolean hasLastScan, Timestamp sinceTs) {
+      this.hasLastScan = hasLastScan;
+      this.sinceTs = sinceTs;
+    }
+
+    /**
+     * Records the ref of the item identified by {@code key} and returns whether the item has to be
+     * reindexed.
+     */
+    boolean isUpdated(String key, Ref ref, RevWalk rw) throws IOException {
+      boolean moved = refs.record(key, ref.getObjectId());
+      if (hasLastScan) {
+        return moved;
+      }
+      return rw.parseCommit(ref.getObjectId())
+          .getCommitterIdent()
+          .getWhenAsInstant()
+          .isAfter(sinceTs.toInstant());
+    }
+  }
+
+  @Override
+  protected ScanResult scan(Timestamp sinceTs) throws Exception {
+    refs.startScan();
+    RefScan refScan = new RefScan(refs.hasLastScan(), sinceTs);
+    List<T> updatedItems = new ArrayList<>(collectUpdatedItems(refScan));
+    // Deleted items are removed from the index when reindexed
+    refs.removedKeys().stream()
+        .map(this::fromKey)
+        .filter(Objects::nonNull)
+        .forEach(updatedItems::add);
+
+    ScanResult result = ScanResult.EMPTY;
+    for (T item : updatedItems) {
+      boolean reindexed;
+      try {
+        reindexed = reindex(item, sinceTs);
+      } catch (RuntimeException e) {
+        log.atSevere().withCause(e).log("Unable to reindex %s", item);
+        reindexed = false;
+      }
+      if (reindexed) {
+        result = result.merge(new ScanResult(1, 0, null));
+      } else {
+        refs.forget(toKey(item));
+        result = result.merge(new ScanResult(0, 1, null));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  protected void onScanCompleted() {
+    refs.completeScan();
+  }
+
+  /** Returns the items to reindex, checking each ref seen with {@link RefScan#isUpdated}. */
+  protected abstract List<T> collectUpdatedItems(RefScan scan) throws Exception;
+
+  /** Returns the item recorded under {@code key}, or null if the key is not the one of an item. */
+  @Nullable
+  protected abstract T fromKey(String key);
+
+  /** Returns the key the ref of the item is recorded under in the snapshot. */
+  protected abstract String toKey(T item);
+
+  /**
+   * Reindexes the item, only called for the items whose ref moved or was removed.
+   *
+   * @return whether the item was reindexed, otherwise its ref is checked again by the next scan.
+   */
+  protected abstract boolean reindex(T item, Timestamp sinceTs);
+}
@@ -0,0 +1,143 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Object ids, keyed by ref or project name, as of the last completed auto-reindex scan.
+ *
+ * <p>The ids recorded during a scan only become the reference for the next one once the scan
+ * completes, so that the items of an interrupted scan are checked again. The snapshot is persisted
+ * as one {@code <id> <key>} line per entry.
+ */
+class RefStateSnapshot {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+  interface Factory {
+    /** Creates the snapshot persisted as {@code name} in the plugin data directory. */
+    RefStateSnapshot create(String name);
+  }
+
+  private final Path snapshotPath;
+  private Map<String, ObjectId> lastScan;
+  private Map<String, ObjectId> currentScan = new HashMap<>();
+
+  @Inject
+  RefStateSnapshot(@PluginData Path dataDir, @Assisted String name) {
+    this.snapshotPath = dataDir.resolve(name);
+  }
+
+  /** Starts recording the ids of a new scan, discarding the ones of an incomplete scan. */
+  synchronized void startScan() {
+    currentScan = new HashMap<>();
+  }
+
+  /** Returns whether a completed scan is known, i.e. whether {@link #record} can be trusted. */
+  synchronized boolean hasLastScan() {
+    return Files.exists(snapshotPath) || lastScan != null;
+  }
+
+  /**
+   * Records the current id of the key and returns whether it differs from the last completed scan.
+   * New keys are reported as changed.
+   */
+  synchronized boolean record(String key, ObjectId id) {
+    currentScan.put(key, id);
+    return !id.equals(lastScan().get(key));
+  }
+
+  /** Returns the keys of the last completed scan not recorded by the current one. */
+  synchronized ImmutableSet<String> removedKeys() {
+    return ImmutableSet.copyOf(Sets.difference(lastScan().keySet(), currentScan.keySet()));
+  }
+
+  /** Forces the key to be reported as changed by the next scan, e.g. after a failure. */
+  synchronized void forget(String key) {
+    currentScan.remove(key);
+  }
+
+  /**
+   * Makes the ids recorded since {@link #startScan()} the reference for the next scan. Keys not
+   * recorded during the scan are dropped.
+   */
+  synchronized void completeScan() {
+    lastScan = currentScan;
+    currentScan = new HashMap<>();
+    store(lastScan);
+  }
+
+  private Map<String, ObjectId> lastScan() {
+    if (lastScan == null) {
+      lastScan = load();
+    }
+    return lastScan;
+  }
+
+  private Map<String, ObjectId> load() {
+    Map<String, ObjectId> snapshot = new HashMap<>();
+    if (!Files.exists(snapshotPath)) {
+      return snapshot;
+    }
+    try {
+      for (String line : Files.readAllLines(snapshotPath, UTF_8)) {
+        int sep = line.indexOf(' ');
+        String id = sep > 0 ? line.substring(0, sep) : "";
+        if (ObjectId.isId(id)) {
+          snapshot.put(line.substring(sep + 1), ObjectId.fromString(id));
+        }
+      }
+    } catch (IOException e) {
+      log.atWarning().withCause(e).log("Unable to read %s, checking all the items", snapshotPath);
+      snapshot.clear();
+    }
+    return snapshot;
+  }
+
+  private void store(Map<String, ObjectId> snapshot) {
+    try {
+      Path tmp =
+          Files.createTempFile(
+              snapshotPath.getParent(), snapshotPath.getFileName().toString(), ".tmp");
+      try (BufferedWriter out = Files.newBufferedWriter(tmp, UTF_8)) {
+        for (Map.Entry<String, ObjectId> e : snapshot.entrySet()) {
+          out.write(e.getValue().name());
+          out.write(' ');
+          out.write(e.getKey());
+          out.newLine();
+        }
+      }
+      Files.move(tmp, snapshotPath, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.atWarning().withCause(e).log("Unable to persist %s", snapshotPath);
+    }
+  }
+}
@@ -17,6 +17,7 @@ package com.ericsson.gerrit.plugins.highavailability.autoreindex;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet;
 import com.google.common.base.Stopwatch;
 import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
 import com.google.gerrit.server.util.ManualRequestContext;
 import com.google.gerrit.server.util.OneOffRequestContext;
 import com.google.inject.Inject;
@@ -25,10 +26,22 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
-abstract class ReindexRunnable<T> implements Runnable {
+abstract class ReindexRunnable implements Runnable {
 
   private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
+  /** Items reindexed and failed during a scan, and the latest timestamp of the reindexed ones. */
+  protected record ScanResult(int reindexed, int errors, @Nullable Timestamp maxItemTs) {
+    static final ScanResult EMPTY = new ScanResult(0, 0, null);
+
+    ScanResult merge(ScanResult other) {
+      return new ScanResult(
+          reindexed + other.reindexed,
+          errors + other.errors,
+          maxTimestamp(maxItemTs, other.maxItemTs));
+    }
+  }
+
   private final AbstractIndexRestApiServlet.IndexName itemName;
   private final OneOffRequestContext ctx;
   private final IndexTs indexTs;
@@ -50,23 +63,12 @@ abstract class ReindexRunnable<T> implements Runnable {
       newLastIndexTs = maxTimestamp(newLastIndexTs, Timestamp.valueOf(maybeIndexTs.get()));
       log.atFine().log("Scanning for all the %ss after %s", itemNameString, newLastIndexTs);
       try (ManualRequestContext mctx = ctx.open()) {
-        int count = 0;
-        int errors = 0;
         Stopwatch stopwatch = Stopwatch.createStarted();
-        Timestamp maxFetchedItemTs = Timestamp.valueOf(newLastIndexTs.toLocalDateTime());
-        for (T c : fetchItems()) {
-          try {
-            Optional<Timestamp> itemTs = indexIfNeeded(c, newLastIndexTs);
-            if (itemTs.isPresent()) {
-              count++;
-              maxFetchedItemTs = maxTimestamp(maxFetchedItemTs, itemTs.get());
-            }
-          } catch (Exception e) {
-            log.atSevere().withCause(e).log("Unable to reindex %s %s", itemNameString, c);
-            errors++;
-          }
-        }
-        newLastIndexTs = maxTimestamp(newLastIndexTs, maxFetchedItemTs);
+        ScanResult result = scan(newLastIndexTs);
+        onScanCompleted();
+        int count = result.reindexed();
+        int errors = result.errors();
+        newLastIndexTs = maxTimestamp(newLastIndexTs, result.maxItemTs());
         long elapsedNanos = stopwatch.stop().elapsed(TimeUnit.NANOSECONDS);
         if (count > 0) {
           log.atInfo().log(
@@ -88,7 +90,10 @@ abstract class ReindexRunnable<T> implements Runnable {
     }
   }
 
-  private Timestamp maxTimestamp(Timestamp ts1, Timestamp ts2) {
+  /** Reindexes the items updated after {@code sinceTs}. */
+  protected abstract ScanResult scan(Timestamp sinceTs) throws Exception;
+
+  static Timestamp maxTimestamp(Timestamp ts1, Timestamp ts2) {
     if (ts1 == null) {
       return ts2;
     }
@@ -103,7 +108,6 @@ abstract class ReindexRunnable<T> implements Runnable {
     return ts2;
   }
 
-  protected abstract Iterable<T> fetchItems() throws Exception;
-
-  protected abstract Optional<Timestamp> indexIfNeeded(T item, Timestamp sinceTs);
+  /** Called once all the items of {@link #scan(Timestamp)} have been processed. */
+  protected void onScanCompleted() {}
 }
@@ -0,0 +1,154 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.cache;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder.Result;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Iterables;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.extensions.registration.DynamicItem;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Gathers the keys evicted from a cache during {@code cache.evictionBatchWindow} and forwards them
+ * as one eviction, so that a burst of invalidations, e.g. of the {@code groups_*} caches after a
+ * group membership change, costs one request per cache instead of one per key.
+ *
+ * <p>A key evicted again while its previous eviction is still being forwarded is not forwarded
+ * concurrently: it is forwarded once more after the previous forward completes, however many times
+ * it was evicted meanwhile.
+ */
+@Singleton
+class CacheEvictionBatcher {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+  private final DynamicItem<Forwarder> forwarder;
+  private final ScheduledExecutorService exec;
+  private final Duration window;
+  private final CacheEvictionMetrics metrics;
+  private final HotKeySampler hotKeySampler;
+  private final Map<String, Set<Object>> pendingKeys = new ConcurrentHashMap<>();
+  // Keys being forwarded, mapped to whether they were evicted again meanwhile
+  private final Map<InFlightKey, Boolean> inFlightKeys = new ConcurrentHashMap<>();
+
+  private record InFlightKey(String cache, Object key) {}
+
+  @Inject
+  CacheEvictionBatcher(
+      DynamicItem<Forwarder> forwarder,
+      WorkQueue queue,
+      Configuration cfg,
+      CacheEvictionMetrics metrics,
+      HotKeySampler hotKeySampler) {
+    this.forwarder = forwarder;
+    this.exec = queue.getDefaultQueue();
+    this.window = cfg.cache().evictionBatchWindow();
+    this.metrics = metrics;
+    this.hotKeySampler = hotKeySampler;
+  }
+
+  void evict(String cache, Object key) {
+    hotKeySampler.record(cache, key);
+    if (window.isZero() || window.isNegative()) {
+      forward(cache, List.of(key));
+      return;
+    }
+    pendingKeys.compute(
+        cache,
+        (name, keys) -> {
+          if (keys == null) {
+            keys = new LinkedHashSet<>();
+            exec.schedule(() -> flush(name), window.toMillis(), TimeUnit.MILLISECONDS);
+          }
+          keys.add(key);
+          return keys;
+        });
+  }
+
+  private void flush(String cache) {
+    Set<Object> keys = pendingKeys.remove(cache);
+    if (keys == null) {
+      return;
+    }
+    log.atFine().log("Forwarding the eviction of %d keys of cache %s", keys.size(), cache);
+    forward(cache, keys);
+  }
+
+  private void forward(String cache, Collection<Object> keys) {
+    List<Object> toForward =
+        keys.stream()
+            .filter(key -> !inFlightKeys.merge(new InFlightKey(cache, key), false, (v, w) -> true))
+            .collect(Collectors.toList());
+    if (toForward.size() < keys.size()) {
+      log.atFine().log(
+          "Deferred the eviction of %d keys of cache %s being forwarded",
+          keys.size() - toForward.size(), cache);
+    }
+    if (toForward.isEmpty()) {
+      return;
+    }
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    CompletableFuture<Result> forwarded;
+    try {
+      // Single evictions are forwarded as before, peers may run an older version
+      forwarded =
+          toForward.size() == 1
+              ? forwarder.get().evict(cache, Iterables.getOnlyElement(toForward))
+              : forwarder.get().evictAll(cache, toForward);
+    } catch (RuntimeException e) {
+      toForward.forEach(key -> inFlightKeys.remove(new InFlightKey(cache, key)));
+      throw e;
+    }
+    forwarded.whenComplete(
+        (result, e) -> {
+          metrics.recordForward(
+              CacheEvictionMetrics.label(cache),
+              toForward.size(),
+              result != null && result.result(),
+              stopwatch.elapsed(TimeUnit.MILLISECONDS));
+          onForwarded(cache, toForward);
+        });
+  }
+
+  private void onForwarded(String cache, List<Object> keys) {
+    List<Object> evictedAgain = new ArrayList<>();
+    for (Object key : keys) {
+      InFlightKey inFlightKey = new InFlightKey(cache, key);
+      if (!inFlightKeys.remove(inFlightKey, false)) {
+        inFlightKeys.remove(inFlightKey);
+        evictedAgain.add(key);
+      }
+    }
+    if (!evictedAgain.isEmpty()) {
+      forward(cache, evictedAgain);
+    }
+  }
+}
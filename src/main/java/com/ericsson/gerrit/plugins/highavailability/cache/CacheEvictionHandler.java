@@ -15,26 +15,24 @@
 package com.ericsson.gerrit.plugins.highavailability.cache;
 
 import com.ericsson.gerrit.plugins.highavailability.forwarder.Context;
-import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
 import com.google.common.cache.RemovalNotification;
-import com.google.gerrit.extensions.registration.DynamicItem;
 import com.google.gerrit.server.cache.CacheRemovalListener;
 import com.google.inject.Inject;
 
 class CacheEvictionHandler<K, V> implements CacheRemovalListener<K, V> {
-  private final DynamicItem<Forwarder> forwarder;
+  private final CacheEvictionBatcher batcher;
   private final CachePatternMatcher matcher;
 
   @Inject
-  CacheEvictionHandler(DynamicItem<Forwarder> forwarder, CachePatternMatcher matcher) {
-    this.forwarder = forwarder;
+  CacheEvictionHandler(CacheEvictionBatcher batcher, CachePatternMatcher matcher) {
+    this.batcher = batcher;
     this.matcher = matcher;
   }
 
   @Override
   public void onRemoval(String plugin, String cache, RemovalNotification<K, V> notification) {
     if (!Context.isForwardedEvent() && !notification.wasEvicted() && matcher.matches(cache)) {
-      forwarder.get().evict(cache, notification.getKey());
+      batcher.evict(cache, notification.getKey());
     }
   }
 }
@@ -0,0 +1,145 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.cache;
+
+import static java.util.stream.Collectors.joining;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.metrics.CallbackMetric1;
+import com.google.gerrit.metrics.Counter2;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.Field;
+import com.google.gerrit.metrics.MetricMaker;
+import com.google.gerrit.metrics.Timer1;
+import com.google.gerrit.server.logging.PluginMetadata;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Singleton
+class CacheEvictionMetrics {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  private static final CharMatcher METRIC_NAME_CHARS =
+      CharMatcher.inRange('a', 'z')
+          .or(CharMatcher.inRange('A', 'Z'))
+          .or(CharMatcher.inRange('0', '9'))
+          .or(CharMatcher.anyOf("_-"));
+  private static final int HOT_KEY_LOG_INTERVAL_MINUTES = 10;
+
+  private final Counter2<String, Boolean> removalNotifications;
+  private final Counter2<String, Boolean> forwardedEvictions;
+  private final Timer1<String> forwardingLatency;
+
+  @Inject
+  CacheEvictionMetrics(MetricMaker metricMaker, HotKeySampler hotKeySampler) {
+    Field<String> cacheField =
+        Field.ofString(
+                "cache",
+                (metadataBuilder, fieldValue) ->
+                    metadataBuilder.addPluginMetadata(PluginMetadata.create("cache", fieldValue)))
+            .description("Name of the cache an entry was removed from")
+            .build();
+    Field<Boolean> forwardedField =
+        Field.ofBoolean(
+                "forwarded",
+                (metadataBuilder, fieldValue) ->
+                    metadataBuilder.addPluginMetadata(
+                        PluginMetadata.create("forwarded", String.valueOf(fieldValue))))
+            .description("Whether the removals from the cache match the forwarded caches")
+            .build();
+
+    this.removalNotifications =
+        metricMaker.newCounter(
+            "cache/removal_notifications",
+            new Description("Explicit cache removals checked for forwarding")
+                .setCumulative()
+                .setRate(),
+            cacheField,
+            forwardedField);
+
+    Field<Boolean> successField =
+        Field.ofBoolean(
+                "success",
+                (metadataBuilder, fieldValue) ->
+                    metadataBuilder.addPluginMetadata(
+                        PluginMetadata.create("success", String.valueOf(fieldValue))))
+            .description("Whether the eviction was forwarded successfully")
+            .build();
+    this.forwardedEvictions =
+        metricMaker.newCounter(
+            "cache/forwarded_evictions",
+            new Description("Evicted keys forwarded to the other nodes")
+                .setCumulative()
+                .setRate(),
+            cacheField,
+            successField);
+    this.forwardingLatency =
+        metricMaker.newTimer(
+            "cache/forwarding_latency",
+            new Description("Time to forward the eviction of keys of a cache to the other nodes")
+                .setCumulative()
+                .setUnit(Description.Units.MILLISECONDS),
+            cacheField);
+
+    // Keys are unbounded and may be sensitive, they are logged instead of used as labels
+    CallbackMetric1<String, Long> hotKeys =
+        metricMaker.newCallbackMetric(
+            "cache/hot_evicted_keys",
+            Long.class,
+            new Description("Estimated forwarded evictions of the most evicted key of the cache")
+                .setGauge(),
+            cacheField);
+    metricMaker.newTrigger(
+        hotKeys,
+        () -> {
+          ImmutableList<HotKeySampler.HotKey> topKeys = hotKeySampler.topKeys();
+          if (!topKeys.isEmpty()) {
+            log.atInfo().atMostEvery(HOT_KEY_LOG_INTERVAL_MINUTES, TimeUnit.MINUTES).log(
+                "Most evicted keys, with their estimated recent evictions: %s",
+                topKeys.stream()
+                    .map(k -> String.format("%s/%s=%d", k.cache(), k.key(), k.count()))
+                    .collect(joining(", ")));
+          }
+          // Keys come the most evicted first, the gauge reports the first one of each cache
+          Set<String> caches = new HashSet<>();
+          for (HotKeySampler.HotKey hotKey : topKeys) {
+            String label = label(hotKey.cache());
+            if (caches.add(label)) {
+              hotKeys.set(label, hotKey.count());
+            }
+          }
+          hotKeys.prune();
+        });
+  }
+
+  /** Records a removal from the cache whose metric label is {@code cacheLabel}. */
+  void recordRemoval(String cacheLabel, boolean forwarded) {
+    removalNotifications.increment(cacheLabel, forwarded);
+  }
+
+  /** Records the forward of the eviction of {@code keys} keys of the cache. */
+  void recordForward(String cacheLabel, int keys, boolean success, long latencyMs) {
+    forwardedEvictions.incrementBy(cacheLabel, success, keys);
+    forwardingLatency.record(cacheLabel, latencyMs, TimeUnit.MILLISECONDS);
+  }
+
+  static String label(String cacheName) {
+    return METRIC_NAME_CHARS.negate().replaceFrom(cacheName, '_');
+  }
+}
@@ -14,6 +14,7 @@
 
 package com.ericsson.gerrit.plugins.highavailability.cache;
 
+import com.google.gerrit.extensions.events.LifecycleListener;
 import com.google.gerrit.extensions.events.NewProjectCreatedListener;
 import com.google.gerrit.extensions.events.ProjectDeletedListener;
 import com.google.gerrit.extensions.registration.DynamicSet;
@@ -27,5 +28,6 @@ public class CacheModule extends AbstractModule {
     DynamicSet.bind(binder(), CacheRemovalListener.class).to(CacheEvictionHandler.class);
     DynamicSet.bind(binder(), NewProjectCreatedListener.class).to(ProjectListUpdateHandler.class);
     DynamicSet.bind(binder(), ProjectDeletedListener.class).to(ProjectListUpdateHandler.class);
+    DynamicSet.bind(binder(), LifecycleListener.class).to(ProjectListConsistencyCheck.class);
   }
 }
@@ -21,6 +21,8 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 @Singleton
@@ -28,10 +30,17 @@ class CachePatternMatcher {
   private static final List<String> DEFAULT_PATTERNS =
       ImmutableList.of("^groups.*", "ldap_usernames", "projects", "sshkeys", "tokens");
 
+  /** Whether the removals from a cache are forwarded, and the metric label of the cache. */
+  private record Decision(boolean matches, String label) {}
+
   private final Pattern pattern;
+  private final CacheEvictionMetrics metrics;
+  // The set of caches is small and fixed: each name is matched against the pattern only once
+  private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
 
   @Inject
-  CachePatternMatcher(Configuration cfg) {
+  CachePatternMatcher(Configuration cfg, CacheEvictionMetrics metrics) {
+    this.metrics = metrics;
     List<String> patterns = new ArrayList<>(DEFAULT_PATTERNS);
 
     if (cfg.websession().synchronize()) {
@@ -43,6 +52,13 @@ class CachePatternMatcher {
   }
 
   boolean matches(String cacheName) {
-    return pattern.matcher(cacheName).matches();
+    Decision decision =
+        decisions.computeIfAbsent(
+            cacheName,
+            name ->
+                new Decision(
+                    pattern.matcher(name).matches(), CacheEvictionMetrics.label(name)));
+    metrics.recordRemoval(decision.label(), decision.matches());
+    return decision.matches();
   }
 }
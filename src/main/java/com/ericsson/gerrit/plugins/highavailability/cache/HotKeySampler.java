@@ -0,0 +1,122 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.cache;
+
+import com.google.common.collect.Comparators;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Samples the most frequently evicted cache keys in bounded memory.
+ *
+ * <p>The eviction counts are estimated with a count-min sketch of atomic counters, so that
+ * recording an eviction takes no lock. Each slot of the first row of the sketch remembers the last
+ * key evicted into it, and the {@link #TOP_KEYS} slots with the highest estimates are only looked
+ * for when reading them. All counts are halved every {@link #DECAY_INTERVAL} samples so that the
+ * keys reported are the ones evicted recently.
+ */
+@Singleton
+class HotKeySampler {
+  static final int TOP_KEYS = 10;
+  static final int DECAY_INTERVAL = 100_000;
+  private static final int DEPTH = 4;
+  private static final int WIDTH = 1 << 10;
+
+  /** A frequently evicted key of a cache, with its estimated count of recent evictions. */
+  record HotKey(String cache, Object key, long count) {}
+
+  private record Sample(String cache, Object key) {}
+
+  private final AtomicLongArray sketch = new AtomicLongArray(DEPTH * WIDTH);
+  private final AtomicReferenceArray<Sample> samples = new AtomicReferenceArray<>(WIDTH);
+  private final AtomicInteger recorded = new AtomicInteger();
+
+  /** Records an eviction of the key of the cache. */
+  void record(String cache, Object key) {
+    int hash = hash(cache, key);
+    int step = mix(hash) | 1;
+    for (int row = 0; row < DEPTH; row++) {
+      sketch.incrementAndGet(index(row, hash + row * step));
+    }
+    int slot = column(hash);
+    Sample sample = samples.get(slot);
+    if (sample == null || !sample.key().equals(key) || !sample.cache().equals(cache)) {
+      samples.lazySet(slot, new Sample(cache, key));
+    }
+    if (recorded.updateAndGet(n -> n + 1 < DECAY_INTERVAL ? n + 1 : 0) == 0) {
+      decay();
+    }
+  }
+
+  /** Returns the most frequently evicted keys, the most evicted first. */
+  ImmutableList<HotKey> topKeys() {
+    List<HotKey> hotKeys = new ArrayList<>();
+    for (int slot = 0; slot < WIDTH; slot++) {
+      Sample sample = samples.get(slot);
+      if (sample != null) {
+        long count = estimate(sample);
+        if (count > 0) {
+          hotKeys.add(new HotKey(sample.cache(), sample.key(), count));
+        }
+      }
+    }
+    return ImmutableList.copyOf(
+        hotKeys.stream()
+            .collect(Comparators.greatest(TOP_KEYS, Comparator.comparingLong(HotKey::count))));
+  }
+
+  private long estimate(Sample sample) {
+    int hash = hash(sample.cache(), sample.key());
+    int step = mix(hash) | 1;
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      estimate = Math.min(estimate, sketch.get(index(row, hash + row * step)));
+    }
+    return estimate;
+  }
+
+  private void decay() {
+    for (int i = 0; i < sketch.length(); i++) {
+      sketch.getAndUpdate(i, count -> count >>> 1);
+    }
+  }
+
+  private static int hash(String cache, Object key) {
+    return mix(31 * cache.hashCode() + key.hashCode());
+  }
+
+  private static int index(int row, int hash) {
+    return row * WIDTH + column(hash);
+  }
+
+  private static int column(int hash) {
+    return hash & (WIDTH - 1);
+  }
+
+  /** Spreads the bits of the hash code, as the finalizer of murmur3. */
+  private static int mix(int h) {
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    return h ^ (h >>> 16);
+  }
+}
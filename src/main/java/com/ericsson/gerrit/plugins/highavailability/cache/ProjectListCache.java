@@ -0,0 +1,140 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * The list of projects held by the Gerrit {@code project_list} cache, updated in place.
+ *
+ * <p>Updates are only applied to a list already loaded: the list is not loaded for them, as it
+ * would require a scan of all the repositories, and the next load includes them anyway. A cached
+ * value which is not a sorted set of project names is not updated but evicted, for Gerrit to reload
+ * it on the next use.
+ */
+@Singleton
+public class ProjectListCache {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+  private final DynamicMap<Cache<?, ?>> cacheMap;
+
+  @Inject
+  ProjectListCache(DynamicMap<Cache<?, ?>> cacheMap) {
+    this.cacheMap = cacheMap;
+  }
+
+  /** Returns the cached list of projects, if loaded. */
+  public Optional<ImmutableSortedSet<Project.NameKey>> get() {
+    return list().map(Map.Entry::getValue);
+  }
+
+  /** Adds the project to the cached list and returns whether the list is loaded. */
+  public boolean add(Project.NameKey project) {
+    return update(
+        projects ->
+            projects.contains(project)
+                ? projects
+                : ImmutableSortedSet.<Project.NameKey>naturalOrder()
+                    .addAll(projects)
+                    .add(project)
+                    .build());
+  }
+
+  /** Removes the project from the cached list and returns whether the list is loaded. */
+  public boolean remove(Project.NameKey project) {
+    return update(
+        projects ->
+            projects.contains(project)
+                ? ImmutableSortedSet.copyOf(Sets.difference(projects, ImmutableSet.of(project)))
+                : projects);
+  }
+
+  /** Replaces the cached list with {@code actual}, unless it changed since it was {@code read}. */
+  public boolean replace(
+      ImmutableSortedSet<Project.NameKey> read, ImmutableSortedSet<Project.NameKey> actual) {
+    return list()
+        .filter(list -> list.getValue().equals(read))
+        .map(list -> replace(list, actual))
+        .orElse(false);
+  }
+
+  private boolean update(UnaryOperator<ImmutableSortedSet<Project.NameKey>> delta) {
+    Optional<Map.Entry<Object, ImmutableSortedSet<Project.NameKey>>> list;
+    do {
+      list = list();
+    } while (list.isPresent() && !replace(list.get(), delta.apply(list.get().getValue())));
+    return list.isPresent();
+  }
+
+  private boolean replace(
+      Map.Entry<Object, ImmutableSortedSet<Project.NameKey>> list,
+      ImmutableSortedSet<Project.NameKey> updated) {
+    if (updated == list.getValue()) {
+      return true;
+    }
+    // Gone when evicted meanwhile, to be reloaded with the update
+    return cache()
+        .map(cache -> lists(cache).replace(list.getKey(), list.getValue(), updated))
+        .orElse(true);
+  }
+
+  /** Returns the key and value of the cached list, evicting it when of an unexpected type. */
+  @SuppressWarnings("unchecked")
+  private Optional<Map.Entry<Object, ImmutableSortedSet<Project.NameKey>>> list() {
+    Optional<Cache<?, ?>> cache = cache();
+    // One key, ListKey.ALL, is holding the list of projects
+    Optional<Map.Entry<Object, Object>> list =
+        cache.flatMap(c -> lists(c).entrySet().stream().findFirst());
+    if (list.isEmpty()) {
+      return Optional.empty();
+    }
+    Object projects = list.get().getValue();
+    if (isProjectList(projects)) {
+      return Optional.of(
+          Map.entry(list.get().getKey(), (ImmutableSortedSet<Project.NameKey>) projects));
+    }
+    log.atWarning().log(
+        "Unexpected %s in the project list cache, evicting it", projects.getClass().getName());
+    cache.get().invalidateAll();
+    return Optional.empty();
+  }
+
+  private static boolean isProjectList(Object value) {
+    return value instanceof ImmutableSortedSet
+        && ((ImmutableSortedSet<?>) value).stream().allMatch(Project.NameKey.class::isInstance);
+  }
+
+  private Optional<Cache<?, ?>> cache() {
+    return Optional.ofNullable(cacheMap.get(Constants.GERRIT, Constants.PROJECT_LIST));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ConcurrentMap<Object, Object> lists(Cache<?, ?> cache) {
+    // Values are only replaced by lists of the type they were checked to have
+    return (ConcurrentMap<Object, Object>) cache.asMap();
+  }
+}
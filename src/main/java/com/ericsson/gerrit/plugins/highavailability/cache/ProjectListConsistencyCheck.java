@@ -0,0 +1,98 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.cache;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Context;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically compares the cached list of projects, maintained from the forwarded additions and
+ * removals, with the repositories on disk and fixes it when they differ, e.g. after a missed
+ * forward.
+ */
+@Singleton
+class ProjectListConsistencyCheck implements LifecycleListener, Runnable {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+  private final ProjectListCache projectListCache;
+  private final GitRepositoryManager repoManager;
+  private final ScheduledExecutorService exec;
+  private final Duration interval;
+  private ScheduledFuture<?> checkTask;
+
+  @Inject
+  ProjectListConsistencyCheck(
+      ProjectListCache projectListCache,
+      GitRepositoryManager repoManager,
+      WorkQueue queue,
+      Configuration cfg) {
+    this.projectListCache = projectListCache;
+    this.repoManager = repoManager;
+    this.exec = queue.getDefaultQueue();
+    this.interval = cfg.cache().projectListCheckInterval();
+  }
+
+  @Override
+  public void start() {
+    if (interval.compareTo(Duration.ZERO) > 0) {
+      checkTask =
+          exec.scheduleAtFixedRate(
+              this, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (checkTask != null) {
+      checkTask.cancel(true);
+    }
+  }
+
+  @Override
+  public void run() {
+    Optional<ImmutableSortedSet<Project.NameKey>> cached = projectListCache.get();
+    if (cached.isEmpty()) {
+      return;
+    }
+    ImmutableSortedSet<Project.NameKey> actual = ImmutableSortedSet.copyOf(repoManager.list());
+    if (actual.equals(cached.get())) {
+      log.atFine().log("Cached project list is consistent");
+      return;
+    }
+    log.atWarning().log(
+        "Cached project list is missing %d projects and has %d deleted ones, fixing it",
+        Sets.difference(actual, cached.get()).size(), Sets.difference(cached.get(), actual).size());
+    try {
+      Context.setForwardedEvent(true);
+      projectListCache.replace(cached.get(), actual);
+    } finally {
+      Context.unsetForwardedEvent();
+    }
+  }
+}
@@ -0,0 +1,118 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.event;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.registration.DynamicItem;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gathers the stream events generated during {@code event.batchWindow} and forwards them as one
+ * batch, so that a burst of events, e.g. when pushing many changes, costs one compressed request
+ * per peer instead of one per event. The events of a batch are dispatched in the order they were
+ * generated.
+ *
+ * <p>A batch is forwarded as soon as it holds {@code event.batchMaxSize} events, so that a large
+ * burst is not forwarded, nor retried, as a single request. The events still pending when the
+ * plugin stops are forwarded then.
+ */
+@Singleton
+class EventBatcher implements LifecycleListener {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+  private final DynamicItem<Forwarder> forwarder;
+  private final ScheduledExecutorService exec;
+  private final Duration window;
+  private final int maxSize;
+  private List<SequencedEvent> pendingEvents;
+
+  @Inject
+  EventBatcher(DynamicItem<Forwarder> forwarder, WorkQueue queue, Configuration cfg) {
+    this.forwarder = forwarder;
+    this.exec = queue.getDefaultQueue();
+    this.window = cfg.event().batchWindow();
+    this.maxSize = cfg.event().batchMaxSize();
+  }
+
+  @Override
+  public void start() {
+    // do nothing
+  }
+
+  @Override
+  public void stop() {
+    forward(take());
+  }
+
+  void send(SequencedEvent event) {
+    if (window.isZero() || window.isNegative()) {
+      forwarder.get().send(event);
+      return;
+    }
+    List<SequencedEvent> full = null;
+    synchronized (this) {
+      if (pendingEvents == null) {
+        pendingEvents = new ArrayList<>();
+        List<SequencedEvent> batch = pendingEvents;
+        exec.schedule(() -> flush(batch), window.toMillis(), TimeUnit.MILLISECONDS);
+      }
+      pendingEvents.add(event);
+      if (pendingEvents.size() >= maxSize) {
+        full = take();
+      }
+    }
+    forward(full);
+  }
+
+  /** Forwards the batch, unless it was already forwarded when full. */
+  private void flush(List<SequencedEvent> batch) {
+    List<SequencedEvent> events;
+    synchronized (this) {
+      events = pendingEvents == batch ? take() : null;
+    }
+    forward(events);
+  }
+
+  private synchronized List<SequencedEvent> take() {
+    List<SequencedEvent> events = pendingEvents;
+    pendingEvents = null;
+    return events;
+  }
+
+  private void forward(@Nullable List<SequencedEvent> events) {
+    if (events == null) {
+      return;
+    }
+    log.atFine().log("Forwarding a batch of %d events", events.size());
+    // Single events are forwarded as before, peers may run an older version
+    if (events.size() == 1) {
+      forwarder.get().send(events.get(0));
+    } else {
+      forwarder.get().sendAll(events);
+    }
+  }
+}
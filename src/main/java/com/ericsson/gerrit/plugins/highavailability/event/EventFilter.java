@@ -0,0 +1,113 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.event;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.server.events.Event;
+import com.google.gerrit.server.events.EventGson;
+import com.google.gerrit.server.events.ProjectEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the stream events forwarded to the other nodes, by type ({@code event.type}) and project
+ * ({@code event.project}), and removes the attributes listed in {@code event.excludeAttribute} from
+ * the forwarded copy of the events. The events dispatched locally are left untouched.
+ */
+@Singleton
+class EventFilter {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  private static final Splitter PATH_SPLITTER = Splitter.on('.').omitEmptyStrings().trimResults();
+
+  private final ImmutableSet<String> types;
+  @Nullable private final Pattern projects;
+  private final ImmutableList<List<String>> excludedAttributes;
+  private final Gson gson;
+
+  @Inject
+  EventFilter(Configuration cfg, @EventGson Gson gson) {
+    this.types = ImmutableSet.copyOf(cfg.event().types());
+    List<String> projectPatterns = cfg.event().projects();
+    this.projects =
+        projectPatterns.isEmpty() ? null : Pattern.compile(Joiner.on("|").join(projectPatterns));
+    this.excludedAttributes =
+        cfg.event().excludedAttributes().stream()
+            .map(PATH_SPLITTER::splitToList)
+            .filter(path -> !path.isEmpty())
+            .collect(ImmutableList.toImmutableList());
+    this.gson = gson;
+  }
+
+  boolean isForwarded(ProjectEvent event) {
+    if (!types.isEmpty() && !types.contains(event.getType())) {
+      return false;
+    }
+    return projects == null || projects.matcher(event.getProjectNameKey().get()).matches();
+  }
+
+  /**
+   * Returns a copy of the event without the excluded attributes, or the event itself when none is
+   * configured.
+   */
+  Event project(Event event) {
+    if (excludedAttributes.isEmpty()) {
+      return event;
+    }
+    try {
+      JsonObject json = gson.toJsonTree(event).getAsJsonObject();
+      for (List<String> path : excludedAttributes) {
+        remove(json, path, 0);
+      }
+      return gson.fromJson(json, Event.class);
+    } catch (JsonParseException | IllegalStateException e) {
+      log.atWarning().withCause(e).log(
+          "Unable to exclude attributes from event %s, forwarding it whole", event.getType());
+      return event;
+    }
+  }
+
+  /** Removes the attribute at the path, from each element of the arrays along the path. */
+  private static void remove(JsonElement json, List<String> path, int depth) {
+    if (json.isJsonArray()) {
+      json.getAsJsonArray().forEach(element -> remove(element, path, depth));
+      return;
+    }
+    if (!json.isJsonObject()) {
+      return;
+    }
+    JsonObject obj = json.getAsJsonObject();
+    String name = path.get(depth);
+    if (depth == path.size() - 1) {
+      obj.remove(name);
+      return;
+    }
+    JsonElement child = obj.get(name);
+    if (child != null) {
+      remove(child, path, depth + 1);
+    }
+  }
+}
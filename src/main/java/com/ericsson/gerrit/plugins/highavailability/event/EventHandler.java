@@ -15,25 +15,34 @@
 package com.ericsson.gerrit.plugins.highavailability.event;
 
 import com.ericsson.gerrit.plugins.highavailability.forwarder.Context;
-import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
-import com.google.gerrit.extensions.registration.DynamicItem;
 import com.google.gerrit.server.events.Event;
 import com.google.gerrit.server.events.EventListener;
 import com.google.gerrit.server.events.ProjectEvent;
 import com.google.inject.Inject;
 
 class EventHandler implements EventListener {
-  private final DynamicItem<Forwarder> forwarder;
+  private final EventBatcher batcher;
+  private final EventFilter filter;
+  private final EventSequencer sequencer;
+  private final EventJournal journal;
 
   @Inject
-  EventHandler(DynamicItem<Forwarder> forwarder) {
-    this.forwarder = forwarder;
+  EventHandler(
+      EventBatcher batcher, EventFilter filter, EventSequencer sequencer, EventJournal journal) {
+    this.batcher = batcher;
+    this.filter = filter;
+    this.sequencer = sequencer;
+    this.journal = journal;
   }
 
   @Override
   public void onEvent(Event event) {
     if (!Context.isForwardedEvent() && event instanceof ProjectEvent) {
-      forwarder.get().send(event);
+      ProjectEvent projectEvent = (ProjectEvent) event;
+      if (filter.isForwarded(projectEvent)) {
+        Event forwarded = filter.project(projectEvent);
+        batcher.send(journal.append(sequencer.next(projectEvent.getProjectNameKey(), forwarded)));
+      }
     }
   }
 }
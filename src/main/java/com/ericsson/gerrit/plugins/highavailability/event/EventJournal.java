@@ -0,0 +1,450 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.event;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.google.common.base.Strings;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.events.EventGson;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gson.Gson;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Bounded on-disk journal of the stream events forwarded by this node, so that a peer which missed
+ * some of them, e.g. while restarting, can replay them from the last position it received.
+ *
+ * <p>Each event is appended as one line, its position followed by its JSON, to the current segment
+ * file, named after the position of its first event. Once a segment is full, a new one is started
+ * and the oldest segments are deleted when the journal exceeds {@code event.journalMaxSize} or when
+ * they are older than {@code event.journalMaxAge}. The journal is identified by an id generated
+ * when it is created, so that the peers do not mix up positions after the journal was lost and
+ * started over.
+ *
+ * <p>Events are given their position when appended but written by a dedicated thread, off the
+ * thread which triggered them. At most {@link #MAX_UNWRITTEN} events are pending: beyond, events
+ * are written when appended. The positions possibly handed out but not written before the node
+ * stopped abruptly are skipped when the journal is opened again.
+ */
+@Singleton
+public class EventJournal implements LifecycleListener {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  static final String JOURNAL_DIR = "event-journal";
+  static final String ID_FILE = "id";
+  static final String STOPPED_FILE = "stopped";
+  static final String SEGMENT_SUFFIX = ".journal";
+  static final long MAX_SEGMENT_SIZE = 8 * 1024 * 1024;
+  static final int MAX_UNWRITTEN = 1000;
+
+  /** Id and range of positions of the events currently held by the journal. */
+  public record Info(String id, long first, long last) {}
+
+  private final Path journalDir;
+  private final boolean enabled;
+  private final long maxSize;
+  private final Duration maxAge;
+  private final long segmentSize;
+  private final Gson gson;
+  private final WorkQueue queue;
+  private final AtomicBoolean writePending = new AtomicBoolean();
+  // Taken before the lock of the journal, never after
+  private final Object writeLock = new Object();
+
+  // Guarded by this
+  private final TreeMap<Long, Path> segments = new TreeMap<>();
+  private final List<SequencedEvent> unwritten = new ArrayList<>();
+  private String id;
+  private long lastPosition;
+  private long lastWritten;
+
+  // Guarded by writeLock
+  private ScheduledExecutorService writer;
+  private OutputStream out;
+  private Path currentSegment;
+  private long writtenBytes;
+
+  @Inject
+  EventJournal(@PluginData Path dataDir, Configuration cfg, @EventGson Gson gson, WorkQueue queue) {
+    this.journalDir = dataDir.resolve(JOURNAL_DIR);
+    this.enabled = cfg.event().journal();
+    this.maxSize = cfg.event().journalMaxSize();
+    this.maxAge = cfg.event().journalMaxAge();
+    this.segmentSize = Math.max(1, Math.min(MAX_SEGMENT_SIZE, maxSize / 4));
+    this.gson = gson;
+    this.queue = queue;
+  }
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    synchronized (writeLock) {
+      synchronized (this) {
+        try {
+          Files.createDirectories(journalDir);
+          try (Stream<Path> files = Files.list(journalDir)) {
+            files.forEach(
+                f -> {
+                  long first = firstPositionOf(f);
+                  if (first > 0) {
+                    segments.put(first, f);
+                  }
+                });
+          }
+          lastPosition = recoverLastPosition();
+          if (!Files.deleteIfExists(journalDir.resolve(STOPPED_FILE)) && lastPosition > 0) {
+            // Events appended before the node stopped abruptly may have been forwarded unwritten
+            log.atWarning().log(
+                "Event journal was not stopped, skipping positions %d to %d",
+                lastPosition + 1, lastPosition + MAX_UNWRITTEN);
+            lastPosition += MAX_UNWRITTEN;
+          }
+          lastWritten = lastPosition;
+          // Positions start over with an empty journal: the peers must not confuse them
+          id = lastPosition > 0 ? loadId() : null;
+          if (id == null) {
+            id = createId();
+          }
+          prune();
+          writer = queue.createQueue(1, "EventJournalWriter");
+          log.atInfo().log("Event journal %s opened at position %d", id, lastPosition);
+        } catch (IOException e) {
+          log.atSevere().withCause(e).log(
+              "Unable to open the event journal in %s, forwarded events are not journaled",
+              journalDir);
+          id = null;
+        }
+      }
+    }
+  }
+
+  @Override
+  public void stop() {
+    synchronized (this) {
+      if (id == null) {
+        return;
+      }
+      id = null;
+    }
+    synchronized (writeLock) {
+      write();
+      closeSegment();
+      try {
+        Files.write(journalDir.resolve(STOPPED_FILE), new byte[0]);
+      } catch (IOException e) {
+        log.atWarning().withCause(e).log("Unable to mark the event journal as stopped");
+      }
+      writer.shutdown();
+    }
+  }
+
+  /**
+   * Appends the event to the journal.
+   *
+   * @return the event along with its position in the journal, or the event unchanged when the
+   *     journal is not open.
+   */
+  public SequencedEvent append(SequencedEvent event) {
+    SequencedEvent journaled;
+    boolean writerBehind;
+    synchronized (this) {
+      if (id == null) {
+        return event;
+      }
+      journaled = event.journaled(id, ++lastPosition);
+      unwritten.add(journaled);
+      writerBehind = lastPosition - lastWritten >= MAX_UNWRITTEN;
+    }
+    if (writerBehind) {
+      write();
+    } else if (writePending.compareAndSet(false, true)) {
+      try {
+        writer.execute(this::write);
+      } catch (RejectedExecutionException e) {
+        // Journal stopped meanwhile, the event was written when stopping
+      }
+    }
+    return journaled;
+  }
+
+  public synchronized Optional<Info> info() {
+    if (id == null) {
+      return Optional.empty();
+    }
+    long first = segments.isEmpty() ? lastWritten + 1 : segments.firstKey();
+    return Optional.of(new Info(id, first, lastPosition));
+  }
+
+  /**
+   * Reads the journaled events following a position.
+   *
+   * @param after position of the last event already known by the caller.
+   * @param limit maximum number of events to return.
+   * @return the events as journaled, one JSON object per element, in position order.
+   */
+  public List<String> readAfter(long after, int limit) throws IOException {
+    // Makes the events appended so far readable
+    write();
+    List<Path> files;
+    synchronized (this) {
+      if (id == null) {
+        return List.of();
+      }
+      Long from = segments.floorKey(after + 1);
+      Map<Long, Path> remaining = from == null ? segments : segments.tailMap(from, true);
+      files = List.copyOf(remaining.values());
+    }
+    List<String> events = new ArrayList<>();
+    for (Path f : files) {
+      try (SegmentReader reader = new SegmentReader(f)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          int separator = line.indexOf(' ');
+          if (positionOf(line, separator) > after) {
+            events.add(line.substring(separator + 1));
+            if (events.size() >= limit) {
+              return events;
+            }
+          }
+        }
+      } catch (NoSuchFileException e) {
+        log.atFine().log("Segment %s of the event journal was pruned while reading it", f);
+      }
+    }
+    return events;
+  }
+
+  /** Writes the events appended so far, flushing the segment once. */
+  private void write() {
+    synchronized (writeLock) {
+      // Events appended from now on need another write
+      writePending.set(false);
+      List<SequencedEvent> events;
+      synchronized (this) {
+        if (unwritten.isEmpty()) {
+          return;
+        }
+        events = List.copyOf(unwritten);
+        unwritten.clear();
+      }
+      try {
+        for (SequencedEvent event : events) {
+          long position = event.getJournalPosition();
+          byte[] line = (position + " " + gson.toJson(event) + "\n").getBytes(UTF_8);
+          if (out == null || writtenBytes + line.length > segmentSize) {
+            startSegment(position);
+          }
+          out.write(line);
+          writtenBytes += line.length;
+        }
+        out.flush();
+      } catch (IOException e) {
+        log.atSevere().withCause(e).log("Unable to journal %d events", events.size());
+        closeSegment();
+      }
+      synchronized (this) {
+        lastWritten = events.get(events.size() - 1).getJournalPosition();
+      }
+    }
+  }
+
+  private void startSegment(long position) throws IOException {
+    closeSegment();
+    Path segment = journalDir.resolve(String.format("%020d%s", position, SEGMENT_SUFFIX));
+    // An existing segment only holds a line which failed to be written
+    out =
+        new BufferedOutputStream(Files.newOutputStream(segment, CREATE, TRUNCATE_EXISTING, WRITE));
+    currentSegment = segment;
+    writtenBytes = 0;
+    synchronized (this) {
+      segments.put(position, segment);
+    }
+    prune();
+  }
+
+  private void closeSegment() {
+    if (out == null) {
+      return;
+    }
+    try {
+      out.close();
+    } catch (IOException e) {
+      log.atWarning().withCause(e).log("Unable to close the event journal segment");
+    }
+    out = null;
+    currentSegment = null;
+  }
+
+  /** Deletes the oldest segments, except the one being written, beyond the retention limits. */
+  private void prune() {
+    Instant oldest = Instant.now().minus(maxAge);
+    List<Path> newestFirst;
+    synchronized (this) {
+      newestFirst = List.copyOf(segments.descendingMap().values());
+    }
+    long size = 0;
+    for (Path segment : newestFirst) {
+      try {
+        size += Files.size(segment);
+        boolean expired = Files.getLastModifiedTime(segment).toInstant().isBefore(oldest);
+        if (!segment.equals(currentSegment) && (size > maxSize || expired)) {
+          Files.delete(segment);
+          synchronized (this) {
+            segments.values().remove(segment);
+          }
+          log.atFine().log("Pruned segment %s of the event journal", segment);
+        }
+      } catch (IOException e) {
+        log.atWarning().withCause(e).log(
+            "Unable to prune segment %s of the event journal", segment);
+      }
+    }
+  }
+
+  private long recoverLastPosition() throws IOException {
+    for (Path segment : segments.descendingMap().values()) {
+      long last = 0;
+      try (SegmentReader reader = new SegmentReader(segment)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          last = Math.max(last, positionOf(line, line.indexOf(' ')));
+        }
+      }
+      if (last > 0) {
+        return last;
+      }
+    }
+    return 0;
+  }
+
+  @Nullable
+  private String loadId() throws IOException {
+    Path idFile = journalDir.resolve(ID_FILE);
+    if (!Files.exists(idFile)) {
+      return null;
+    }
+    return Strings.emptyToNull(Files.readString(idFile, UTF_8).trim());
+  }
+
+  private String createId() throws IOException {
+    String newId = UUID.randomUUID().toString();
+    Path tmp = Files.createTempFile(journalDir, ID_FILE, ".tmp");
+    Files.writeString(tmp, newId, UTF_8);
+    Files.move(tmp, journalDir.resolve(ID_FILE), ATOMIC_MOVE, REPLACE_EXISTING);
+    return newId;
+  }
+
+  private static long firstPositionOf(Path segment) {
+    String name = segment.getFileName().toString();
+    if (!name.endsWith(SEGMENT_SUFFIX)) {
+      return 0;
+    }
+    try {
+      return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static long positionOf(String line, int separator) {
+    if (separator <= 0) {
+      return 0;
+    }
+    try {
+      return Long.parseLong(line, 0, separator, 10);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Reads the lines of a segment, without the last one when it is not terminated: it was only
+   * partially written.
+   */
+  private static class SegmentReader implements Closeable {
+    private final InputStream in;
+    private final byte[] buffer = new byte[8192];
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private int offset;
+    private int length;
+
+    SegmentReader(Path segment) throws IOException {
+      in = Files.newInputStream(segment);
+    }
+
+    @Nullable
+    String readLine() throws IOException {
+      line.reset();
+      while (true) {
+        if (offset == length) {
+          length = in.read(buffer);
+          offset = 0;
+          if (length < 0) {
+            length = 0;
+            return null;
+          }
+        }
+        int start = offset;
+        while (offset < length && buffer[offset] != '\n') {
+          offset++;
+        }
+        line.write(buffer, start, offset - start);
+        if (offset < length) {
+          offset++;
+          return line.toString(UTF_8);
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
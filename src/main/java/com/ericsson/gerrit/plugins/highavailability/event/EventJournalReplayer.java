@@ -0,0 +1,185 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.event;
+
+import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.EventJournalCursors;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedEventHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.ericsson.gerrit.plugins.highavailability.peers.PeerInfo;
+import com.google.common.base.Joiner;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.events.EventGson;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.BasicResponseHandler;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+/**
+ * Replays the stream events this node missed, e.g. while it was restarting, from the event journal
+ * of each peer: the events journaled after the cursor of the journal and not dispatched yet are
+ * dispatched as if they had just been forwarded. Runs when the plugin starts and then every {@link
+ * #REPLAY_INTERVAL}, which also persists the cursors.
+ */
+@Singleton
+class EventJournalReplayer implements LifecycleListener, Runnable {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  static final Duration REPLAY_INTERVAL = Duration.ofMinutes(1);
+
+  /** As returned by {@code /query/events.after}. */
+  private static class JournalPage {
+    String journal;
+    long first;
+    long last;
+    List<SequencedEvent> events;
+  }
+
+  private final Provider<Set<PeerInfo>> peerInfoProvider;
+  private final CloseableHttpClient httpClient;
+  private final String pluginRelativePath;
+  private final ForwardedEventHandler forwardedEventHandler;
+  private final EventJournalCursors cursors;
+  private final Gson gson;
+  private final ScheduledExecutorService exec;
+  private ScheduledFuture<?> replayTask;
+
+  @Inject
+  EventJournalReplayer(
+      Provider<Set<PeerInfo>> peerInfoProvider,
+      CloseableHttpClient httpClient,
+      @PluginName String pluginName,
+      ForwardedEventHandler forwardedEventHandler,
+      EventJournalCursors cursors,
+      @EventGson Gson gson,
+      WorkQueue queue) {
+    this.peerInfoProvider = peerInfoProvider;
+    this.httpClient = httpClient;
+    this.pluginRelativePath = Joiner.on("/").join("plugins", pluginName);
+    this.forwardedEventHandler = forwardedEventHandler;
+    this.cursors = cursors;
+    this.gson = gson;
+    this.exec = queue.getDefaultQueue();
+  }
+
+  @Override
+  public void start() {
+    replayTask =
+        exec.scheduleWithFixedDelay(this, 0, REPLAY_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (replayTask != null) {
+      replayTask.cancel(false);
+    }
+    cursors.flush();
+  }
+
+  @Override
+  public void run() {
+    try {
+      for (PeerInfo peer : peerInfoProvider.get()) {
+        try {
+          replay(peer);
+        } catch (HttpResponseException e) {
+          if (e.getStatusCode() == SC_NOT_FOUND) {
+            // Peer running an older version or without event journal
+            log.atFine().log("%s does not expose its event journal", peer);
+          } else {
+            log.atSevere().withCause(e).log("Unable to replay the event journal of %s", peer);
+          }
+        } catch (IOException | JsonParseException e) {
+          log.atSevere().withCause(e).log("Unable to replay the event journal of %s", peer);
+        }
+      }
+    } finally {
+      cursors.flush();
+    }
+  }
+
+  private void replay(PeerInfo peer) throws IOException {
+    JournalPage page = query(peer, "");
+    String journal = page.journal;
+    Optional<Long> cursor = cursors.get(journal);
+    if (cursor.isEmpty()) {
+      // Journal never received from: the events it holds were not missed by this node
+      cursors.skipTo(journal, page.last);
+      return;
+    }
+
+    long after = cursor.get();
+    if (after + 1 < page.first) {
+      log.atWarning().log(
+          "Events %d to %d of the event journal of %s were pruned, they cannot be replayed",
+          after + 1, page.first - 1, peer);
+    }
+    int replayed = 0;
+    while (after < page.last) {
+      page = query(peer, Joiner.on("/").join(journal, after));
+      if (!journal.equals(page.journal)) {
+        // Peer restarted with a new journal since the replay started
+        break;
+      }
+      if (page.events == null || page.events.isEmpty()) {
+        // Events lost by the peer, e.g. on an I/O error
+        cursors.skipTo(journal, page.last);
+        break;
+      }
+      for (SequencedEvent event : page.events) {
+        long position = event.getJournalPosition();
+        if (position > after + 1) {
+          // Events not in the journal, e.g. pruned or lost when the peer crashed
+          cursors.skipTo(journal, position - 1);
+        }
+        // Skips the events received since the replay started; an event received while being
+        // replayed is still dispatched once only, by the forwarded event handler
+        if (!cursors.isDispatched(journal, position)) {
+          forwardedEventHandler.dispatch(event);
+          replayed++;
+        }
+        after = position;
+      }
+    }
+    if (replayed > 0) {
+      log.atInfo().log("Replayed %d events from the event journal of %s", replayed, peer);
+    }
+  }
+
+  private JournalPage query(PeerInfo peer, String path) throws IOException {
+    String uri =
+        Joiner.on("/").join(peer.getDirectUrl(), pluginRelativePath, "query/events.after", path);
+    HttpGet queryRequest = new HttpGet(uri);
+    log.atFine().log("Executing %s", queryRequest);
+    return gson.fromJson(
+        httpClient.execute(queryRequest, new BasicResponseHandler()), JournalPage.class);
+  }
+}
@@ -23,5 +23,6 @@ public class EventModule extends LifecycleModule {
   @Override
   protected void configure() {
     DynamicSet.bind(binder(), EventListener.class).to(EventHandler.class);
+    listener().to(EventBatcher.class);
   }
 }
@@ -0,0 +1,42 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.event;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.events.Event;
+import com.google.inject.Singleton;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Numbers the forwarded events of each project in the order they are generated, so that the other
+ * nodes can dispatch them in that order whatever the order they are received in.
+ *
+ * <p>The numbering restarts with the node: a random origin, changing on each start, tells the
+ * receiving side that the numbers of a project started over.
+ */
+@Singleton
+class EventSequencer {
+  private final String origin = UUID.randomUUID().toString();
+  private final Map<Project.NameKey, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+  SequencedEvent next(Project.NameKey project, Event event) {
+    long sequence = sequences.computeIfAbsent(project, p -> new AtomicLong()).incrementAndGet();
+    return new SequencedEvent(event, origin, sequence);
+  }
+}
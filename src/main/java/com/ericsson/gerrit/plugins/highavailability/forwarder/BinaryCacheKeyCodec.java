@@ -0,0 +1,38 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import com.google.gson.Gson;
+import java.util.Base64;
+
+/** Codec of the cache keys having a binary form, sent as a Base64 encoded JSON string. */
+public abstract class BinaryCacheKeyCodec implements CacheKeyCodec {
+  private static final Gson GSON = new Gson();
+
+  /** Returns the binary form of the key. */
+  protected abstract byte[] toBytes(Object key);
+
+  /** Returns the key from its binary form. */
+  protected abstract Object fromBytes(byte[] bytes);
+
+  @Override
+  public final String encode(Object key) {
+    return GSON.toJson(Base64.getEncoder().encodeToString(toBytes(key)));
+  }
+
+  @Override
+  public final Object decode(String encodedKey) {
+    return fromBytes(Base64.getDecoder().decode(GSON.fromJson(encodedKey, String.class)));
+  }
+}
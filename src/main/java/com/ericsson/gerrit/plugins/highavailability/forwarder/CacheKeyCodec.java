@@ -0,0 +1,48 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import com.google.gerrit.common.Nullable;
+
+/**
+ * Encodes the keys of a cache to forward their eviction, and decodes them on the receiving side.
+ *
+ * <p>Plugins can contribute the codec of their caches by exporting it under the name of the cache:
+ *
+ * <pre>
+ * bind(CacheKeyCodec.class).annotatedWith(Exports.named("my_cache")).to(MyCacheKeyCodec.class);
+ * </pre>
+ *
+ * <p>The encoded key must be a JSON value, see {@link BinaryCacheKeyCodec} for keys with a binary
+ * form.
+ */
+public interface CacheKeyCodec {
+
+  /**
+   * Encodes the key of an entry of the cache.
+   *
+   * @param key the key of the cache entry
+   * @return the key encoded as a JSON value
+   */
+  String encode(Object key);
+
+  /**
+   * Decodes the key of an entry of the cache.
+   *
+   * @param encodedKey the key as returned by {@link #encode(Object)}
+   * @return the key of the cache entry, or {@code null} if it could not be decoded
+   */
+  @Nullable
+  Object decode(String encodedKey);
+}
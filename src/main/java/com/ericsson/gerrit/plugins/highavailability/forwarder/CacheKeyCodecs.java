@@ -0,0 +1,243 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.RestGson;
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.AccountGroup;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Registry of the {@link CacheKeyCodec}s, built in for the Gerrit caches forwarded by default and
+ * contributed by plugins for their own caches.
+ *
+ * <p>The keys of the other caches are sent as serialized by the {@link RestGson} and received as a
+ * {@code String} for JSON primitives, otherwise as the maps and lists parsed by Gson. The key of
+ * {@code adv_bases} is a type private to Gerrit which cannot be built here: forwarding the
+ * evictions of that cache, which is only meant to carry the state of a push between its two HTTP
+ * requests, is not supported.
+ */
+@Singleton
+public class CacheKeyCodecs {
+  private final Gson gson;
+  private final Map<String, CacheKeyCodec> builtInCodecs;
+  private final DynamicMap<CacheKeyCodec> pluginCodecs;
+
+  @Inject
+  public CacheKeyCodecs(DynamicMap<CacheKeyCodec> pluginCodecs, @RestGson Gson gson) {
+    this.gson = gson;
+    this.pluginCodecs = pluginCodecs;
+    this.builtInCodecs =
+        ImmutableMap.<String, CacheKeyCodec>builder()
+            .put(Constants.ACCOUNTS, new IdCodec<>(Account.Id.class, Account.Id::get, Account::id))
+            .put(Constants.TOKENS, new IdCodec<>(Account.Id.class, Account.Id::get, Account::id))
+            .put(
+                Constants.GROUPS,
+                new IdCodec<>(AccountGroup.Id.class, AccountGroup.Id::get, AccountGroup::id))
+            .put(Constants.GROUPS_BYINCLUDE, new GroupUuidCodec())
+            .put(Constants.GROUPS_MEMBERS, new GroupUuidCodec())
+            .put(Constants.PROJECTS, new ProjectNameCodec())
+            .build();
+  }
+
+  /**
+   * Encodes the key of an entry of the cache.
+   *
+   * @param cacheName the name of the cache, e.g. my_plugin.my_cache
+   * @param key the key of the cache entry
+   * @return the key encoded as a JSON value
+   */
+  public String encode(String cacheName, Object key) {
+    CacheKeyCodec codec = codec(cacheName);
+    return codec != null ? codec.encode(key) : gson.toJson(key);
+  }
+
+  /**
+   * Decodes the key of an entry of the cache.
+   *
+   * @param cacheName the name of the cache, e.g. my_plugin.my_cache
+   * @param encodedKey the key as encoded by the sending node
+   * @return the key of the cache entry, or {@code null} if it is missing
+   * @throws JsonParseException if the key is malformed
+   */
+  @Nullable
+  public Object decode(String cacheName, @Nullable String encodedKey) {
+    if (Strings.isNullOrEmpty(encodedKey)) {
+      return null;
+    }
+    CacheKeyCodec codec = codec(cacheName);
+    return codec != null ? codec.decode(encodedKey) : decodeDefault(encodedKey);
+  }
+
+  @Nullable
+  private CacheKeyCodec codec(String cacheName) {
+    CacheEntry entry = CacheEntry.from(cacheName, null);
+    if (Constants.GERRIT.equals(entry.getPluginName())) {
+      return builtInCodecs.get(entry.getCacheName());
+    }
+    return pluginCodecs.get(entry.getPluginName(), entry.getCacheName());
+  }
+
+  private Object decodeDefault(String encodedKey) {
+    try {
+      JsonReader reader = reader(encodedKey);
+      JsonToken token = reader.peek();
+      switch (token) {
+        case STRING:
+        case NUMBER:
+          return reader.nextString();
+        case BOOLEAN:
+          return Boolean.toString(reader.nextBoolean());
+        case NULL:
+          return null;
+        default:
+          return gson.fromJson(reader, Object.class);
+      }
+    } catch (IOException e) {
+      throw new JsonParseException(e);
+    }
+  }
+
+  private static JsonReader reader(String encodedKey) {
+    JsonReader reader = new JsonReader(new StringReader(encodedKey));
+    reader.setLenient(true);
+    return reader;
+  }
+
+  /** Reads the field of the JSON object without parsing its other fields. */
+  @Nullable
+  private static JsonReader readField(String encodedKey, String field) {
+    try {
+      JsonReader reader = reader(encodedKey);
+      reader.beginObject();
+      while (reader.hasNext()) {
+        if (reader.nextName().equals(field) && reader.peek() != JsonToken.NULL) {
+          return reader;
+        }
+        reader.skipValue();
+      }
+      return null;
+    } catch (IOException | IllegalStateException e) {
+      throw new JsonParseException(e);
+    }
+  }
+
+  private static String writeField(String field, Object value) {
+    StringWriter json = new StringWriter();
+    try (JsonWriter writer = new JsonWriter(json)) {
+      writer.beginObject().name(field);
+      if (value instanceof Number) {
+        writer.value((Number) value);
+      } else {
+        writer.value(value.toString());
+      }
+      writer.endObject();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return json.toString();
+  }
+
+  /** Integer ids, serialized as {@code {"id":1000000}}. */
+  private class IdCodec<K> implements CacheKeyCodec {
+    private final Class<K> keyClass;
+    private final Function<K, Integer> toInt;
+    private final Function<Integer, K> fromInt;
+
+    IdCodec(Class<K> keyClass, Function<K, Integer> toInt, Function<Integer, K> fromInt) {
+      this.keyClass = keyClass;
+      this.toInt = toInt;
+      this.fromInt = fromInt;
+    }
+
+    @Override
+    public String encode(Object key) {
+      return keyClass.isInstance(key)
+          ? writeField("id", toInt.apply(keyClass.cast(key)))
+          : gson.toJson(key);
+    }
+
+    @Override
+    public Object decode(String encodedKey) {
+      JsonReader reader = readField(encodedKey, "id");
+      try {
+        return reader == null ? null : fromInt.apply(reader.nextInt());
+      } catch (IOException | NumberFormatException e) {
+        throw new JsonParseException(e);
+      }
+    }
+  }
+
+  /** Group UUIDs, serialized as {@code {"uuid":"..."}}. */
+  private class GroupUuidCodec implements CacheKeyCodec {
+    @Override
+    public String encode(Object key) {
+      return key instanceof AccountGroup.UUID
+          ? writeField("uuid", ((AccountGroup.UUID) key).get())
+          : gson.toJson(key);
+    }
+
+    @Override
+    public Object decode(String encodedKey) {
+      JsonReader reader = readField(encodedKey, "uuid");
+      try {
+        return reader == null ? null : AccountGroup.uuid(reader.nextString());
+      } catch (IOException e) {
+        throw new JsonParseException(e);
+      }
+    }
+  }
+
+  /** Project names, serialized as a JSON string. */
+  private class ProjectNameCodec implements CacheKeyCodec {
+    @Override
+    public String encode(Object key) {
+      return gson.toJson(key instanceof Project.NameKey ? ((Project.NameKey) key).get() : key);
+    }
+
+    @Override
+    public Object decode(String encodedKey) {
+      try {
+        JsonReader reader = reader(encodedKey);
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+          reader = readField(encodedKey, "name");
+          if (reader == null) {
+            return null;
+          }
+        }
+        return Project.nameKey(CharMatcher.is('\"').trimFrom(reader.nextString()));
+      } catch (IOException | IllegalStateException e) {
+        throw new JsonParseException(e);
+      }
+    }
+  }
+}
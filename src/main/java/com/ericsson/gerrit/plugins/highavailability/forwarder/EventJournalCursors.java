@@ -0,0 +1,196 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Positions of the events dispatched locally, one cursor per event journal of the peers.
+ *
+ * <p>The events of a journal are not received in position order: the events of different projects
+ * are dispatched concurrently and an event whose forwarding failed is only received once replayed.
+ * A cursor is thus the position up to which all the events were dispatched, from which they are
+ * replayed, along with the positions dispatched beyond it. Only the former is persisted, by {@link
+ * #flush()}, so that the events forwarded while this node was down can be replayed from the journal
+ * of the peers after a restart.
+ */
+@Singleton
+public class EventJournalCursors {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  private static final String CURSORS_DIR = "event-journal-cursors";
+  // Beyond, the oldest missing events are given up on, e.g. when the replay keeps failing
+  static final int MAX_DISPATCHED_AHEAD = 10000;
+
+  private static class Cursor {
+    long dispatchedUpTo;
+    final NavigableSet<Long> dispatchedAhead = new TreeSet<>();
+
+    Cursor(long dispatchedUpTo) {
+      this.dispatchedUpTo = dispatchedUpTo;
+    }
+  }
+
+  private final Path cursorsDir;
+  private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();
+  private final Set<String> modified = ConcurrentHashMap.newKeySet();
+
+  @Inject
+  EventJournalCursors(@PluginData Path dataDir) {
+    this.cursorsDir = dataDir.resolve(CURSORS_DIR);
+  }
+
+  /** Returns the position up to which all the events of the journal were dispatched. */
+  public Optional<Long> get(String journal) {
+    Cursor cursor = cursors.computeIfAbsent(journal, this::load);
+    if (cursor == null) {
+      return Optional.empty();
+    }
+    synchronized (cursor) {
+      return Optional.of(cursor.dispatchedUpTo);
+    }
+  }
+
+  /** Returns whether the event of the journal at the position was dispatched. */
+  public boolean isDispatched(String journal, long position) {
+    Cursor cursor = cursors.computeIfAbsent(journal, this::load);
+    if (cursor == null) {
+      return false;
+    }
+    synchronized (cursor) {
+      return position <= cursor.dispatchedUpTo || cursor.dispatchedAhead.contains(position);
+    }
+  }
+
+  /**
+   * Records the event of the journal at the position as dispatched, unless it already was. The
+   * cursor only moves once the events preceding it were dispatched too; the first event received
+   * from a journal starts it.
+   *
+   * @return whether the event is to be dispatched, false when it already was, e.g. when both
+   *     forwarded and replayed.
+   */
+  public boolean markDispatched(String journal, long position) {
+    Cursor cursor = cursor(journal, position - 1);
+    synchronized (cursor) {
+      if (position <= cursor.dispatchedUpTo || !cursor.dispatchedAhead.add(position)) {
+        return false;
+      }
+      if (cursor.dispatchedAhead.size() > MAX_DISPATCHED_AHEAD) {
+        long first = cursor.dispatchedAhead.first();
+        log.atWarning().log(
+            "Events %d to %d of event journal %s were not received, they are not replayed",
+            cursor.dispatchedUpTo + 1, first - 1, journal);
+        cursor.dispatchedUpTo = first - 1;
+      }
+      moveOverDispatched(journal, cursor);
+      return true;
+    }
+  }
+
+  /**
+   * Records all the events of the journal up to the position as dispatched, e.g. because they
+   * cannot be replayed.
+   */
+  public void skipTo(String journal, long position) {
+    Cursor cursor = cursor(journal, position);
+    synchronized (cursor) {
+      if (position > cursor.dispatchedUpTo) {
+        cursor.dispatchedUpTo = position;
+        cursor.dispatchedAhead.headSet(position, true).clear();
+        modified.add(journal);
+      }
+      moveOverDispatched(journal, cursor);
+    }
+  }
+
+  /** Persists the cursors advanced since the previous flush. */
+  public void flush() {
+    for (String journal : List.copyOf(modified)) {
+      modified.remove(journal);
+      Cursor cursor = cursors.get(journal);
+      long position;
+      synchronized (cursor) {
+        position = cursor.dispatchedUpTo;
+      }
+      store(journal, position);
+    }
+  }
+
+  private Cursor cursor(String journal, long dispatchedUpTo) {
+    Cursor cursor = cursors.computeIfAbsent(journal, this::load);
+    if (cursor == null) {
+      cursor = cursors.computeIfAbsent(journal, j -> new Cursor(dispatchedUpTo));
+      modified.add(journal);
+    }
+    return cursor;
+  }
+
+  private void moveOverDispatched(String journal, Cursor cursor) {
+    NavigableSet<Long> ahead = cursor.dispatchedAhead;
+    while (!ahead.isEmpty() && ahead.first() <= cursor.dispatchedUpTo + 1) {
+      cursor.dispatchedUpTo = Math.max(cursor.dispatchedUpTo, ahead.pollFirst());
+      modified.add(journal);
+    }
+  }
+
+  @Nullable
+  private Cursor load(String journal) {
+    Path cursorFile = cursorPath(journal);
+    if (!Files.exists(cursorFile)) {
+      return null;
+    }
+    try {
+      return new Cursor(Long.parseLong(Files.readString(cursorFile, UTF_8).trim()));
+    } catch (IOException | NumberFormatException e) {
+      log.atWarning().withCause(e).log("Unable to read the cursor of event journal %s", journal);
+      return null;
+    }
+  }
+
+  private void store(String journal, long position) {
+    Path cursorFile = cursorPath(journal);
+    try {
+      Files.createDirectories(cursorsDir);
+      Path tmp = Files.createTempFile(cursorsDir, cursorFile.getFileName().toString(), ".tmp");
+      Files.writeString(tmp, Long.toString(position), UTF_8);
+      Files.move(tmp, cursorFile, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.atWarning().withCause(e).log("Unable to persist the cursor of event journal %s", journal);
+    }
+  }
+
+  private Path cursorPath(String journal) {
+    return cursorsDir.resolve(URLEncoder.encode(journal, UTF_8));
+  }
+}
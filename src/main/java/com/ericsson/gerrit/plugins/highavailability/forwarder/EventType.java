@@ -16,7 +16,9 @@ package com.ericsson.gerrit.plugins.highavailability.forwarder;
 
 public enum EventType {
   CACHE_EVICTION,
+  CACHE_EVICTION_BATCH,
   EVENT_SENT,
+  EVENT_BATCH_SENT,
   INDEX_ACCOUNT_UPDATE,
   INDEX_CHANGE_DELETION,
   INDEX_CHANGE_DELETION_ALL_OF_PROJECT,
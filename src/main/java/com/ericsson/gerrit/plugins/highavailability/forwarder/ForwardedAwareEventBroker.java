@@ -29,6 +29,7 @@ import com.google.inject.Inject;
 class ForwardedAwareEventBroker extends EventBroker {
 
   private final AllowedForwardedEventListener allowedListeners;
+  private final ForwardedEventListenerDispatcher listenerDispatcher;
 
   @Inject
   ForwardedAwareEventBroker(
@@ -38,7 +39,8 @@ class ForwardedAwareEventBroker extends EventBroker {
       ProjectCache projectCache,
       Factory notesFactory,
       @Nullable @GerritInstanceId String gerritInstanceId,
-      @Nullable AllowedForwardedEventListener allowedListeners) {
+      @Nullable AllowedForwardedEventListener allowedListeners,
+      ForwardedEventListenerDispatcher listenerDispatcher) {
     super(
         listeners,
         unrestrictedListeners,
@@ -48,6 +50,7 @@ class ForwardedAwareEventBroker extends EventBroker {
         gerritInstanceId);
 
     this.allowedListeners = allowedListeners;
+    this.listenerDispatcher = listenerDispatcher;
   }
 
   @Override
@@ -58,9 +61,10 @@ class ForwardedAwareEventBroker extends EventBroker {
   }
 
   private void fireEventForListener(EventListener l, Event event) {
-    if (!Context.isForwardedEvent()
-        || (allowedListeners != null && allowedListeners.isAllowed(l))) {
+    if (!Context.isForwardedEvent()) {
       l.onEvent(event);
+    } else if (allowedListeners != null && allowedListeners.isAllowed(l)) {
+      listenerDispatcher.dispatch(l, event);
     }
   }
 }
@@ -31,10 +31,13 @@ public class ForwardedCacheEvictionHandler {
   private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
   private final DynamicMap<Cache<?, ?>> cacheMap;
+  private final ForwardedCacheRefresher refresher;
 
   @Inject
-  public ForwardedCacheEvictionHandler(DynamicMap<Cache<?, ?>> cacheMap) {
+  public ForwardedCacheEvictionHandler(
+      DynamicMap<Cache<?, ?>> cacheMap, ForwardedCacheRefresher refresher) {
     this.cacheMap = cacheMap;
+    this.refresher = refresher;
   }
 
   /**
@@ -58,6 +61,40 @@ public class ForwardedCacheEvictionHandler {
       } else {
         cache.invalidate(entry.getKey());
         log.atFine().log("Invalidated cache %s[%s]", entry.getCacheName(), entry.getKey());
+        refresher.refresh(entry, cache);
+      }
+    } finally {
+      Context.unsetForwardedEvent();
+    }
+  }
+
+  /**
+   * Evict several entries from a cache of the local node at once, eviction will not be forwarded
+   * to the other node.
+   *
+   * @param cacheName the name of the cache, e.g. my_plugin.my_cache
+   * @param keys the keys identifying the entries to evict
+   * @throws CacheNotFoundException if cache does not exist
+   */
+  public void evictAll(String cacheName, Iterable<?> keys) throws CacheNotFoundException {
+    CacheEntry entry = CacheEntry.from(cacheName, null);
+    Cache<?, ?> cache = cacheMap.get(entry.getPluginName(), entry.getCacheName());
+    if (cache == null) {
+      throw new CacheNotFoundException(entry.getPluginName(), entry.getCacheName());
+    }
+    try {
+      Context.setForwardedEvent(true);
+      if (Constants.PROJECT_LIST.equals(entry.getCacheName())) {
+        // One key is holding the list of projects
+        cache.invalidateAll();
+        log.atFine().log("Invalidated cache %s", entry.getCacheName());
+      } else {
+        cache.invalidateAll(keys);
+        log.atFine().log("Invalidated cache %s%s", entry.getCacheName(), keys);
+        for (Object key : keys) {
+          refresher.refresh(
+              new CacheEntry(entry.getPluginName(), entry.getCacheName(), key), cache);
+        }
       }
     } finally {
       Context.unsetForwardedEvent();
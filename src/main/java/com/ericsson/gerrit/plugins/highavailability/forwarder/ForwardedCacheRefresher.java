@@ -0,0 +1,145 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
+import com.google.common.cache.Cache;
+import com.google.common.cache.LoadingCache;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Reloads in the background the entries evicted from the caches configured in {@code
+ * cache.refreshAhead} upon a forwarded eviction, so that the next request on this node does not
+ * pay for loading them.
+ *
+ * <p>A key already waiting to be reloaded is not queued again, and reloads beyond {@code
+ * cache.refreshAheadRate} per second are skipped: those entries are loaded on demand as usual. The
+ * reloads still queued when the plugin stops are dropped.
+ */
+@Singleton
+public class ForwardedCacheRefresher implements LifecycleListener {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+  private record PendingRefresh(String cacheName, Object key) {}
+
+  private final Set<String> refreshAhead;
+  private final Set<PendingRefresh> pending = ConcurrentHashMap.newKeySet();
+  private final WorkQueue workQueue;
+  private final int threadPoolSize;
+  private final RateLimiter rateLimiter;
+  private volatile ExecutorService executor;
+  private boolean stopped;
+
+  @Inject
+  ForwardedCacheRefresher(Configuration cfg, WorkQueue workQueue) {
+    this.refreshAhead = cfg.cache().refreshAhead();
+    this.workQueue = workQueue;
+    this.threadPoolSize = cfg.cache().refreshAheadThreadPoolSize();
+    this.rateLimiter = RateLimiter.create(Math.max(cfg.cache().refreshAheadRate(), 1));
+  }
+
+  @Override
+  public void start() {
+    // do nothing
+  }
+
+  @Override
+  public synchronized void stop() {
+    stopped = true;
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    pending.clear();
+  }
+
+  /**
+   * Reloads the entry of the cache in the background if the cache is configured for it.
+   *
+   * @param entry the cache entry which was evicted
+   * @param cache the cache the entry was evicted from
+   */
+  public void refresh(CacheEntry entry, Cache<?, ?> cache) {
+    String cacheName = fullName(entry);
+    if (!refreshAhead.contains(cacheName) || entry.getKey() == null) {
+      return;
+    }
+    if (!(cache instanceof LoadingCache<?, ?>)) {
+      log.atFine().log("Cache %s cannot be refreshed ahead: not a loading cache", cacheName);
+      return;
+    }
+    PendingRefresh refresh = new PendingRefresh(cacheName, entry.getKey());
+    if (!pending.add(refresh)) {
+      return;
+    }
+    if (!rateLimiter.tryAcquire()) {
+      pending.remove(refresh);
+      log.atFine().log("Skipped refresh of %s[%s]: rate exceeded", cacheName, entry.getKey());
+      return;
+    }
+    ExecutorService current = executor();
+    try {
+      if (current != null) {
+        current.execute(() -> reload(refresh, (LoadingCache<?, ?>) cache));
+        return;
+      }
+    } catch (RejectedExecutionException e) {
+      log.atFine().withCause(e).log("Forwarded cache refresh pool is shut down");
+    }
+    pending.remove(refresh);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void reload(PendingRefresh refresh, LoadingCache<?, ?> cache) {
+    // An eviction of the key while it is reloaded must queue a new reload
+    pending.remove(refresh);
+    try {
+      ((LoadingCache<Object, ?>) cache).get(refresh.key());
+      log.atFine().log("Refreshed %s[%s]", refresh.cacheName(), refresh.key());
+    } catch (Exception e) {
+      log.atWarning().withCause(e).log(
+          "Unable to refresh %s[%s]", refresh.cacheName(), refresh.key());
+    }
+  }
+
+  @Nullable
+  private ExecutorService executor() {
+    if (executor == null) {
+      synchronized (this) {
+        if (executor == null && !stopped) {
+          executor = workQueue.createQueue(threadPoolSize, "Forwarded-Cache-Refresh");
+        }
+      }
+    }
+    return executor;
+  }
+
+  private static String fullName(CacheEntry entry) {
+    return Constants.GERRIT.equals(entry.getPluginName())
+        ? entry.getCacheName()
+        : entry.getPluginName() + "." + entry.getCacheName();
+  }
+}
@@ -17,6 +17,7 @@ package com.ericsson.gerrit.plugins.highavailability.forwarder;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.server.events.Event;
 import com.google.gerrit.server.events.EventDispatcher;
+import com.google.gerrit.server.events.ProjectEvent;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -30,10 +31,50 @@ public class ForwardedEventHandler {
   private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
   private final EventDispatcher dispatcher;
+  private final ForwardedEventReorderBuffer reorderBuffer;
+  private final EventJournalCursors journalCursors;
 
   @Inject
-  public ForwardedEventHandler(EventDispatcher dispatcher) {
+  public ForwardedEventHandler(
+      EventDispatcher dispatcher,
+      ForwardedEventReorderBuffer reorderBuffer,
+      EventJournalCursors journalCursors) {
     this.dispatcher = dispatcher;
+    this.reorderBuffer = reorderBuffer;
+    this.journalCursors = journalCursors;
+  }
+
+  /**
+   * Dispatch an event in the local node once the events preceding it in the sequence of its
+   * project were dispatched, event will not be forwarded to the other node. A journaled event is
+   * dispatched once only, whether forwarded or replayed.
+   *
+   * @param sequencedEvent The event to dispatch, with its position in the sequence of its project
+   */
+  public void dispatch(SequencedEvent sequencedEvent) {
+    Event event = sequencedEvent.getEvent();
+    if (sequencedEvent.isSequenced() && event instanceof ProjectEvent) {
+      reorderBuffer.add(
+          sequencedEvent.getOrigin(),
+          ((ProjectEvent) event).getProjectNameKey().get(),
+          sequencedEvent.getSequence(),
+          () -> dispatchJournaled(sequencedEvent));
+    } else {
+      dispatchJournaled(sequencedEvent);
+    }
+  }
+
+  private void dispatchJournaled(SequencedEvent sequencedEvent) {
+    // Both forwarded and replayed from the journal, e.g. while its forwarding was retried
+    if (sequencedEvent.isJournaled()
+        && !journalCursors.markDispatched(
+            sequencedEvent.getJournal(), sequencedEvent.getJournalPosition())) {
+      log.atFine().log(
+          "Event %d of journal %s was already dispatched",
+          sequencedEvent.getJournalPosition(), sequencedEvent.getJournal());
+      return;
+    }
+    dispatch(sequencedEvent.getEvent());
   }
 
   /**
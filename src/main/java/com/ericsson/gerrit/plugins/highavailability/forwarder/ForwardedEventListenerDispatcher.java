@@ -0,0 +1,174 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.common.collect.MapMaker;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.events.Event;
+import com.google.gerrit.server.events.EventListener;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands the forwarded stream events over to the allowed listeners on a pool of {@code
+ * event.threadPoolSize} threads, so that a slow listener does not hold the thread which received
+ * the event. Each listener has its own queue, bounded by {@code event.maxQueuedEvents}, and handles
+ * its events one at a time in the order they were dispatched; the listeners do not wait for each
+ * other. The queues only hold their listener weakly, so that the queue of a listener unregistered,
+ * e.g. with its plugin, is collected along with it.
+ */
+@Singleton
+class ForwardedEventListenerDispatcher implements LifecycleListener {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  static final String FORWARDED_EVENT_LISTENER_THREAD_PREFIX = "Forwarded-Event-Listener";
+
+  private final ForwardedEventListenerMetrics metrics;
+  private final boolean async;
+  private final int maxQueuedEvents;
+  private final ConcurrentMap<EventListener, ListenerQueue> queues =
+      new MapMaker().weakKeys().makeMap();
+  private volatile ExecutorService executor;
+
+  @Inject
+  ForwardedEventListenerDispatcher(
+      WorkQueue workQueue, Configuration cfg, ForwardedEventListenerMetrics metrics) {
+    this.metrics = metrics;
+    this.maxQueuedEvents = cfg.event().maxQueuedEvents();
+    int threadPoolSize = cfg.event().threadPoolSize();
+    this.async = threadPoolSize > 0;
+    if (async) {
+      executor = workQueue.createQueue(threadPoolSize, FORWARDED_EVENT_LISTENER_THREAD_PREFIX);
+    }
+  }
+
+  @Override
+  public void start() {
+    // do nothing
+  }
+
+  @Override
+  public void stop() {
+    if (executor != null) {
+      executor.shutdown();
+      executor = null;
+    }
+  }
+
+  /** Passes the forwarded event to the listener, on the calling thread when there is no pool. */
+  void dispatch(EventListener listener, Event event) {
+    if (!async) {
+      listener.onEvent(event);
+      return;
+    }
+    queues.computeIfAbsent(listener, ListenerQueue::new).add(event);
+  }
+
+  private class ListenerQueue implements Runnable {
+    private final WeakReference<EventListener> listener;
+    private final String listenerName;
+    private final String label;
+    private final Queue<Event> events = new ArrayDeque<>();
+    private boolean scheduled;
+
+    ListenerQueue(EventListener listener) {
+      this.listener = new WeakReference<>(listener);
+      this.listenerName = listener.getClass().getName();
+      this.label = ForwardedEventListenerMetrics.label(listener.getClass());
+    }
+
+    synchronized void add(Event event) {
+      if (events.size() >= maxQueuedEvents) {
+        metrics.recordDropped(label);
+        log.atSevere().atMostEvery(1, TimeUnit.MINUTES).log(
+            "Dropping forwarded %s event: %d events are already waiting for listener %s",
+            event.getType(), events.size(), listenerName);
+        return;
+      }
+      events.add(event);
+      metrics.recordQueueDepth(label, events.size());
+      if (!scheduled) {
+        schedule();
+      }
+    }
+
+    /** Handles the next event only, letting the events of the other listeners go in between. */
+    @Override
+    public void run() {
+      Event event;
+      synchronized (this) {
+        event = events.poll();
+        metrics.recordQueueDepth(label, events.size());
+      }
+      if (event != null) {
+        onEvent(event);
+      }
+      synchronized (this) {
+        scheduled = false;
+        if (!events.isEmpty()) {
+          schedule();
+        }
+      }
+    }
+
+    private void schedule() {
+      ExecutorService current = executor;
+      try {
+        if (current != null) {
+          current.execute(this);
+          scheduled = true;
+          return;
+        }
+      } catch (RejectedExecutionException e) {
+        log.atFine().withCause(e).log("Forwarded event listener pool is shut down");
+      }
+      log.atWarning().log(
+          "Dropping %d forwarded events of listener %s: the plugin is stopping",
+          events.size(), listenerName);
+      events.clear();
+      metrics.recordQueueDepth(label, 0);
+    }
+
+    private void onEvent(Event event) {
+      EventListener current = listener.get();
+      if (current == null) {
+        log.atFine().log(
+            "Dropping forwarded %s event: listener %s is gone", event.getType(), listenerName);
+        return;
+      }
+      long start = System.nanoTime();
+      // Handled as a forwarded event: not to be forwarded back to the other nodes
+      Context.setForwardedEvent(true);
+      try {
+        current.onEvent(event);
+      } catch (RuntimeException e) {
+        log.atSevere().withCause(e).log(
+            "Listener %s failed to handle forwarded %s event", listenerName, event.getType());
+      } finally {
+        Context.unsetForwardedEvent();
+        metrics.recordLatency(label, System.nanoTime() - start);
+      }
+    }
+  }
+}
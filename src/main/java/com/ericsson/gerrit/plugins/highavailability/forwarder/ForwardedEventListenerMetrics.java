@@ -0,0 +1,98 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import com.google.common.base.CharMatcher;
+import com.google.gerrit.metrics.CallbackMetric1;
+import com.google.gerrit.metrics.Counter1;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.Field;
+import com.google.gerrit.metrics.MetricMaker;
+import com.google.gerrit.metrics.Timer1;
+import com.google.gerrit.server.logging.PluginMetadata;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Singleton
+class ForwardedEventListenerMetrics {
+  private static final CharMatcher METRIC_NAME_CHARS =
+      CharMatcher.inRange('a', 'z')
+          .or(CharMatcher.inRange('A', 'Z'))
+          .or(CharMatcher.inRange('0', '9'))
+          .or(CharMatcher.anyOf("_-"));
+
+  private final Map<String, Integer> queueDepths = new ConcurrentHashMap<>();
+  private final Timer1<String> listenerLatency;
+  private final Counter1<String> droppedEvents;
+
+  @Inject
+  ForwardedEventListenerMetrics(MetricMaker metricMaker) {
+    Field<String> listenerField =
+        Field.ofString(
+                "listener",
+                (metadataBuilder, fieldValue) ->
+                    metadataBuilder.addPluginMetadata(
+                        PluginMetadata.create("listener", fieldValue)))
+            .description("Class of the stream events listener")
+            .build();
+
+    this.listenerLatency =
+        metricMaker.newTimer(
+            "forwarded_event/listener_latency",
+            new Description("Time spent by a listener handling a forwarded stream event")
+                .setCumulative()
+                .setUnit(Description.Units.MILLISECONDS),
+            listenerField);
+    this.droppedEvents =
+        metricMaker.newCounter(
+            "forwarded_event/listener_dropped_events",
+            new Description("Forwarded stream events dropped as the queue of a listener was full")
+                .setCumulative()
+                .setRate(),
+            listenerField);
+    CallbackMetric1<String, Integer> queueDepth =
+        metricMaker.newCallbackMetric(
+            "forwarded_event/listener_queue_depth",
+            Integer.class,
+            new Description("Forwarded stream events waiting to be handled by a listener")
+                .setGauge(),
+            listenerField);
+    metricMaker.newTrigger(
+        queueDepth,
+        () -> {
+          queueDepths.forEach(queueDepth::set);
+          queueDepth.prune();
+        });
+  }
+
+  void recordQueueDepth(String listenerLabel, int depth) {
+    queueDepths.put(listenerLabel, depth);
+  }
+
+  void recordDropped(String listenerLabel) {
+    droppedEvents.increment(listenerLabel);
+  }
+
+  void recordLatency(String listenerLabel, long latencyNanos) {
+    listenerLatency.record(listenerLabel, latencyNanos, TimeUnit.NANOSECONDS);
+  }
+
+  static String label(Class<?> listenerClass) {
+    return METRIC_NAME_CHARS.negate().replaceFrom(listenerClass.getName(), '_');
+  }
+}
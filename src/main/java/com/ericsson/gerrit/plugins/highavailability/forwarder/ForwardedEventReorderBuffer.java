@@ -0,0 +1,152 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches the forwarded events of each project of each sending node in sequence order.
+ *
+ * <p>An event received ahead of its predecessors is held until they arrive, for at most {@code
+ * event.reorderTimeout}: the missing events are then given up on, and dispatched on their own if
+ * they arrive later. Events of different projects, or sent by different nodes, are not ordered
+ * relatively to each other.
+ *
+ * <p>The sequences of a node start at 1 for each project. The first event received of a sequence
+ * that started earlier, e.g. when this node restarted, is held as long as a missing event: the
+ * sequence is then taken up from the lowest event received. The position in the sequences of a
+ * node is kept for as long as the node sends events, so that a project idle for a while is still
+ * dispatched in order, and forgotten once its origin is no longer used, i.e. the node restarted.
+ */
+@Singleton
+public class ForwardedEventReorderBuffer {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  static final int MAX_PENDING_EVENTS = 1000;
+  static final Duration ORIGIN_EXPIRY = Duration.ofHours(1);
+
+  private final ScheduledExecutorService exec;
+  private final Duration timeout;
+  // Streams of the nodes that restarted, whose origin is no longer used, are forgotten
+  private final Cache<String, Map<String, Stream>> origins =
+      CacheBuilder.newBuilder().expireAfterAccess(ORIGIN_EXPIRY).build();
+
+  private record StreamKey(String origin, String project) {}
+
+  @Inject
+  public ForwardedEventReorderBuffer(Configuration cfg, WorkQueue queue) {
+    this.exec = queue.getDefaultQueue();
+    this.timeout = cfg.event().reorderTimeout();
+  }
+
+  /**
+   * Dispatches the event once all the events preceding it in the sequence of its project were
+   * dispatched, or given up on.
+   *
+   * @param origin identifies the sending node.
+   * @param project the project of the event.
+   * @param sequence position of the event in the sequence of the project.
+   * @param dispatch dispatches the event.
+   */
+  public void add(String origin, String project, long sequence, Runnable dispatch) {
+    if (timeout.isZero() || timeout.isNegative()) {
+      dispatch.run();
+      return;
+    }
+    Map<String, Stream> streams = origins.getIfPresent(origin);
+    if (streams == null) {
+      streams = origins.asMap().computeIfAbsent(origin, o -> new ConcurrentHashMap<>());
+    }
+    streams
+        .computeIfAbsent(project, p -> new Stream(new StreamKey(origin, p)))
+        .add(sequence, dispatch);
+  }
+
+  private class Stream {
+    private final StreamKey key;
+    private final TreeMap<Long, Runnable> pending = new TreeMap<>();
+    // Sequence of the next event to dispatch, 0 until the start of the sequence is known
+    private long next;
+    private boolean timeoutScheduled;
+
+    Stream(StreamKey key) {
+      this.key = key;
+    }
+
+    synchronized void add(long sequence, Runnable dispatch) {
+      if (next == 0 && sequence == 1) {
+        next = sequence;
+      }
+      if (next > 0 && sequence < next) {
+        log.atFine().log(
+            "Event %d of %s received after it was given up on, dispatching it", sequence, key);
+        dispatch.run();
+        return;
+      }
+      pending.put(sequence, dispatch);
+      drain();
+      if (pending.size() > MAX_PENDING_EVENTS) {
+        skipGap();
+      } else if (!pending.isEmpty() && !timeoutScheduled) {
+        scheduleTimeout();
+      }
+    }
+
+    private void scheduleTimeout() {
+      long waitingFor = next;
+      timeoutScheduled = true;
+      exec.schedule(() -> onTimeout(waitingFor), timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void onTimeout(long waitingFor) {
+      timeoutScheduled = false;
+      if (next == waitingFor && !pending.isEmpty()) {
+        skipGap();
+      }
+      if (!pending.isEmpty()) {
+        scheduleTimeout();
+      }
+    }
+
+    private void skipGap() {
+      if (next == 0) {
+        log.atFine().log("Taking up %s from event %d", key, pending.firstKey());
+      } else {
+        log.atWarning().log(
+            "Gave up waiting for events %d to %d of %s", next, pending.firstKey() - 1, key);
+      }
+      next = pending.firstKey();
+      drain();
+    }
+
+    private void drain() {
+      while (next > 0 && !pending.isEmpty() && pending.firstKey() == next) {
+        pending.pollFirstEntry().getValue().run();
+        next++;
+      }
+    }
+  }
+}
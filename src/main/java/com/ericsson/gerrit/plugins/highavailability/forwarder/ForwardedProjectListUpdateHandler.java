@@ -14,6 +14,7 @@
 
 package com.ericsson.gerrit.plugins.highavailability.forwarder;
 
+import com.ericsson.gerrit.plugins.highavailability.cache.ProjectListCache;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.server.git.GitRepositoryManager;
@@ -34,16 +35,21 @@ public class ForwardedProjectListUpdateHandler {
   private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
   private final ProjectCache projectCache;
+  private final ProjectListCache projectListCache;
   private final GitRepositoryManager repoMgr;
 
   @Inject
-  ForwardedProjectListUpdateHandler(ProjectCache projectCache, GitRepositoryManager repoMgr) {
+  ForwardedProjectListUpdateHandler(
+      ProjectCache projectCache, ProjectListCache projectListCache, GitRepositoryManager repoMgr) {
     this.projectCache = projectCache;
+    this.projectListCache = projectListCache;
     this.repoMgr = repoMgr;
   }
 
   /**
-   * Update the project list, update will not be forwarded to the other node
+   * Update the project list, update will not be forwarded to the other node. The project is added
+   * to, or removed from, the cached list in place rather than reloading the list, which requires a
+   * scan of all the repositories.
    *
    * @param projectName the name of the project to add or remove.
    * @param remove true to remove, false to add project.
@@ -54,11 +60,12 @@ public class ForwardedProjectListUpdateHandler {
     try {
       Context.setForwardedEvent(true);
       if (remove) {
-        projectCache.remove(projectKey);
+        projectCache.evict(projectKey);
+        projectListCache.remove(projectKey);
         removeFromRepositoryCache(projectKey);
         log.atFine().log("Removed %s from project list", projectName);
       } else {
-        projectCache.onCreateProject(projectKey);
+        projectListCache.add(projectKey);
         log.atFine().log("Added %s to project list", projectName);
       }
     } finally {
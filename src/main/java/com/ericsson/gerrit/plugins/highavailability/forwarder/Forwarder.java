@@ -15,7 +15,8 @@
 package com.ericsson.gerrit.plugins.highavailability.forwarder;
 
 import com.google.gerrit.entities.Project;
-import com.google.gerrit.server.events.Event;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /** Forward indexing, stream events and cache evictions to the other primary */
@@ -94,11 +95,20 @@ public interface Forwarder {
   /**
    * Forward a stream event to the other primary.
    *
-   * @param event the event to forward.
+   * @param event the event to forward, with its position in the sequence of its project.
    * @return {@link CompletableFuture} of true if successful, otherwise {@link CompletableFuture} of
    *     false.
    */
-  CompletableFuture<Result> send(Event event);
+  CompletableFuture<Result> send(SequencedEvent event);
+
+  /**
+   * Forward several stream events at once to the other primary.
+   *
+   * @param events the events to forward, in the order they must be dispatched.
+   * @return {@link CompletableFuture} of true if successful, otherwise {@link CompletableFuture} of
+   *     false.
+   */
+  CompletableFuture<Result> sendAll(List<SequencedEvent> events);
 
   /**
    * Forward a cache eviction event to the other primary.
@@ -110,6 +120,16 @@ public interface Forwarder {
    */
   CompletableFuture<Result> evict(String cacheName, Object key);
 
+  /**
+   * Forward the eviction of several entries of a cache to the other primary.
+   *
+   * @param cacheName the name of the cache to evict the entries from.
+   * @param keys the keys identifying the entries to evict from the cache.
+   * @return {@link CompletableFuture} of true if successful, otherwise {@link CompletableFuture} of
+   *     false.
+   */
+  CompletableFuture<Result> evictAll(String cacheName, Collection<?> keys);
+
   /**
    * Forward an addition to the project list cache to the other primary.
    *
@@ -15,10 +15,19 @@
 package com.ericsson.gerrit.plugins.highavailability.forwarder;
 
 import com.ericsson.gerrit.plugins.highavailability.ConfigurableAllowedEventListeners;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.RestGson;
 import com.google.gerrit.extensions.config.FactoryModule;
+import com.google.gerrit.extensions.events.LifecycleListener;
 import com.google.gerrit.extensions.registration.DynamicItem;
+import com.google.gerrit.extensions.registration.DynamicMap;
 import com.google.gerrit.server.events.EventDispatcher;
+import com.google.gerrit.server.events.EventGson;
+import com.google.gson.Gson;
+import com.google.inject.Provides;
 import com.google.inject.Scopes;
+import com.google.inject.Singleton;
+import com.google.inject.internal.UniqueAnnotations;
+import java.time.Instant;
 
 public class ForwarderModule extends FactoryModule {
   @Override
@@ -32,5 +41,26 @@ public class ForwarderModule extends FactoryModule {
     bind(ForwarderMetricsRegistry.class).in(Scopes.SINGLETON);
     factory(ProcessorMetrics.Factory.class);
     bind(ProcessorMetricsRegistry.class).in(Scopes.SINGLETON);
+    DynamicMap.mapOf(binder(), CacheKeyCodec.class);
+    bind(LifecycleListener.class)
+        .annotatedWith(UniqueAnnotations.create())
+        .to(ForwardedEventListenerDispatcher.class);
+    bind(LifecycleListener.class)
+        .annotatedWith(UniqueAnnotations.create())
+        .to(ForwardedCacheRefresher.class);
+  }
+
+  /**
+   * Provided for every transport: besides the REST payloads, it encodes the cache keys of the
+   * evictions, which must stay the same whatever the transport.
+   */
+  @Provides
+  @Singleton
+  @RestGson
+  public static Gson buildRestGson(@EventGson Gson eventGson) {
+    return eventGson
+        .newBuilder()
+        .registerTypeAdapter(Instant.class, new InstantTypeAdapter())
+        .create();
   }
 }
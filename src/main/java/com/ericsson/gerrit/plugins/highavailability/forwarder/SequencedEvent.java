@@ -0,0 +1,100 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.server.events.Event;
+
+/**
+ * A stream event forwarded to the other nodes, along with its position in the sequence of the
+ * forwarded events of its project on the sending node. The receiving side uses the position to
+ * dispatch the events of a project in the order they were generated.
+ *
+ * <p>When the event journal is enabled, the event also carries its position in the journal of the
+ * sending node, which the receiving side records to know where to resume a replay from.
+ */
+public class SequencedEvent {
+  private final Event event;
+  @Nullable private final String origin;
+  private final long sequence;
+  @Nullable private final String journal;
+  private final long journalPosition;
+
+  /**
+   * @param event the event to forward.
+   * @param origin identifies the sending node, for as long as it runs.
+   * @param sequence position of the event in the sequence of its project, starting at 1.
+   */
+  public SequencedEvent(Event event, @Nullable String origin, long sequence) {
+    this(event, origin, sequence, null, 0);
+  }
+
+  /**
+   * @param journal identifies the event journal of the sending node.
+   * @param journalPosition position of the event in that journal, starting at 1.
+   */
+  public SequencedEvent(
+      Event event,
+      @Nullable String origin,
+      long sequence,
+      @Nullable String journal,
+      long journalPosition) {
+    this.event = event;
+    this.origin = origin;
+    this.sequence = sequence;
+    this.journal = journal;
+    this.journalPosition = journalPosition;
+  }
+
+  /** An event without position, dispatched as soon as it is received. */
+  public static SequencedEvent unsequenced(Event event) {
+    return new SequencedEvent(event, null, 0);
+  }
+
+  public Event getEvent() {
+    return event;
+  }
+
+  @Nullable
+  public String getOrigin() {
+    return origin;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public boolean isSequenced() {
+    return origin != null && sequence > 0;
+  }
+
+  /** The same event, recorded at the given position of the event journal. */
+  public SequencedEvent journaled(String journal, long journalPosition) {
+    return new SequencedEvent(event, origin, sequence, journal, journalPosition);
+  }
+
+  @Nullable
+  public String getJournal() {
+    return journal;
+  }
+
+  public long getJournalPosition() {
+    return journalPosition;
+  }
+
+  public boolean isJournaled() {
+    return journal != null && journalPosition > 0;
+  }
+}
@@ -0,0 +1,92 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.commands;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gerrit.common.Nullable;
+import com.google.inject.Singleton;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generations of the cache evictions sent and applied by this node.
+ *
+ * <p>Each eviction sent is stamped with a generation increasing for the lifetime of this node,
+ * together with a random identifier of this node changing at each start, so that the receiver can
+ * skip an eviction of a key older than one it has already applied, e.g. a retried or reordered
+ * message.
+ */
+@Singleton
+public class CacheEvictionGenerations {
+  // Keys whose generation is forgotten are evicted regardless, as when sent by an older version
+  private static final int MAX_TRACKED_KEYS = 10000;
+
+  private record AppliedKey(String origin, String cacheName, String keyJson) {}
+
+  private final String origin = UUID.randomUUID().toString();
+  private final AtomicLong lastGeneration = new AtomicLong();
+  private final Cache<AppliedKey, Long> applied =
+      CacheBuilder.newBuilder().maximumSize(MAX_TRACKED_KEYS).build();
+
+  /** Returns a new eviction of the key stamped with the next generation of this node. */
+  public EvictCache newEviction(String cacheName, String keyJson) {
+    return new EvictCache(
+        cacheName, keyJson, origin, lastGeneration.incrementAndGet(), Instant.now());
+  }
+
+  /** Returns a new eviction of the keys stamped with the next generation of this node. */
+  public EvictCacheBatch newBatchEviction(String cacheName, List<String> keysJson) {
+    return new EvictCacheBatch(
+        cacheName, keysJson, origin, lastGeneration.incrementAndGet(), Instant.now());
+  }
+
+  /** Returns whether an eviction of the same key of at least this generation was applied. */
+  public boolean isApplied(EvictCache cmd) {
+    return isApplied(cmd.getOrigin(), cmd.getGeneration(), cmd.getCacheName(), cmd.getKeyJson());
+  }
+
+  /**
+   * Returns whether an eviction of the key of at least this generation was applied.
+   *
+   * @param origin identifier of the sending node, {@code null} if not sent
+   * @param generation generation of the eviction
+   * @param cacheName the name of the cache
+   * @param keyJson the key as encoded by the sending node
+   */
+  public boolean isApplied(
+      @Nullable String origin, long generation, String cacheName, String keyJson) {
+    if (origin == null) {
+      return false;
+    }
+    Long appliedGeneration = applied.getIfPresent(new AppliedKey(origin, cacheName, keyJson));
+    return appliedGeneration != null && appliedGeneration >= generation;
+  }
+
+  /** Records the eviction as applied. */
+  public void markApplied(EvictCache cmd) {
+    markApplied(cmd.getOrigin(), cmd.getGeneration(), cmd.getCacheName(), cmd.getKeyJson());
+  }
+
+  /** Records the eviction of the key as applied, unless its origin was not sent. */
+  public void markApplied(
+      @Nullable String origin, long generation, String cacheName, String keyJson) {
+    if (origin != null) {
+      applied.asMap().merge(new AppliedKey(origin, cacheName, keyJson), generation, Math::max);
+    }
+  }
+}
@@ -36,7 +36,9 @@ public class CommandDeserializer implements JsonDeserializer<Command> {
           IndexGroup.class,
           IndexProject.class,
           EvictCache.class,
+          EvictCacheBatch.class,
           PostEvent.class,
+          PostEventBatch.class,
           AddToProjectList.class,
           RemoveFromProjectList.class);
   private static final Map<EventType, Class<?>> COMMAND_TYPE_TO_CLASS_MAPPING = new HashMap<>();
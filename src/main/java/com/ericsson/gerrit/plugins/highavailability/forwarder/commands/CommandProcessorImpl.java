@@ -15,6 +15,7 @@
 package com.ericsson.gerrit.plugins.highavailability.forwarder.commands;
 
 import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheEntry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.Context;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedCacheEvictionHandler;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedEventHandler;
@@ -25,6 +26,7 @@ import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexingH
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedProjectListUpdateHandler;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetrics;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.entities.Account;
@@ -33,6 +35,8 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Singleton
@@ -43,6 +47,8 @@ public class CommandProcessorImpl implements CommandProcessor {
   private final ForwardedIndexBatchChangeHandler indexBatchChangeHandler;
   private final ForwardedIndexAccountHandler indexAccountHandler;
   private final ForwardedCacheEvictionHandler cacheEvictionHandler;
+  private final CacheEvictionGenerations evictionGenerations;
+  private final CacheKeyCodecs cacheKeyCodecs;
   private final ForwardedEventHandler eventHandler;
   private final ForwardedProjectListUpdateHandler projectListUpdateHandler;
   private final ProcessorMetricsRegistry metricRegistry;
@@ -54,6 +60,8 @@ public class CommandProcessorImpl implements CommandProcessor {
       ForwardedIndexBatchChangeHandler indexBatchChangeHandler,
       ForwardedIndexAccountHandler indexAccountHandler,
       ForwardedCacheEvictionHandler cacheEvictionHandler,
+      CacheEvictionGenerations evictionGenerations,
+      CacheKeyCodecs cacheKeyCodecs,
       ForwardedEventHandler eventHandler,
       ForwardedProjectListUpdateHandler projectListUpdateHandler,
       ProcessorMetricsRegistry metricRegistry) {
@@ -61,6 +69,8 @@ public class CommandProcessorImpl implements CommandProcessor {
     this.indexBatchChangeHandler = indexBatchChangeHandler;
     this.indexAccountHandler = indexAccountHandler;
     this.cacheEvictionHandler = cacheEvictionHandler;
+    this.evictionGenerations = evictionGenerations;
+    this.cacheKeyCodecs = cacheKeyCodecs;
     this.eventHandler = eventHandler;
     this.projectListUpdateHandler = projectListUpdateHandler;
     this.metricRegistry = metricRegistry;
@@ -104,15 +114,54 @@ public class CommandProcessorImpl implements CommandProcessor {
 
       } else if (cmd instanceof EvictCache) {
         EvictCache evictCommand = (EvictCache) cmd;
-        cacheEvictionHandler.evict(
-            CacheEntry.from(evictCommand.getCacheName(), evictCommand.getKeyJson()));
+        if (evictionGenerations.isApplied(evictCommand)) {
+          log.atFine().log(
+              "Cache eviction %s %s of generation %d already applied",
+              evictCommand.getCacheName(),
+              evictCommand.getKeyJson(),
+              evictCommand.getGeneration());
+        } else {
+          String cacheName = evictCommand.getCacheName();
+          cacheEvictionHandler.evict(
+              CacheEntry.from(
+                  cacheName, cacheKeyCodecs.decode(cacheName, evictCommand.getKeyJson())));
+          evictionGenerations.markApplied(evictCommand);
+          log.atFine().log(
+              "Cache eviction %s %s done", evictCommand.getCacheName(), evictCommand.getKeyJson());
+        }
+
+      } else if (cmd instanceof EvictCacheBatch) {
+        EvictCacheBatch evictCommand = (EvictCacheBatch) cmd;
+        String cacheName = evictCommand.getCacheName();
+        String origin = evictCommand.getOrigin();
+        long generation = evictCommand.getGeneration();
+        List<String> keysJson = new ArrayList<>(evictCommand.getKeysJson().size());
+        List<Object> keys = new ArrayList<>(evictCommand.getKeysJson().size());
+        for (String keyJson : evictCommand.getKeysJson()) {
+          if (!evictionGenerations.isApplied(origin, generation, cacheName, keyJson)) {
+            keysJson.add(keyJson);
+            keys.add(cacheKeyCodecs.decode(cacheName, keyJson));
+          }
+        }
+        // All already applied: nothing to evict, project_list would be wiped whatever the keys
+        if (!keys.isEmpty()) {
+          cacheEvictionHandler.evictAll(cacheName, keys);
+          keysJson.forEach(k -> evictionGenerations.markApplied(origin, generation, cacheName, k));
+        }
         log.atFine().log(
-            "Cache eviction %s %s done", evictCommand.getCacheName(), evictCommand.getKeyJson());
+            "Cache eviction %s of %d keys done, %d already applied",
+            cacheName, keys.size(), evictCommand.getKeysJson().size() - keys.size());
 
       } else if (cmd instanceof PostEvent) {
         Event event = ((PostEvent) cmd).getEvent();
-        eventHandler.dispatch(event);
+        eventHandler.dispatch(((PostEvent) cmd).getSequencedEvent());
         log.atFine().log("Dispatching event %s done", event);
+      } else if (cmd instanceof PostEventBatch) {
+        List<SequencedEvent> events = ((PostEventBatch) cmd).getEvents();
+        for (SequencedEvent event : events) {
+          eventHandler.dispatch(event);
+        }
+        log.atFine().log("Dispatching %d events done", events.size());
       } else if (cmd instanceof AddToProjectList) {
         String projectName = ((AddToProjectList) cmd).getProjectName();
         projectListUpdateHandler.update(projectName, false);
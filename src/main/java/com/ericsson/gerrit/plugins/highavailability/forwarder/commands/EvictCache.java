@@ -15,6 +15,7 @@
 package com.ericsson.gerrit.plugins.highavailability.forwarder.commands;
 
 import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
+import com.google.gerrit.common.Nullable;
 import java.time.Instant;
 
 public class EvictCache extends Command {
@@ -22,11 +23,29 @@ public class EvictCache extends Command {
 
   private final String cacheName;
   private final String keyJson;
+  // Not sent by older versions of the plugin
+  @Nullable private final String origin;
+  private final long generation;
 
   public EvictCache(String cacheName, String keyJson, Instant eventCreatedOn) {
+    this(cacheName, keyJson, null, 0, eventCreatedOn);
+  }
+
+  /**
+   * @param origin identifier of the sending node, changing at each start
+   * @param generation generation of the eviction, increasing for the lifetime of the origin
+   */
+  public EvictCache(
+      String cacheName,
+      String keyJson,
+      @Nullable String origin,
+      long generation,
+      Instant eventCreatedOn) {
     super(TYPE, eventCreatedOn);
     this.cacheName = cacheName;
     this.keyJson = keyJson;
+    this.origin = origin;
+    this.generation = generation;
   }
 
   public String getCacheName() {
@@ -36,4 +55,13 @@ public class EvictCache extends Command {
   public String getKeyJson() {
     return keyJson;
   }
+
+  @Nullable
+  public String getOrigin() {
+    return origin;
+  }
+
+  public long getGeneration() {
+    return generation;
+  }
 }
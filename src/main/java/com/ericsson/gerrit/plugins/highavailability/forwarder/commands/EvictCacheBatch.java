@@ -0,0 +1,69 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.commands;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
+import com.google.gerrit.common.Nullable;
+import java.time.Instant;
+import java.util.List;
+
+public class EvictCacheBatch extends Command {
+  public static final EventType TYPE = EventType.CACHE_EVICTION_BATCH;
+
+  private final String cacheName;
+  private final List<String> keysJson;
+  // Not sent by older versions of the plugin
+  @Nullable private final String origin;
+  private final long generation;
+
+  public EvictCacheBatch(String cacheName, List<String> keysJson, Instant eventCreatedOn) {
+    this(cacheName, keysJson, null, 0, eventCreatedOn);
+  }
+
+  /**
+   * @param origin identifier of the sending node, changing at each start
+   * @param generation generation of the eviction of all the keys, increasing for the lifetime of
+   *     the origin
+   */
+  public EvictCacheBatch(
+      String cacheName,
+      List<String> keysJson,
+      @Nullable String origin,
+      long generation,
+      Instant eventCreatedOn) {
+    super(TYPE, eventCreatedOn);
+    this.cacheName = cacheName;
+    this.keysJson = keysJson;
+    this.origin = origin;
+    this.generation = generation;
+  }
+
+  public String getCacheName() {
+    return cacheName;
+  }
+
+  public List<String> getKeysJson() {
+    return keysJson;
+  }
+
+  @Nullable
+  public String getOrigin() {
+    return origin;
+  }
+
+  public long getGeneration() {
+    return generation;
+  }
+}
@@ -15,6 +15,8 @@
 package com.ericsson.gerrit.plugins.highavailability.forwarder.commands;
 
 import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.google.gerrit.common.Nullable;
 import com.google.gerrit.server.events.Event;
 import java.time.Instant;
 
@@ -22,13 +24,26 @@ public class PostEvent extends Command {
   static final EventType TYPE = EventType.EVENT_SENT;
 
   private final Event event;
+  @Nullable private final String origin;
+  private final long sequence;
 
   public PostEvent(Event event, Instant eventCreatedOn) {
+    this(SequencedEvent.unsequenced(event), eventCreatedOn);
+  }
+
+  public PostEvent(SequencedEvent event, Instant eventCreatedOn) {
     super(TYPE, eventCreatedOn);
-    this.event = event;
+    this.event = event.getEvent();
+    this.origin = event.getOrigin();
+    this.sequence = event.getSequence();
   }
 
   public Event getEvent() {
     return event;
   }
+
+  /** Peers running an older version of the plugin do not send the position of the event. */
+  public SequencedEvent getSequencedEvent() {
+    return new SequencedEvent(event, origin, sequence);
+  }
 }
@@ -0,0 +1,35 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.commands;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import java.time.Instant;
+import java.util.List;
+
+public class PostEventBatch extends Command {
+  static final EventType TYPE = EventType.EVENT_BATCH_SENT;
+
+  private final List<SequencedEvent> events;
+
+  public PostEventBatch(List<SequencedEvent> events, Instant eventCreatedOn) {
+    super(TYPE, eventCreatedOn);
+    this.events = events;
+  }
+
+  public List<SequencedEvent> getEvents() {
+    return events;
+  }
+}
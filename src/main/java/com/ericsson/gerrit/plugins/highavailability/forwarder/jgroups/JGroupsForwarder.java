@@ -16,32 +16,36 @@ package com.ericsson.gerrit.plugins.highavailability.forwarder.jgroups;
 
 import com.ericsson.gerrit.plugins.highavailability.Configuration;
 import com.ericsson.gerrit.plugins.highavailability.Configuration.JGroups;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderMetricsRegistry;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.IndexEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.AddToProjectList;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CacheEvictionGenerations;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.Command;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CommandsGson;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.DeleteAllProjectChangesFromIndex;
-import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.EvictCache;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.IndexAccount;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.IndexChange;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.IndexGroup;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.IndexProject;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.PostEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.PostEventBatch;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.RemoveFromProjectList;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.entities.Project;
-import com.google.gerrit.server.events.Event;
 import com.google.gson.Gson;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import dev.failsafe.FailsafeExecutor;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import org.jgroups.Address;
 import org.jgroups.ObjectMessage;
 import org.jgroups.blocks.MessageDispatcher;
@@ -59,6 +63,8 @@ public class JGroupsForwarder implements Forwarder {
   private final Gson gson;
   private final FailsafeExecutor<Result> executor;
   private final ForwarderMetricsRegistry metricsRegistry;
+  private final CacheEvictionGenerations evictionGenerations;
+  private final CacheKeyCodecs cacheKeyCodecs;
 
   @Inject
   JGroupsForwarder(
@@ -66,13 +72,17 @@ public class JGroupsForwarder implements Forwarder {
       Configuration cfg,
       @CommandsGson Gson gson,
       @JGroupsForwarderExecutor FailsafeExecutor<Result> executor,
-      ForwarderMetricsRegistry metricsRegistry) {
+      ForwarderMetricsRegistry metricsRegistry,
+      CacheEvictionGenerations evictionGenerations,
+      CacheKeyCodecs cacheKeyCodecs) {
     this.dispatcher = dispatcher;
     this.jgroupsConfig = cfg.jgroups();
     this.gson = gson;
     this.executor = executor;
 
     this.metricsRegistry = metricsRegistry;
+    this.evictionGenerations = evictionGenerations;
+    this.cacheKeyCodecs = cacheKeyCodecs;
     this.executor.onComplete(
         ev -> {
           this.metricsRegistry.get(ev.getResult().type()).recordRetries(ev.getAttemptCount());
@@ -113,13 +123,29 @@ public class JGroupsForwarder implements Forwarder {
   }
 
   @Override
-  public CompletableFuture<Result> send(Event event) {
-    return execute(new PostEvent(event, Instant.ofEpochSecond(event.eventCreatedOn)));
+  public CompletableFuture<Result> send(SequencedEvent event) {
+    return execute(new PostEvent(event, Instant.ofEpochSecond(event.getEvent().eventCreatedOn)));
+  }
+
+  @Override
+  public CompletableFuture<Result> sendAll(List<SequencedEvent> events) {
+    Instant createdOn = Instant.ofEpochSecond(events.get(0).getEvent().eventCreatedOn);
+    return execute(new PostEventBatch(events, createdOn));
   }
 
   @Override
   public CompletableFuture<Result> evict(String cacheName, Object key) {
-    return execute(new EvictCache(cacheName, gson.toJson(key), Instant.now()));
+    return execute(
+        evictionGenerations.newEviction(cacheName, cacheKeyCodecs.encode(cacheName, key)));
+  }
+
+  @Override
+  public CompletableFuture<Result> evictAll(String cacheName, Collection<?> keys) {
+    List<String> keysJson =
+        keys.stream()
+            .map(key -> cacheKeyCodecs.encode(cacheName, key))
+            .collect(Collectors.toList());
+    return execute(evictionGenerations.newBatchEviction(cacheName, keysJson));
   }
 
   @Override
@@ -0,0 +1,100 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
+
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheNotFoundException;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedCacheEvictionHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CacheEvictionGenerations;
+import com.google.common.base.Splitter;
+import com.google.common.io.CharStreams;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/** Evicts several entries of a cache at once, the keys being posted as a JSON array. */
+@Singleton
+class CacheBatchRestApiServlet extends AbstractRestApiServlet {
+  private static final int CACHENAME_INDEX = 1;
+  private static final long serialVersionUID = -1L;
+
+  private final ForwardedCacheEvictionHandler forwardedCacheEvictionHandler;
+  private final CacheKeyCodecs cacheKeyCodecs;
+  private final CacheEvictionGenerations evictionGenerations;
+
+  @Inject
+  CacheBatchRestApiServlet(
+      ForwardedCacheEvictionHandler forwardedCacheEvictionHandler,
+      CacheKeyCodecs cacheKeyCodecs,
+      CacheEvictionGenerations evictionGenerations,
+      ProcessorMetricsRegistry metricRegistry) {
+    super(metricRegistry, EventType.CACHE_EVICTION_BATCH, null);
+    this.forwardedCacheEvictionHandler = forwardedCacheEvictionHandler;
+    this.cacheKeyCodecs = cacheKeyCodecs;
+    this.evictionGenerations = evictionGenerations;
+  }
+
+  @Override
+  protected boolean processPostRequest(HttpServletRequest req, HttpServletResponse rsp) {
+    setHeaders(rsp);
+    try {
+      List<String> params = Splitter.on('/').splitToList(req.getPathInfo());
+      String cacheName = params.get(CACHENAME_INDEX);
+      JsonArray keysJson =
+          JsonParser.parseString(CharStreams.toString(req.getReader())).getAsJsonArray();
+      CacheEvictionHeaders eviction = CacheEvictionHeaders.from(req);
+      List<String> evictedKeysJson = new ArrayList<>(keysJson.size());
+      List<Object> keys = new ArrayList<>(keysJson.size());
+      for (JsonElement keyElement : keysJson) {
+        String keyJson = keyElement.toString();
+        if (!evictionGenerations.isApplied(
+            eviction.origin(), eviction.generation(), cacheName, keyJson)) {
+          evictedKeysJson.add(keyJson);
+          keys.add(cacheKeyCodecs.decode(cacheName, keyJson));
+        }
+      }
+      // All already applied: nothing to evict, project_list would be wiped whatever the keys
+      if (!keys.isEmpty()) {
+        forwardedCacheEvictionHandler.evictAll(cacheName, keys);
+        for (String keyJson : evictedKeysJson) {
+          evictionGenerations.markApplied(
+              eviction.origin(), eviction.generation(), cacheName, keyJson);
+        }
+      }
+      rsp.setStatus(SC_NO_CONTENT);
+      return true;
+    } catch (CacheNotFoundException e) {
+      log.atSevere().log("Failed to process eviction request: %s", e.getMessage());
+      sendError(rsp, SC_BAD_REQUEST, e.getMessage());
+    } catch (IOException | JsonParseException | IllegalStateException | NumberFormatException e) {
+      log.atSevere().withCause(e).log("Failed to process eviction request");
+      sendError(rsp, SC_BAD_REQUEST, e.getMessage());
+    }
+    return false;
+  }
+}
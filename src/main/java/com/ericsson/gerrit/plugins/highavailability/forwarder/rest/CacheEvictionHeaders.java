@@ -0,0 +1,42 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
+
+import com.google.gerrit.common.Nullable;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Origin and generation of a cache eviction, sent as headers so that the body stays readable by
+ * peers running an older version of the plugin.
+ *
+ * @param origin identifier of the sending node, {@code null} if not sent by an older version
+ * @param generation generation of the eviction, {@code 0} if not sent
+ */
+record CacheEvictionHeaders(@Nullable String origin, long generation) {
+
+  /**
+   * Reads the origin and generation of the eviction.
+   *
+   * @throws NumberFormatException if the generation is malformed
+   */
+  static CacheEvictionHeaders from(HttpServletRequest req) {
+    String origin = req.getHeader(HttpSession.HEADER_CACHE_EVICTION_ORIGIN);
+    String generation = req.getHeader(HttpSession.HEADER_CACHE_EVICTION_GENERATION);
+    if (origin == null || generation == null) {
+      return new CacheEvictionHeaders(null, 0);
+    }
+    return new CacheEvictionHeaders(origin, Long.parseLong(generation));
+  }
+}
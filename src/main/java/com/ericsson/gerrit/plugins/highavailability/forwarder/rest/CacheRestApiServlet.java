@@ -18,11 +18,14 @@ import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
 
 import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheEntry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheNotFoundException;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedCacheEvictionHandler;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CacheEvictionGenerations;
 import com.google.common.base.Splitter;
+import com.google.gson.JsonParseException;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.io.IOException;
@@ -36,16 +39,19 @@ class CacheRestApiServlet extends AbstractRestApiServlet {
   private static final long serialVersionUID = -1L;
 
   private final ForwardedCacheEvictionHandler forwardedCacheEvictionHandler;
-  private final CacheKeyJsonParser cacheKeyParser;
+  private final CacheKeyCodecs cacheKeyCodecs;
+  private final CacheEvictionGenerations evictionGenerations;
 
   @Inject
   CacheRestApiServlet(
       ForwardedCacheEvictionHandler forwardedCacheEvictionHandler,
-      CacheKeyJsonParser cacheKeyParser,
+      CacheKeyCodecs cacheKeyCodecs,
+      CacheEvictionGenerations evictionGenerations,
       ProcessorMetricsRegistry metricRegistry) {
     super(metricRegistry, EventType.CACHE_EVICTION, null);
     this.forwardedCacheEvictionHandler = forwardedCacheEvictionHandler;
-    this.cacheKeyParser = cacheKeyParser;
+    this.cacheKeyCodecs = cacheKeyCodecs;
+    this.evictionGenerations = evictionGenerations;
   }
 
   @Override
@@ -55,14 +61,24 @@ class CacheRestApiServlet extends AbstractRestApiServlet {
       List<String> params = Splitter.on('/').splitToList(req.getPathInfo());
       String cacheName = params.get(CACHENAME_INDEX);
       String json = req.getReader().readLine();
-      forwardedCacheEvictionHandler.evict(
-          CacheEntry.from(cacheName, cacheKeyParser.fromJson(cacheName, json)));
+      CacheEvictionHeaders eviction = CacheEvictionHeaders.from(req);
+      if (evictionGenerations.isApplied(
+          eviction.origin(), eviction.generation(), cacheName, json)) {
+        log.atFine().log(
+            "Cache eviction %s %s of generation %d already applied",
+            cacheName, json, eviction.generation());
+      } else {
+        forwardedCacheEvictionHandler.evict(
+            CacheEntry.from(cacheName, cacheKeyCodecs.decode(cacheName, json)));
+        evictionGenerations.markApplied(
+            eviction.origin(), eviction.generation(), cacheName, json);
+      }
       rsp.setStatus(SC_NO_CONTENT);
       return true;
     } catch (CacheNotFoundException e) {
       log.atSevere().log("Failed to process eviction request: %s", e.getMessage());
       sendError(rsp, SC_BAD_REQUEST, e.getMessage());
-    } catch (IOException e) {
+    } catch (IOException | JsonParseException | NumberFormatException e) {
       log.atSevere().withCause(e).log("Failed to process eviction request");
       sendError(rsp, SC_BAD_REQUEST, e.getMessage());
     }
@@ -0,0 +1,94 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
+
+import static com.google.common.net.MediaType.JSON_UTF_8;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
+import static javax.servlet.http.HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedEventHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.google.common.net.MediaType;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Dispatches several stream events at once, in the order they are posted as a JSON array of
+ * events along with their position in the sequence of their project, optionally gzip-compressed.
+ */
+@Singleton
+class EventBatchRestApiServlet extends AbstractRestApiServlet {
+  private static final long serialVersionUID = -1L;
+  private static final String GZIP = "gzip";
+
+  private final ForwardedEventHandler forwardedEventHandler;
+  private final Gson gson;
+
+  @Inject
+  EventBatchRestApiServlet(
+      ForwardedEventHandler forwardedEventHandler,
+      @RestGson Gson gson,
+      ProcessorMetricsRegistry metricRegistry) {
+    super(metricRegistry, EventType.EVENT_BATCH_SENT, null);
+    this.forwardedEventHandler = forwardedEventHandler;
+    this.gson = gson;
+  }
+
+  @Override
+  protected boolean processPostRequest(HttpServletRequest req, HttpServletResponse rsp) {
+    try {
+      if (!MediaType.parse(req.getContentType()).is(JSON_UTF_8)) {
+        sendError(rsp, SC_UNSUPPORTED_MEDIA_TYPE, "Expecting " + JSON_UTF_8 + " content type");
+        return false;
+      }
+      SequencedEvent[] events;
+      try (Reader reader = getReader(req)) {
+        events = gson.fromJson(reader, SequencedEvent[].class);
+      }
+      if (events == null) {
+        sendError(rsp, SC_BAD_REQUEST, "Expecting a JSON array of events");
+        return false;
+      }
+      rsp.setStatus(SC_NO_CONTENT);
+      for (SequencedEvent event : events) {
+        forwardedEventHandler.dispatch(event);
+      }
+      return true;
+    } catch (IOException | JsonParseException e) {
+      log.atSevere().withCause(e).log("Failed to process event batch");
+      sendError(rsp, SC_BAD_REQUEST, e.getMessage());
+      return false;
+    }
+  }
+
+  private static Reader getReader(HttpServletRequest req) throws IOException {
+    if (GZIP.equalsIgnoreCase(req.getHeader("Content-Encoding"))) {
+      return new InputStreamReader(new GZIPInputStream(req.getInputStream()), UTF_8);
+    }
+    return req.getReader();
+  }
+}
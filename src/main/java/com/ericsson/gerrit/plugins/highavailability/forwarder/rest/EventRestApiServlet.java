@@ -22,6 +22,7 @@ import static javax.servlet.http.HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedEventHandler;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
 import com.google.common.io.CharStreams;
 import com.google.common.net.MediaType;
 import com.google.gerrit.server.events.Event;
@@ -58,9 +59,9 @@ class EventRestApiServlet extends AbstractRestApiServlet {
       }
       Event event = getEventFromRequest(req);
       rsp.setStatus(SC_NO_CONTENT);
-      forwardedEventHandler.dispatch(event);
+      forwardedEventHandler.dispatch(getSequencedEvent(req, event));
       return true;
-    } catch (IOException e) {
+    } catch (IOException | NumberFormatException e) {
       sendError(rsp, SC_BAD_REQUEST, e.getMessage());
       return false;
     }
@@ -70,4 +71,20 @@ class EventRestApiServlet extends AbstractRestApiServlet {
     String jsonEvent = CharStreams.toString(req.getReader());
     return gson.fromJson(jsonEvent, Event.class);
   }
+
+  /** Peers running an older version of the plugin do not send the position of the event. */
+  private static SequencedEvent getSequencedEvent(HttpServletRequest req, Event event) {
+    String origin = req.getHeader(HttpSession.HEADER_EVENT_ORIGIN);
+    String sequence = req.getHeader(HttpSession.HEADER_EVENT_SEQUENCE);
+    SequencedEvent sequencedEvent =
+        origin == null || sequence == null
+            ? SequencedEvent.unsequenced(event)
+            : new SequencedEvent(event, origin, Long.parseLong(sequence));
+    String journal = req.getHeader(HttpSession.HEADER_EVENT_JOURNAL);
+    String position = req.getHeader(HttpSession.HEADER_EVENT_JOURNAL_POSITION);
+    if (journal == null || position == null) {
+      return sequencedEvent;
+    }
+    return sequencedEvent.journaled(journal, Long.parseLong(position));
+  }
 }
@@ -22,6 +22,8 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Map;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpPost;
@@ -30,6 +32,12 @@ import org.apache.http.impl.client.CloseableHttpClient;
 
 class HttpSession {
   public static final String HEADER_EVENT_CREATED_ON = "Event-Created-On";
+  public static final String HEADER_EVENT_ORIGIN = "Event-Origin";
+  public static final String HEADER_EVENT_SEQUENCE = "Event-Sequence";
+  public static final String HEADER_EVENT_JOURNAL = "Event-Journal";
+  public static final String HEADER_EVENT_JOURNAL_POSITION = "Event-Journal-Position";
+  public static final String HEADER_CACHE_EVICTION_ORIGIN = "Cache-Eviction-Origin";
+  public static final String HEADER_CACHE_EVICTION_GENERATION = "Cache-Eviction-Generation";
 
   private final CloseableHttpClient httpClient;
   private final Gson gson;
@@ -50,6 +58,22 @@ class HttpSession {
     return httpClient.execute(post, new HttpResponseHandler());
   }
 
+  HttpResult post(String uri, Object content, Instant createdOn, Map<String, String> headers)
+      throws IOException {
+    HttpPost post = new HttpPost(uri);
+    setContent(post, content, createdOn);
+    headers.forEach(post::addHeader);
+    return httpClient.execute(post, new HttpResponseHandler());
+  }
+
+  /** Posts the content gzip-compressed, with a {@code Content-Encoding: gzip} header. */
+  HttpResult postCompressed(String uri, Object content, Instant createdOn) throws IOException {
+    HttpPost post = new HttpPost(uri);
+    setContent(post, content, createdOn);
+    post.setEntity(new GzipCompressingEntity(post.getEntity()));
+    return httpClient.execute(post, new HttpResponseHandler());
+  }
+
   HttpResult delete(String uri, Instant createdOn) throws IOException {
     return delete(uri, null, createdOn);
   }
@@ -0,0 +1,66 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
+
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+import com.ericsson.gerrit.plugins.highavailability.indexsync.ChangeDeletionJournal;
+import com.google.gson.Gson;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.io.PrintWriter;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Lists the changes deleted from the local index strictly after a journal timestamp, expressed in
+ * milliseconds since the epoch.
+ */
+@Singleton
+public class QueryChangesDeletedAfterServlet extends HttpServlet {
+  private static final long serialVersionUID = 1L;
+
+  Gson gson = new Gson();
+
+  private final ChangeDeletionJournal deletionJournal;
+
+  @Inject
+  QueryChangesDeletedAfterServlet(ChangeDeletionJournal deletionJournal) {
+    this.deletionJournal = deletionJournal;
+  }
+
+  @Override
+  protected void doGet(HttpServletRequest req, HttpServletResponse rsp) throws IOException {
+    long after;
+    try {
+      after = Long.parseLong(req.getPathInfo().substring(1));
+    } catch (NumberFormatException e) {
+      rsp.setStatus(SC_BAD_REQUEST);
+      return;
+    }
+
+    String json = gson.toJson(deletionJournal.deletedAfter(after));
+    rsp.setStatus(SC_OK);
+    rsp.setContentType("application/json");
+    rsp.setCharacterEncoding("UTF-8");
+    PrintWriter out = rsp.getWriter();
+    out.print(json);
+    out.print("\n");
+    out.flush();
+  }
+}
@@ -0,0 +1,48 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
+
+import com.ericsson.gerrit.plugins.highavailability.indexsync.UpdatedChange;
+import com.google.gerrit.index.query.Predicate;
+import com.google.gerrit.index.query.QueryParseException;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.ChangeQueryBuilder;
+import com.google.gerrit.server.query.change.ChangeQueryProcessor;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.time.Instant;
+
+/**
+ * Lists the changes updated at or after a timestamp, expressed in milliseconds since the epoch.
+ * Used by the periodic index sync to only fetch the changes past the cursor of each peer.
+ */
+@Singleton
+public class QueryChangesUpdatedAfterServlet extends AbstractQueryChangesServlet {
+  private static final long serialVersionUID = 1L;
+
+  @Inject
+  QueryChangesUpdatedAfterServlet(
+      ChangeQueryBuilder changeQueryBuilder,
+      Provider<ChangeQueryProcessor> queryProcessorProvider) {
+    super(changeQueryBuilder, queryProcessorProvider);
+  }
+
+  @Override
+  protected Predicate<ChangeData> predicate(String epochMillis) throws QueryParseException {
+    Instant after = Instant.ofEpochMilli(Long.parseLong(epochMillis));
+    return changeQueryBuilder.after(UpdatedChange.queryTimestamp(after));
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
+
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+import com.ericsson.gerrit.plugins.highavailability.event.EventJournal;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.gson.stream.JsonWriter;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Reads the event journal of this node: {@code /query/events.after/} returns its id and range of
+ * positions, {@code /query/events.after/<journal>/<position>} also returns the events journaled
+ * strictly after the position, at most {@link #MAX_EVENTS} at a time. No events are returned when
+ * the journal is not the one currently written, e.g. because it was lost and started over.
+ */
+@Singleton
+public class QueryEventsAfterServlet extends HttpServlet {
+  private static final long serialVersionUID = 1L;
+  static final int MAX_EVENTS = 1000;
+
+  private final EventJournal journal;
+
+  @Inject
+  QueryEventsAfterServlet(EventJournal journal) {
+    this.journal = journal;
+  }
+
+  @Override
+  protected void doGet(HttpServletRequest req, HttpServletResponse rsp) throws IOException {
+    Optional<EventJournal.Info> info = journal.info();
+    if (info.isEmpty()) {
+      rsp.setStatus(SC_NOT_FOUND);
+      return;
+    }
+
+    List<String> events = List.of();
+    String path = Strings.nullToEmpty(req.getPathInfo());
+    if (path.length() > 1) {
+      List<String> args = Splitter.on('/').splitToList(path.substring(1));
+      long after;
+      try {
+        if (args.size() != 2) {
+          throw new IllegalArgumentException("Expected <journal>/<position>");
+        }
+        after = Long.parseLong(args.get(1));
+      } catch (IllegalArgumentException e) {
+        rsp.setStatus(SC_BAD_REQUEST);
+        return;
+      }
+      if (args.get(0).equals(info.get().id())) {
+        events = journal.readAfter(after, MAX_EVENTS);
+      }
+    }
+
+    rsp.setStatus(SC_OK);
+    rsp.setContentType("application/json");
+    rsp.setCharacterEncoding("UTF-8");
+    JsonWriter out = new JsonWriter(rsp.getWriter());
+    out.beginObject();
+    out.name("journal").value(info.get().id());
+    out.name("first").value(info.get().first());
+    out.name("last").value(info.get().last());
+    out.name("events").beginArray();
+    for (String event : events) {
+      // Journaled as JSON already
+      out.jsonValue(event);
+    }
+    out.endArray();
+    out.endObject();
+    out.flush();
+  }
+}
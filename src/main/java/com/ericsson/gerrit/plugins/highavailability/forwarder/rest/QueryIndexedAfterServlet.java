@@ -0,0 +1,87 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
+
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.QueryIndexedEntitiesResponseHandler.HEADER_JOURNAL_RETAINED_SINCE;
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+import com.ericsson.gerrit.plugins.highavailability.indexsync.EntityIndexJournal;
+import com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind;
+import com.google.common.base.Splitter;
+import com.google.gson.Gson;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Lists the accounts, groups or projects indexed locally strictly after a journal timestamp,
+ * expressed in milliseconds since the epoch: {@code /query/indexed.after/<kind>/<timestamp>} where
+ * kind is one of {@code accounts}, {@code groups} or {@code projects}.
+ *
+ * <p>The position after which the journal is complete is returned in the {@code
+ * Index-Journal-Retained-Since} header, for peers to detect the entities they missed.
+ */
+@Singleton
+public class QueryIndexedAfterServlet extends HttpServlet {
+  private static final long serialVersionUID = 1L;
+
+  Gson gson = new Gson();
+
+  private final EntityIndexJournal journal;
+
+  @Inject
+  QueryIndexedAfterServlet(EntityIndexJournal journal) {
+    this.journal = journal;
+  }
+
+  @Override
+  protected void doGet(HttpServletRequest req, HttpServletResponse rsp) throws IOException {
+    List<String> args = Splitter.on('/').splitToList(req.getPathInfo().substring(1));
+    Kind kind;
+    long after;
+    try {
+      if (args.size() != 2) {
+        throw new IllegalArgumentException("Expected <kind>/<timestamp>");
+      }
+      kind = Kind.valueOf(args.get(0).toUpperCase(Locale.US));
+      if (!EntityIndexJournal.KINDS.contains(kind)) {
+        throw new IllegalArgumentException("Unsupported kind " + kind);
+      }
+      after = Long.parseLong(args.get(1));
+    } catch (IllegalArgumentException e) {
+      rsp.setStatus(SC_BAD_REQUEST);
+      return;
+    }
+
+    String json = gson.toJson(journal.indexedAfter(kind, after));
+    // Read after the entries: an overflow in between is reported as a gap, never missed
+    long retainedSince = journal.retainedSince(kind);
+    rsp.setStatus(SC_OK);
+    rsp.setHeader(HEADER_JOURNAL_RETAINED_SINCE, Long.toString(retainedSince));
+    rsp.setContentType("application/json");
+    rsp.setCharacterEncoding("UTF-8");
+    PrintWriter out = rsp.getWriter();
+    out.print(json);
+    out.print("\n");
+    out.flush();
+  }
+}
@@ -16,28 +16,37 @@ package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
 
 import com.ericsson.gerrit.plugins.highavailability.Configuration;
 import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderMetricsRegistry;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.IndexEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CacheEvictionGenerations;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.EvictCache;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.EvictCacheBatch;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.HttpResponseHandler.HttpResult;
 import com.ericsson.gerrit.plugins.highavailability.peers.PeerInfo;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.extensions.annotations.PluginName;
 import com.google.gerrit.extensions.restapi.Url;
 import com.google.gerrit.server.events.Event;
-import com.google.gson.Gson;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import dev.failsafe.FailsafeExecutor;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import javax.net.ssl.SSLException;
 import org.apache.http.HttpException;
 import org.apache.http.client.ClientProtocolException;
@@ -45,6 +54,7 @@ import org.apache.http.client.ClientProtocolException;
 public class RestForwarder implements Forwarder {
   enum RequestMethod {
     POST,
+    POST_COMPRESSED,
     DELETE
   }
 
@@ -56,9 +66,10 @@ public class RestForwarder implements Forwarder {
   private final String pluginRelativePath;
   private final Configuration cfg;
   private final Provider<Set<PeerInfo>> peerInfoProvider;
-  private final Gson gson;
   private FailsafeExecutor<Result> executor;
   private final ForwarderMetricsRegistry metricsRegistry;
+  private final CacheKeyCodecs cacheKeyCodecs;
+  private final CacheEvictionGenerations evictionGenerations;
 
   @Inject
   RestForwarder(
@@ -66,16 +77,18 @@ public class RestForwarder implements Forwarder {
       @PluginName String pluginName,
       Configuration cfg,
       Provider<Set<PeerInfo>> peerInfoProvider,
-      @RestGson Gson gson,
       @RestForwarderExecutor FailsafeExecutor<Result> executor,
-      ForwarderMetricsRegistry metricsRegistry) {
+      ForwarderMetricsRegistry metricsRegistry,
+      CacheKeyCodecs cacheKeyCodecs,
+      CacheEvictionGenerations evictionGenerations) {
     this.httpSession = httpClient;
     this.pluginRelativePath = Joiner.on("/").join("plugins", pluginName);
     this.cfg = cfg;
     this.peerInfoProvider = peerInfoProvider;
-    this.gson = gson;
     this.executor = executor;
     this.metricsRegistry = metricsRegistry;
+    this.cacheKeyCodecs = cacheKeyCodecs;
+    this.evictionGenerations = evictionGenerations;
     this.executor.onComplete(
         ev -> {
           this.metricsRegistry.get(ev.getResult().type()).recordRetries(ev.getAttemptCount());
@@ -168,7 +181,8 @@ public class RestForwarder implements Forwarder {
   }
 
   @Override
-  public CompletableFuture<Result> send(final Event event) {
+  public CompletableFuture<Result> send(SequencedEvent sequencedEvent) {
+    Event event = sequencedEvent.getEvent();
     return execute(
         RequestMethod.POST,
         EventType.EVENT_SENT,
@@ -176,20 +190,76 @@ public class RestForwarder implements Forwarder {
         "event",
         event.type,
         event,
+        positionHeaders(sequencedEvent),
         Instant.ofEpochSecond(event.eventCreatedOn));
   }
 
+  @Override
+  public CompletableFuture<Result> sendAll(List<SequencedEvent> events) {
+    return execute(
+        RequestMethod.POST_COMPRESSED,
+        EventType.EVENT_BATCH_SENT,
+        "send events",
+        "event/batch",
+        events.size(),
+        events,
+        Instant.ofEpochSecond(events.get(0).getEvent().eventCreatedOn));
+  }
+
+  private static Map<String, String> positionHeaders(SequencedEvent event) {
+    ImmutableMap.Builder<String, String> headers = ImmutableMap.builder();
+    if (event.isSequenced()) {
+      headers.put(HttpSession.HEADER_EVENT_ORIGIN, event.getOrigin());
+      headers.put(HttpSession.HEADER_EVENT_SEQUENCE, String.valueOf(event.getSequence()));
+    }
+    if (event.isJournaled()) {
+      headers.put(HttpSession.HEADER_EVENT_JOURNAL, event.getJournal());
+      headers.put(
+          HttpSession.HEADER_EVENT_JOURNAL_POSITION, String.valueOf(event.getJournalPosition()));
+    }
+    return headers.build();
+  }
+
   @Override
   public CompletableFuture<Result> evict(final String cacheName, final Object key) {
-    String json = gson.toJson(key);
+    EvictCache eviction =
+        evictionGenerations.newEviction(cacheName, cacheKeyCodecs.encode(cacheName, key));
     return execute(
         RequestMethod.POST,
         EventType.CACHE_EVICTION,
         "invalidate cache " + cacheName,
         "cache",
         cacheName,
-        json,
-        Instant.now());
+        eviction.getKeyJson(),
+        evictionHeaders(eviction.getOrigin(), eviction.getGeneration()),
+        eviction.eventCreatedOn);
+  }
+
+  @Override
+  public CompletableFuture<Result> evictAll(String cacheName, Collection<?> keys) {
+    EvictCacheBatch eviction =
+        evictionGenerations.newBatchEviction(
+            cacheName,
+            keys.stream()
+                .map(key -> cacheKeyCodecs.encode(cacheName, key))
+                .collect(Collectors.toList()));
+    return execute(
+        RequestMethod.POST,
+        EventType.CACHE_EVICTION_BATCH,
+        "invalidate cache " + cacheName,
+        "cache/batch",
+        cacheName,
+        "[" + String.join(",", eviction.getKeysJson()) + "]",
+        evictionHeaders(eviction.getOrigin(), eviction.getGeneration()),
+        eviction.eventCreatedOn);
+  }
+
+  private static Map<String, String> evictionHeaders(String origin, long generation) {
+    return ImmutableMap.of(
+        HttpSession.HEADER_CACHE_EVICTION_ORIGIN,
+        origin,
+        HttpSession.HEADER_CACHE_EVICTION_GENERATION,
+        String.valueOf(generation));
   }
 
   @Override
@@ -247,11 +317,24 @@ public class RestForwarder implements Forwarder {
       Object id,
       Object payload,
       Instant requestStart) {
+    return execute(method, eventType, action, endpoint, id, payload, Map.of(), requestStart);
+  }
+
+  private CompletableFuture<Result> execute(
+      RequestMethod method,
+      EventType eventType,
+      String action,
+      String endpoint,
+      Object id,
+      Object payload,
+      Map<String, String> headers,
+      Instant requestStart) {
     log.atFine().log("Scheduling forwarding of: %s %s %s", action, id, payload);
     return peerInfoProvider.get().stream()
         .map(
             peer ->
-                createRequest(method, eventType, peer, action, endpoint, id, payload, requestStart))
+                createRequest(
+                    method, eventType, peer, action, endpoint, id, payload, headers, requestStart))
         .map(r -> executor.getAsync(() -> r.execute()))
         .reduce(
             CompletableFuture.completedFuture(new Result(eventType, true)),
@@ -276,6 +359,7 @@ public class RestForwarder implements Forwarder {
       String endpoint,
       Object id,
       Object payload,
+      Map<String, String> headers,
       Instant createdOn) {
     String destination = peer.getDirectUrl();
     return new Request(eventType, action, id, destination) {
@@ -284,7 +368,11 @@ public class RestForwarder implements Forwarder {
         String request = Joiner.on("/").join(destination, pluginRelativePath, endpoint, id);
         switch (method) {
           case POST:
-            return httpSession.post(request, payload, createdOn);
+            return headers.isEmpty()
+                ? httpSession.post(request, payload, createdOn)
+                : httpSession.post(request, payload, createdOn, headers);
+          case POST_COMPRESSED:
+            return httpSession.postCompressed(request, payload, createdOn);
           case DELETE:
           default:
             return httpSession.delete(request, createdOn);
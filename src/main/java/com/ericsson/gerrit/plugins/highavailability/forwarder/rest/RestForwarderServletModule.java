@@ -34,13 +34,21 @@ public class RestForwarderServletModule extends ServletModule {
       serveRegex("/index/project/.*$").with(IndexProjectRestApiServlet.class);
       if (config.indexSync().enabled()) {
         serve("/query/changes.updated.since/*").with(QueryChangesUpdatedSinceServlet.class);
+        serve("/query/changes.updated.after/*").with(QueryChangesUpdatedAfterServlet.class);
+        serve("/query/changes.deleted.after/*").with(QueryChangesDeletedAfterServlet.class);
+        serve("/query/indexed.after/*").with(QueryIndexedAfterServlet.class);
       }
     }
     if (config.event().synchronize()) {
+      serve("/event/batch/*").with(EventBatchRestApiServlet.class);
       serve("/event/*").with(EventRestApiServlet.class);
+      if (config.event().journal()) {
+        serve("/query/events.after/*").with(QueryEventsAfterServlet.class);
+      }
     }
     if (config.cache().synchronize()) {
       serve("/cache/project_list/*").with(ProjectListApiServlet.class);
+      serve("/cache/batch/*").with(CacheBatchRestApiServlet.class);
       serve("/cache/*").with(CacheRestApiServlet.class);
     }
   }
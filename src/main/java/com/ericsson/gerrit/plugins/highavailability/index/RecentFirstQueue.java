@@ -0,0 +1,101 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.index;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Items to reindex, ordered so that the most recently updated ones are reindexed first.
+ *
+ * <p>The {@code capacity} most recent items form the hot set, kept in a bounded min-heap so that
+ * ordering them does not depend on the total number of items. The less recent items pushed out of
+ * the hot set are kept in the order they were pushed out and reindexed after it, up to {@code
+ * maxOverflow} of them: the ones past it are dropped and counted, for the caller to retry them
+ * later.
+ *
+ * <p>Not thread-safe.
+ */
+public class RecentFirstQueue<T> {
+  private record Entry<T>(T item, long lastUpdatedOn) {}
+
+  private static final Comparator<Entry<?>> LEAST_RECENT_FIRST =
+      Comparator.comparingLong(Entry::lastUpdatedOn);
+
+  private final int capacity;
+  private final int maxOverflow;
+  private final PriorityQueue<Entry<T>> hotSet;
+  private final List<T> overflow = new ArrayList<>();
+  private int dropped;
+
+  public RecentFirstQueue(int capacity, int maxOverflow) {
+    this.capacity = Math.max(capacity, 0);
+    this.maxOverflow = Math.max(maxOverflow, 0);
+    this.hotSet = new PriorityQueue<>(Math.max(this.capacity, 1), LEAST_RECENT_FIRST);
+  }
+
+  /**
+   * Adds an item updated at {@code lastUpdatedOn}, in milliseconds since the epoch.
+   *
+   * @return the item dropped because the overflow is full, either this one or the one it pushed out
+   *     of the hot set, if any.
+   */
+  public Optional<T> add(T item, long lastUpdatedOn) {
+    Entry<T> entry = new Entry<>(item, lastUpdatedOn);
+    if (hotSet.size() < capacity) {
+      hotSet.add(entry);
+      return Optional.empty();
+    }
+    T pushedOut = item;
+    if (capacity > 0 && lastUpdatedOn > hotSet.peek().lastUpdatedOn()) {
+      pushedOut = hotSet.poll().item();
+      hotSet.add(entry);
+    }
+    if (overflow.size() >= maxOverflow) {
+      dropped++;
+      return Optional.of(pushedOut);
+    }
+    overflow.add(pushedOut);
+    return Optional.empty();
+  }
+
+  public boolean isEmpty() {
+    return hotSet.isEmpty() && overflow.isEmpty();
+  }
+
+  /** Returns the number of items dropped so far because the overflow was full. */
+  public int dropped() {
+    return dropped;
+  }
+
+  /** Removes and returns the hot set, most recent first. */
+  public ImmutableList<T> drainHotSet() {
+    List<Entry<T>> entries = new ArrayList<>(hotSet);
+    hotSet.clear();
+    entries.sort(LEAST_RECENT_FIRST.reversed());
+    return entries.stream().map(Entry::item).collect(ImmutableList.toImmutableList());
+  }
+
+  /** Removes and returns the items pushed out of the hot set, in the order they were pushed out. */
+  public ImmutableList<T> drainOverflow() {
+    ImmutableList<T> items = ImmutableList.copyOf(overflow);
+    overflow.clear();
+    return items;
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.gerrit.extensions.events.ChangeIndexedListener;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Bounded in-memory journal of the changes deleted from the local index.
+ *
+ * <p>Peers fetch the deletions past their cursor on each index sync run instead of comparing the
+ * full list of changes of both indexes. Deletions dropped from the journal, or lost on restart, are
+ * repaired by the periodic deletion audit of {@link IndexSyncRunner}.
+ */
+@Singleton
+public class ChangeDeletionJournal implements ChangeIndexedListener {
+  private final int maxEntries;
+  private final Deque<DeletedChange> entries = new ArrayDeque<>();
+
+  @Inject
+  ChangeDeletionJournal(Configuration cfg) {
+    this.maxEntries = cfg.indexSync().deletionJournalSize();
+  }
+
+  @Override
+  public void onChangeIndexed(String projectName, int id) {
+    // Only deletions are journaled
+  }
+
+  @Override
+  public synchronized void onChangeDeleted(String projectName, int id) {
+    long deletedOn = System.currentTimeMillis();
+    if (!entries.isEmpty() && deletedOn <= entries.getLast().deletedOn()) {
+      deletedOn = entries.getLast().deletedOn() + 1;
+    }
+    entries.addLast(new DeletedChange(projectName + "~" + id, deletedOn));
+    while (entries.size() > maxEntries) {
+      entries.removeFirst();
+    }
+  }
+
+  /** Returns the deletions journaled strictly after {@code epochMillis}, oldest first. */
+  public synchronized ImmutableList<DeletedChange> deletedAfter(long epochMillis) {
+    List<DeletedChange> newestFirst = new ArrayList<>();
+    for (Iterator<DeletedChange> it = entries.descendingIterator(); it.hasNext(); ) {
+      DeletedChange deleted = it.next();
+      if (deleted.deletedOn() <= epochMillis) {
+        break;
+      }
+      newestFirst.add(deleted);
+    }
+    return ImmutableList.copyOf(Lists.reverse(newestFirst));
+  }
+}
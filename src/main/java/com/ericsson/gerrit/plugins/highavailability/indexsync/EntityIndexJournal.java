@@ -0,0 +1,135 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.ACCOUNTS;
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.GROUPS;
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.PROJECTS;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Context;
+import com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.gerrit.extensions.events.AccountIndexedListener;
+import com.google.gerrit.extensions.events.GroupIndexedListener;
+import com.google.gerrit.extensions.events.ProjectIndexedListener;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded in-memory journals of the accounts, groups and projects indexed on this node.
+ *
+ * <p>Unlike changes, these indexes cannot be queried by last update, so peers fetch the entities
+ * journaled past their cursor on each index sync run and reindex them if stale. Only the indexing
+ * originated on this node is journaled: the forwarded one is journaled by the node it comes from.
+ */
+@Singleton
+public class EntityIndexJournal
+    implements AccountIndexedListener, GroupIndexedListener, ProjectIndexedListener {
+  public static final ImmutableSet<Kind> KINDS = ImmutableSet.of(ACCOUNTS, GROUPS, PROJECTS);
+
+  private final int maxEntries;
+  private final Map<Kind, Deque<IndexedEntity>> journals = new EnumMap<>(Kind.class);
+  private final Map<Kind, Long> retainedSince = new EnumMap<>(Kind.class);
+
+  @Inject
+  EntityIndexJournal(Configuration cfg) {
+    this.maxEntries = cfg.indexSync().entityJournalSize();
+    // Nothing indexed before this node started is journaled
+    long startedOn = System.currentTimeMillis();
+    for (Kind kind : KINDS) {
+      journals.put(kind, new ArrayDeque<>());
+      retainedSince.put(kind, startedOn);
+    }
+  }
+
+  @Override
+  public void onAccountIndexed(int id) {
+    journal(ACCOUNTS, Integer.toString(id));
+  }
+
+  @Override
+  public void onGroupIndexed(String uuid) {
+    journal(GROUPS, uuid);
+  }
+
+  @Override
+  public void onProjectIndexed(String projectName) {
+    journal(PROJECTS, projectName);
+  }
+
+  /**
+   * Returns the entities of {@code kind} journaled strictly after {@code epochMillis}, oldest
+   * first.
+   *
+   * @throws IllegalArgumentException if {@code kind} is not one of {@link #KINDS}.
+   */
+  public synchronized ImmutableList<IndexedEntity> indexedAfter(Kind kind, long epochMillis) {
+    Deque<IndexedEntity> entries = entries(kind);
+    List<IndexedEntity> newestFirst = new ArrayList<>();
+    for (Iterator<IndexedEntity> it = entries.descendingIterator(); it.hasNext(); ) {
+      IndexedEntity indexed = it.next();
+      if (indexed.indexedOn() <= epochMillis) {
+        break;
+      }
+      newestFirst.add(indexed);
+    }
+    return ImmutableList.copyOf(Lists.reverse(newestFirst));
+  }
+
+  /**
+   * Returns the position, in milliseconds since the epoch, after which every entity of {@code kind}
+   * indexed on this node is still journaled: the start of this node or the last entry dropped when
+   * the journal overflowed. A peer whose cursor is older may have missed entities.
+   *
+   * @throws IllegalArgumentException if {@code kind} is not one of {@link #KINDS}.
+   */
+  public synchronized long retainedSince(Kind kind) {
+    entries(kind);
+    return retainedSince.get(kind);
+  }
+
+  private synchronized void journal(Kind kind, String id) {
+    if (Context.isForwardedEvent()) {
+      return;
+    }
+    Deque<IndexedEntity> entries = entries(kind);
+    long indexedOn = System.currentTimeMillis();
+    if (!entries.isEmpty() && indexedOn <= entries.getLast().indexedOn()) {
+      indexedOn = entries.getLast().indexedOn() + 1;
+    }
+    entries.addLast(new IndexedEntity(id, indexedOn));
+    while (entries.size() > maxEntries) {
+      retainedSince.put(kind, entries.removeFirst().indexedOn());
+    }
+  }
+
+  private Deque<IndexedEntity> entries(Kind kind) {
+    Deque<IndexedEntity> entries = journals.get(kind);
+    if (entries == null) {
+      throw new IllegalArgumentException(String.format("No index journal for %s", kind));
+    }
+    return entries;
+  }
+}
@@ -0,0 +1,282 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.ACCOUNTS;
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.GROUPS;
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.PROJECTS;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Context;
+import com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind;
+import com.ericsson.gerrit.plugins.highavailability.peers.PeerInfo;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.AccountGroup;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.server.account.Accounts;
+import com.google.gerrit.server.group.db.Groups;
+import com.google.gerrit.server.index.account.AccountIndexer;
+import com.google.gerrit.server.index.group.GroupIndexer;
+import com.google.gerrit.server.index.project.ProjectIndexer;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import dev.failsafe.function.CheckedSupplier;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.eclipse.jgit.errors.ConfigInvalidException;
+
+/**
+ * Reindexes, if stale, the accounts, groups and projects indexed by the peers since the previous
+ * run, as reported by their {@link EntityIndexJournal}.
+ *
+ * <p>When a peer dropped from its journal entities indexed after the cursor of this node, because
+ * its journal overflowed or it restarted, all the entities of that kind are checked instead.
+ */
+public class EntityIndexSyncRunner implements CheckedSupplier<Boolean> {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+  /** Position reached in the journal of a peer, saved once the entities are reindexed. */
+  private record JournalPosition(PeerInfo peer, Kind kind, Instant indexedOn) {}
+
+  /** Entities journaled by a peer past the cursor of this node. */
+  private record PeerEntities(PeerInfo peer, IndexedEntities indexed) {}
+
+  private static final IndexedEntities NOT_JOURNALED =
+      new IndexedEntities(ImmutableList.of(), Optional.empty());
+
+  private final Provider<Set<PeerInfo>> peerInfoProvider;
+  private final CloseableHttpClient httpClient;
+  private final String pluginRelativePath;
+  private final QueryIndexedEntitiesResponseHandler responseHandler;
+  private final IndexSyncCursors cursors;
+  private final AccountIndexer accountIndexer;
+  private final GroupIndexer groupIndexer;
+  private final ProjectIndexer projectIndexer;
+  private final Accounts accounts;
+  private final Groups groups;
+  private final ProjectCache projectCache;
+  private final ListeningExecutorService peerQueryExecutor;
+
+  @Inject
+  EntityIndexSyncRunner(
+      Provider<Set<PeerInfo>> peerInfoProvider,
+      CloseableHttpClient httpClient,
+      @PluginName String pluginName,
+      QueryIndexedEntitiesResponseHandler responseHandler,
+      IndexSyncCursors cursors,
+      AccountIndexer accountIndexer,
+      GroupIndexer groupIndexer,
+      ProjectIndexer projectIndexer,
+      Accounts accounts,
+      Groups groups,
+      ProjectCache projectCache,
+      @IndexSyncPeerExecutor ListeningExecutorService peerQueryExecutor) {
+    this.peerInfoProvider = peerInfoProvider;
+    this.httpClient = httpClient;
+    this.pluginRelativePath = Joiner.on("/").join("plugins", pluginName);
+    this.responseHandler = responseHandler;
+    this.cursors = cursors;
+    this.accountIndexer = accountIndexer;
+    this.groupIndexer = groupIndexer;
+    this.projectIndexer = projectIndexer;
+    this.accounts = accounts;
+    this.groups = groups;
+    this.projectCache = projectCache;
+    this.peerQueryExecutor = peerQueryExecutor;
+  }
+
+  @Override
+  public Boolean get() {
+    log.atFine().log("Starting entity indexSync");
+    Set<PeerInfo> peers = peerInfoProvider.get();
+    if (peers.size() == 0) {
+      return false;
+    }
+
+    boolean failed = false;
+    for (Kind kind : EntityIndexJournal.KINDS) {
+      Map<PeerInfo, Optional<Instant>> peerCursors = new LinkedHashMap<>();
+      List<ListenableFuture<Optional<PeerEntities>>> peerQueries = new ArrayList<>(peers.size());
+      for (PeerInfo peer : peers) {
+        Optional<Instant> cursor = cursors.get(kind, peer);
+        peerCursors.put(peer, cursor);
+        peerQueries.add(peerQueryExecutor.submit(() -> queryPeer(peer, kind, cursor)));
+      }
+
+      // The same entity is usually reported by several peers: reindex it only once
+      Set<String> ids = new LinkedHashSet<>();
+      List<JournalPosition> positions = new ArrayList<>(peers.size());
+      boolean fullResync = false;
+      for (ListenableFuture<Optional<PeerEntities>> peerQuery : peerQueries) {
+        Optional<PeerEntities> collected;
+        try {
+          collected = peerQuery.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          log.atWarning().log("Interrupted while collecting %s from peers", kind);
+          return false;
+        } catch (ExecutionException e) {
+          log.atSevere().withCause(e).log("Error while collecting %s from peers", kind);
+          failed = true;
+          continue;
+        }
+        if (collected.isEmpty()) {
+          failed = true;
+          continue;
+        }
+
+        PeerInfo peer = collected.get().peer();
+        IndexedEntities indexed = collected.get().indexed();
+        indexed.entities().forEach(e -> ids.add(e.id()));
+        Optional<Long> last =
+            indexed.entities().isEmpty()
+                ? Optional.empty()
+                : Optional.of(indexed.entities().get(indexed.entities().size() - 1).indexedOn());
+        Optional<Instant> cursor = peerCursors.get(peer);
+        if (cursor.isPresent() && indexed.hasGapAfter(cursor.get().toEpochMilli())) {
+          log.atWarning().log(
+              "%s dropped %s indexed after %s from its journal: all of them are checked for"
+                  + " staleness",
+              peer, kind, cursor.get());
+          fullResync = true;
+          // Once resynced, everything dropped by the peer is covered
+          long retainedSince = indexed.retainedSince().get();
+          last = Optional.of(last.map(l -> Math.max(l, retainedSince)).orElse(retainedSince));
+        }
+        last.ifPresent(
+            l -> positions.add(new JournalPosition(peer, kind, Instant.ofEpochMilli(l))));
+      }
+
+      boolean reindexed = true;
+      if (fullResync) {
+        try {
+          ids.addAll(allIds(kind));
+        } catch (IOException | ConfigInvalidException e) {
+          log.atSevere().withCause(e).log("Unable to list all the %s to resync", kind);
+          reindexed = false;
+        }
+      }
+      for (String id : ids) {
+        reindexed &= reindexIfStale(kind, id);
+      }
+      if (reindexed) {
+        positions.forEach(p -> cursors.advance(p.kind(), p.peer(), p.indexedOn()));
+      } else {
+        failed = true;
+      }
+    }
+    log.atFine().log("Finished entity indexSync");
+
+    return !failed;
+  }
+
+  private Optional<PeerEntities> queryPeer(PeerInfo peer, Kind kind, Optional<Instant> cursor) {
+    try {
+      return Optional.of(new PeerEntities(peer, collectIndexedEntities(peer, kind, cursor)));
+    } catch (HttpResponseException e) {
+      if (e.getStatusCode() == SC_NOT_FOUND) {
+        // Peer running an older version: only the forwarded indexing reaches this node
+        log.atFine().log("%s does not expose its index journal", peer);
+        return Optional.of(new PeerEntities(peer, NOT_JOURNALED));
+      }
+      log.atSevere().withCause(e).log("Error while querying %s from %s", kind, peer);
+    } catch (IOException e) {
+      log.atSevere().withCause(e).log("Error while querying %s from %s", kind, peer);
+    }
+    return Optional.empty();
+  }
+
+  private IndexedEntities collectIndexedEntities(PeerInfo peer, Kind kind, Optional<Instant> cursor)
+      throws IOException {
+    long after = cursor.map(Instant::toEpochMilli).orElse(0L);
+    String uri =
+        Joiner.on("/")
+            .join(
+                peer.getDirectUrl(),
+                pluginRelativePath,
+                "query/indexed.after",
+                kind.name().toLowerCase(Locale.US),
+                after);
+    HttpGet queryRequest = new HttpGet(uri);
+    log.atFine().log("Executing %s", queryRequest);
+    return httpClient.execute(queryRequest, responseHandler);
+  }
+
+  private ImmutableList<String> allIds(Kind kind) throws IOException, ConfigInvalidException {
+    return switch (kind) {
+      case ACCOUNTS ->
+          accounts.allIds().stream()
+              .map(id -> Integer.toString(id.get()))
+              .collect(toImmutableList());
+      case GROUPS ->
+          groups.getAllGroupReferences().map(g -> g.getUUID().get()).collect(toImmutableList());
+      case PROJECTS ->
+          projectCache.all().stream().map(Project.NameKey::get).collect(toImmutableList());
+      default -> throw new IllegalArgumentException("No index journal for " + kind);
+    };
+  }
+
+  private boolean reindexIfStale(Kind kind, String id) {
+    // Reindexed as a forwarded event, not to be forwarded back to the peers
+    Context.setForwardedEvent(true);
+    try {
+      boolean reindexed =
+          switch (kind) {
+            case ACCOUNTS -> reindexAccountIfStale(id);
+            case GROUPS -> groupIndexer.reindexIfStale(AccountGroup.uuid(id));
+            case PROJECTS -> projectIndexer.reindexIfStale(Project.nameKey(id));
+            default -> throw new IllegalArgumentException("No index journal for " + kind);
+          };
+      if (reindexed) {
+        log.atInfo().log("Reindexed stale %s %s", kind, id);
+      }
+      return true;
+    } catch (RuntimeException e) {
+      log.atSevere().withCause(e).log("Unable to reindex %s %s", kind, id);
+      return false;
+    } finally {
+      Context.unsetForwardedEvent();
+    }
+  }
+
+  private boolean reindexAccountIfStale(String id) {
+    Optional<Account.Id> accountId = Optional.ofNullable(Ints.tryParse(id)).map(Account::id);
+    if (accountId.isEmpty()) {
+      throw new IllegalArgumentException(String.format("Unexpected account id format %s", id));
+    }
+    return accountIndexer.reindexIfStale(accountId.get());
+  }
+}
@@ -0,0 +1,122 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.ericsson.gerrit.plugins.highavailability.peers.PeerInfo;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * High-water marks of the index sync, one per peer and kind of update.
+ *
+ * <p>Each cursor is the latest timestamp of the updates reported by the peer and successfully
+ * synced locally. Cursors are persisted under the plugin data directory so that the periodic sync
+ * can resume from where it stopped after a restart.
+ */
+@Singleton
+public class IndexSyncCursors {
+  private static final FluentLogger log = FluentLogger.forEnclosingClass();
+  private static final String CURSORS_DIR = "index-sync";
+
+  public enum Kind {
+    /** Latest {@code lastUpdatedOn} of the changes updated on the peer. */
+    CHANGES,
+    /** Latest position in the change deletion journal of the peer. */
+    CHANGE_DELETIONS,
+    /** Latest position in the account index journal of the peer. */
+    ACCOUNTS,
+    /** Latest position in the group index journal of the peer. */
+    GROUPS,
+    /** Latest position in the project index journal of the peer. */
+    PROJECTS
+  }
+
+  private final Path cursorsDir;
+  private final Map<Kind, Map<String, Instant>> cursors = new ConcurrentHashMap<>();
+
+  @Inject
+  IndexSyncCursors(@PluginData Path dataDir) {
+    this.cursorsDir = dataDir.resolve(CURSORS_DIR);
+  }
+
+  public Optional<Instant> get(Kind kind, PeerInfo peer) {
+    return Optional.ofNullable(
+        cursorsOf(kind).computeIfAbsent(peer.getDirectUrl(), url -> load(kind, url)));
+  }
+
+  /** Moves the cursor of the peer forward; older timestamps are ignored. */
+  public synchronized void advance(Kind kind, PeerInfo peer, Instant ts) {
+    Optional<Instant> current = get(kind, peer);
+    if (current.isPresent() && !ts.isAfter(current.get())) {
+      return;
+    }
+    cursorsOf(kind).put(peer.getDirectUrl(), ts);
+    store(kind, peer.getDirectUrl(), ts);
+  }
+
+  private Map<String, Instant> cursorsOf(Kind kind) {
+    return cursors.computeIfAbsent(kind, k -> new ConcurrentHashMap<>());
+  }
+
+  @Nullable
+  private Instant load(Kind kind, String peerUrl) {
+    Path cursorFile = cursorPath(kind, peerUrl);
+    if (!Files.exists(cursorFile)) {
+      return null;
+    }
+    try {
+      return Instant.ofEpochMilli(Long.parseLong(Files.readString(cursorFile, UTF_8).trim()));
+    } catch (IOException | NumberFormatException e) {
+      log.atWarning().withCause(e).log("Unable to read %s index sync cursor of %s", kind, peerUrl);
+      return null;
+    }
+  }
+
+  private void store(Kind kind, String peerUrl, Instant ts) {
+    Path cursorFile = cursorPath(kind, peerUrl);
+    try {
+      Path dir = cursorFile.getParent();
+      Files.createDirectories(dir);
+      Path tmp = Files.createTempFile(dir, cursorFile.getFileName().toString(), ".tmp");
+      Files.writeString(tmp, Long.toString(ts.toEpochMilli()), UTF_8);
+      Files.move(tmp, cursorFile, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.atWarning().withCause(e).log(
+          "Unable to persist %s index sync cursor of %s", kind, peerUrl);
+    }
+  }
+
+  private Path cursorPath(Kind kind, String peerUrl) {
+    return cursorsDir
+        .resolve(kind.name().toLowerCase(Locale.US))
+        .resolve(URLEncoder.encode(peerUrl, UTF_8));
+  }
+}
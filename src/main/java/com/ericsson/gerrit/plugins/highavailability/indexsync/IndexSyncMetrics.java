@@ -0,0 +1,132 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import com.ericsson.gerrit.plugins.highavailability.peers.PeerInfo;
+import com.google.common.base.CharMatcher;
+import com.google.gerrit.metrics.Counter0;
+import com.google.gerrit.metrics.Counter1;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.Field;
+import com.google.gerrit.metrics.MetricMaker;
+import com.google.gerrit.metrics.Timer0;
+import com.google.gerrit.metrics.Timer1;
+import com.google.gerrit.server.logging.PluginMetadata;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+
+@Singleton
+public class IndexSyncMetrics {
+  private static final CharMatcher METRIC_NAME_CHARS =
+      CharMatcher.inRange('a', 'z')
+          .or(CharMatcher.inRange('A', 'Z'))
+          .or(CharMatcher.inRange('0', '9'))
+          .or(CharMatcher.anyOf("_-"));
+
+  private final Timer1<String> peerQueryLatency;
+  private final Counter1<String> peerQueryFailures;
+  private final Counter1<String> peerUpdatedChanges;
+  private final Counter0 reindexedChanges;
+  private final Counter0 upToDateChanges;
+  private final Counter0 droppedChanges;
+  private final Timer0 hotSetFreshLatency;
+
+  @Inject
+  IndexSyncMetrics(MetricMaker metricMaker) {
+    Field<String> peerField =
+        Field.ofString(
+                "peer",
+                (metadataBuilder, fieldValue) ->
+                    metadataBuilder.addPluginMetadata(PluginMetadata.create("peer", fieldValue)))
+            .description("Peer queried by the index sync")
+            .build();
+
+    this.peerQueryLatency =
+        metricMaker.newTimer(
+            "index_sync/peer_query_latency",
+            new Description("Time to collect the updated and deleted changes of a peer")
+                .setCumulative()
+                .setUnit(Description.Units.MILLISECONDS),
+            peerField);
+    this.peerQueryFailures =
+        metricMaker.newCounter(
+            "index_sync/peer_query_failures",
+            new Description("Failures to collect the updated or deleted changes of a peer")
+                .setCumulative()
+                .setRate(),
+            peerField);
+    this.peerUpdatedChanges =
+        metricMaker.newCounter(
+            "index_sync/peer_updated_changes",
+            new Description("Updated changes reported by a peer").setCumulative().setRate(),
+            peerField);
+    this.reindexedChanges =
+        metricMaker.newCounter(
+            "index_sync/reindexed_changes",
+            new Description("Changes scheduled for a reindex by the index sync")
+                .setCumulative()
+                .setRate());
+    this.upToDateChanges =
+        metricMaker.newCounter(
+            "index_sync/up_to_date_changes",
+            new Description("Changes skipped by the index sync because already up-to-date")
+                .setCumulative()
+                .setRate());
+    this.droppedChanges =
+        metricMaker.newCounter(
+            "index_sync/dropped_changes",
+            new Description("Stale changes left for the next run, past indexSync.maxQueuedChanges")
+                .setCumulative()
+                .setRate());
+    this.hotSetFreshLatency =
+        metricMaker.newTimer(
+            "index_sync/hot_set_fresh_latency",
+            new Description(
+                    "Time to reindex the most recently updated changes reported by the peers")
+                .setCumulative()
+                .setUnit(Description.Units.MILLISECONDS));
+  }
+
+  public void recordPeerQuery(PeerInfo peer, long latencyMs, int updatedChanges) {
+    String label = label(peer);
+    peerQueryLatency.record(label, latencyMs, TimeUnit.MILLISECONDS);
+    peerUpdatedChanges.incrementBy(label, updatedChanges);
+  }
+
+  public void recordPeerQueryFailure(PeerInfo peer) {
+    peerQueryFailures.increment(label(peer));
+  }
+
+  public void recordReindexed() {
+    reindexedChanges.increment();
+  }
+
+  public void recordUpToDate(int count) {
+    upToDateChanges.incrementBy(count);
+  }
+
+  public void recordDropped(int count) {
+    droppedChanges.incrementBy(count);
+  }
+
+  public void recordHotSetFresh(long latencyMs) {
+    hotSetFreshLatency.record(latencyMs, TimeUnit.MILLISECONDS);
+  }
+
+  private static String label(PeerInfo peer) {
+    return METRIC_NAME_CHARS.negate().replaceFrom(peer.getDirectUrl(), '_');
+  }
+}
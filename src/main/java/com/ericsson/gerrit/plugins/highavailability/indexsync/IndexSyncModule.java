@@ -14,8 +14,14 @@
 
 package com.ericsson.gerrit.plugins.highavailability.indexsync;
 
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.gerrit.extensions.config.FactoryModule;
+import com.google.gerrit.extensions.events.AccountIndexedListener;
+import com.google.gerrit.extensions.events.ChangeIndexedListener;
+import com.google.gerrit.extensions.events.GroupIndexedListener;
 import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.events.ProjectIndexedListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
 import com.google.inject.internal.UniqueAnnotations;
 
 public class IndexSyncModule extends FactoryModule {
@@ -27,6 +33,20 @@ public class IndexSyncModule extends FactoryModule {
         .annotatedWith(UniqueAnnotations.create())
         .to(IndexSyncScheduler.class);
     bind(QueryChangesResponseHandler.class);
+    bind(QueryDeletedChangesResponseHandler.class);
+    bind(QueryIndexedEntitiesResponseHandler.class);
+    bind(IndexSyncCursors.class);
+    bind(IndexSyncMetrics.class);
+    bind(ListeningExecutorService.class)
+        .annotatedWith(IndexSyncPeerExecutor.class)
+        .toProvider(IndexSyncPeerExecutorProvider.class);
+    bind(LifecycleListener.class)
+        .annotatedWith(UniqueAnnotations.create())
+        .to(IndexSyncPeerExecutorProvider.class);
+    DynamicSet.bind(binder(), ChangeIndexedListener.class).to(ChangeDeletionJournal.class);
+    DynamicSet.bind(binder(), AccountIndexedListener.class).to(EntityIndexJournal.class);
+    DynamicSet.bind(binder(), GroupIndexedListener.class).to(EntityIndexJournal.class);
+    DynamicSet.bind(binder(), ProjectIndexedListener.class).to(EntityIndexJournal.class);
     factory(IndexSyncRunner.Factory.class);
   }
 }
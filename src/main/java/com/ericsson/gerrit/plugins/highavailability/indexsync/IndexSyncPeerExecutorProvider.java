@@ -0,0 +1,56 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+/** Executor querying the peers concurrently on each index sync run. */
+@Singleton
+public class IndexSyncPeerExecutorProvider
+    implements Provider<ListeningExecutorService>, LifecycleListener {
+  static final String INDEX_SYNC_PEER_QUERY_THREAD_PREFIX = "IndexSyncPeerQuery";
+
+  private final ListeningExecutorService executor;
+
+  @Inject
+  IndexSyncPeerExecutorProvider(WorkQueue workQueue, Configuration cfg) {
+    this.executor =
+        MoreExecutors.listeningDecorator(
+            workQueue.createQueue(
+                cfg.indexSync().threadPoolSize(), INDEX_SYNC_PEER_QUERY_THREAD_PREFIX));
+  }
+
+  @Override
+  public void start() {
+    // do nothing
+  }
+
+  @Override
+  public void stop() {
+    executor.shutdown();
+  }
+
+  @Override
+  public ListeningExecutorService get() {
+    return executor;
+  }
+}
@@ -14,11 +14,17 @@
 
 package com.ericsson.gerrit.plugins.highavailability.indexsync;
 
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.CHANGES;
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.CHANGE_DELETIONS;
 import static com.google.gerrit.server.git.QueueProvider.QueueType.BATCH;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
 
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.index.RecentFirstQueue;
 import com.ericsson.gerrit.plugins.highavailability.peers.PeerInfo;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
@@ -46,12 +52,19 @@ import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import dev.failsafe.function.CheckedSupplier;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 
@@ -59,20 +72,45 @@ public class IndexSyncRunner implements CheckedSupplier<Boolean> {
   private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
   interface Factory {
-    IndexSyncRunner create(String age);
+    /**
+     * Creates a runner syncing the changes updated within {@code age}. When {@code incremental} is
+     * set, the peers having a cursor are only asked for the changes updated after it and the full
+     * comparison of the changes of both indexes is only run every {@code
+     * indexSync.deletionAuditInterval}.
+     */
+    IndexSyncRunner create(String age, boolean incremental);
   }
 
+  /** Updated and deleted changes collected from one peer. */
+  private record PeerUpdates(
+      PeerInfo peer,
+      List<UpdatedChange> changes,
+      List<DeletedChange> deletions,
+      boolean changesCollected,
+      boolean deletionsCollected) {}
+
   private final Provider<Set<PeerInfo>> peerInfoProvider;
   private final CloseableHttpClient httpClient;
   private final String pluginRelativePath;
   private final QueryChangesResponseHandler queryChangesResponseHandler;
+  private final QueryDeletedChangesResponseHandler queryDeletedChangesResponseHandler;
   private final ChangeIndexer.Factory changeIndexerFactory;
   private final ListeningExecutorService executor;
+  private final ListeningExecutorService peerQueryExecutor;
   private final ChangeIndexCollection changeIndexes;
   private final ChangeQueryBuilder queryBuilder;
   private final Provider<ChangeQueryProcessor> queryProcessorProvider;
   private final ChangeFinder changeFinder;
+  private final IndexSyncCursors cursors;
+  private final IndexSyncMetrics metrics;
+  private final Duration cursorOverlap;
+  private final Duration deletionAuditInterval;
+  private final int hotSetSize;
+  private final int maxQueuedChanges;
   private final String age;
+  private final boolean incremental;
+
+  private Instant lastDeletionAudit;
 
   @AssistedInject
   IndexSyncRunner(
@@ -80,24 +118,41 @@ public class IndexSyncRunner implements CheckedSupplier<Boolean> {
       CloseableHttpClient httpClient,
       @PluginName String pluginName,
       QueryChangesResponseHandler queryChangesResponseHandler,
+      QueryDeletedChangesResponseHandler queryDeletedChangesResponseHandler,
       ChangeIndexer.Factory changeIndexerFactory,
       @IndexExecutor(BATCH) ListeningExecutorService executor,
+      @IndexSyncPeerExecutor ListeningExecutorService peerQueryExecutor,
       ChangeIndexCollection changeIndexes,
       ChangeQueryBuilder queryBuilder,
       Provider<ChangeQueryProcessor> queryProcessorProvider,
       ChangeFinder changeFinder,
-      @Assisted String age) {
+      IndexSyncCursors cursors,
+      IndexSyncMetrics metrics,
+      Configuration cfg,
+      @Assisted String age,
+      @Assisted boolean incremental) {
     this.peerInfoProvider = peerInfoProvider;
     this.httpClient = httpClient;
     this.pluginRelativePath = Joiner.on("/").join("plugins", pluginName);
     this.queryChangesResponseHandler = queryChangesResponseHandler;
+    this.queryDeletedChangesResponseHandler = queryDeletedChangesResponseHandler;
     this.changeIndexerFactory = changeIndexerFactory;
     this.executor = executor;
+    this.peerQueryExecutor = peerQueryExecutor;
     this.changeIndexes = changeIndexes;
     this.queryBuilder = queryBuilder;
     this.queryProcessorProvider = queryProcessorProvider;
     this.changeFinder = changeFinder;
+    this.cursors = cursors;
+    this.metrics = metrics;
+    this.cursorOverlap = cfg.indexSync().cursorOverlap();
+    this.deletionAuditInterval = cfg.indexSync().deletionAuditInterval();
+    this.hotSetSize = cfg.indexSync().hotSetSize();
+    this.maxQueuedChanges = cfg.indexSync().maxQueuedChanges();
     this.age = age;
+    this.incremental = incremental;
+    // The initial, non incremental, sync audits the deletions when the node starts
+    this.lastDeletionAudit = Instant.now();
   }
 
   @Override
@@ -107,53 +162,229 @@ public class IndexSyncRunner implements CheckedSupplier<Boolean> {
     if (peers.size() == 0) {
       return false;
     }
-    boolean failed = false;
-    Set<String> updatedChanges = new HashSet<>();
+    boolean audit = !incremental || isDeletionAuditDue();
+    String queryAge = incremental && audit ? ageSinceLastDeletionAudit() : age;
+    if (audit) {
+      lastDeletionAudit = Instant.now();
+    }
+
+    // The local index is compared over the widest window queried on the peers
+    boolean ageWindow = false;
+    Instant windowStart = null;
+    List<ListenableFuture<PeerUpdates>> peerQueries = new ArrayList<>(peers.size());
     for (PeerInfo peer : peers) {
+      // Changes are indexed on the peer slightly after their lastUpdatedOn: query a bit before
+      // the cursor not to miss them, the overlap is skipped cheaply by the meta SHA-1 check.
+      Optional<Instant> after =
+          incremental && !audit
+              ? cursors.get(CHANGES, peer).map(c -> c.minus(cursorOverlap))
+              : Optional.empty();
+      if (after.isPresent()) {
+        windowStart =
+            windowStart == null || after.get().isBefore(windowStart) ? after.get() : windowStart;
+      } else {
+        ageWindow = true;
+      }
+      peerQueries.add(peerQueryExecutor.submit(() -> collectPeerUpdates(peer, after, queryAge)));
+    }
+
+    // Query the local index while the peers are being queried
+    Map<String, String> ourChanges =
+        queryLocalIndex(ageWindow ? Optional.empty() : Optional.of(windowStart), queryAge);
+    ChangeIndexer indexer = changeIndexerFactory.create(executor, changeIndexes, false);
+
+    boolean failed = false;
+    Set<String> theirChanges = new HashSet<>();
+    Set<String> deletedChanges = new HashSet<>();
+    Set<String> scheduledChanges = new HashSet<>();
+    List<ListenableFuture<Boolean>> indexingTasks = new ArrayList<>();
+    List<ListenableFuture<Boolean>> hotSetTasks = new ArrayList<>();
+    Stopwatch hotSetStopwatch = Stopwatch.createStarted();
+    List<PeerUpdates> collected = new ArrayList<>(peers.size());
+    Set<PeerInfo> truncatedPeers = new HashSet<>();
+    int upToDate = 0;
+    // Peers are processed as soon as they answer, so that a slow peer does not hold back the
+    // reindexing of the changes reported by the others. The changes of each peer are reindexed
+    // most recently updated first, as they are the ones users are most likely looking at.
+    for (ListenableFuture<PeerUpdates> peerQuery : Futures.inCompletionOrder(peerQueries)) {
+      PeerUpdates updates;
       try {
-        updatedChanges.addAll(collectUpdatedChanges(peer));
-      } catch (IOException e) {
-        log.atSevere().withCause(e).log("Error while querying changes from %s", peer);
+        updates = peerQuery.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        log.atWarning().log("Interrupted while collecting changes from peers");
+        return false;
+      } catch (ExecutionException e) {
+        log.atSevere().withCause(e).log("Error while collecting changes from peers");
+        failed = true;
+        continue;
+      }
+      collected.add(updates);
+      failed |= !updates.changesCollected() || !updates.deletionsCollected();
+
+      for (DeletedChange deleted : updates.deletions()) {
+        if (deletedChanges.add(deleted.id())) {
+          deleteIfMissingInNoteDb(deleted.id(), indexer);
+        }
+      }
+
+      RecentFirstQueue<String> staleChanges = new RecentFirstQueue<>(hotSetSize, maxQueuedChanges);
+      for (UpdatedChange change : updates.changes()) {
+        String id = change.id();
+        theirChanges.add(id);
+        if (deletedChanges.contains(id) || scheduledChanges.contains(id)) {
+          continue;
+        }
+        // A peer reporting a different meta ref than another one gets its change reindexed
+        if (change.metaSha() != null && change.metaSha().equals(ourChanges.get(id))) {
+          upToDate++;
+          continue;
+        }
+        scheduledChanges.add(id);
+        // Changes reported by peers running an older version come last
+        staleChanges
+            .add(id, change.lastUpdatedOn() == null ? Long.MIN_VALUE : change.lastUpdatedOn())
+            .ifPresent(scheduledChanges::remove);
+      }
+      if (staleChanges.dropped() > 0) {
+        // Reported again on the next run, as the cursor of the peer is not advanced
+        log.atWarning().log(
+            "Dropped %d stale changes reported by %s, more than indexSync.maxQueuedChanges",
+            staleChanges.dropped(), updates.peer());
+        metrics.recordDropped(staleChanges.dropped());
+        truncatedPeers.add(updates.peer());
         failed = true;
       }
+      for (String id : staleChanges.drainHotSet()) {
+        ListenableFuture<Boolean> indexingTask = indexAsync(id, indexer);
+        hotSetTasks.add(indexingTask);
+        indexingTasks.add(indexingTask);
+      }
+      for (String id : staleChanges.drainOverflow()) {
+        indexingTasks.add(indexAsync(id, indexer));
+      }
+    }
+    log.atFine().log(
+        "Skipped %d changes already indexed at the same meta ref as the peers", upToDate);
+    metrics.recordUpToDate(upToDate);
+
+    for (PeerUpdates updates : collected) {
+      latestDeletion(updates.deletions())
+          .ifPresent(ts -> cursors.advance(CHANGE_DELETIONS, updates.peer(), ts));
     }
 
-    if (syncIndex(updatedChanges)) {
-      log.atFine().log("Finished indexSync");
-    } else {
+    try {
+      if (!hotSetTasks.isEmpty()) {
+        Futures.allAsList(hotSetTasks).get();
+        metrics.recordHotSetFresh(hotSetStopwatch.elapsed(TimeUnit.MILLISECONDS));
+      }
+      Futures.allAsList(indexingTasks).get();
+    } catch (InterruptedException | ExecutionException e) {
+      log.atSevere().withCause(e).log("Error while reindexing %s", scheduledChanges);
       log.atSevere().log("Failed to index out of sync changes");
-      failed = true;
+      return false;
     }
 
+    for (PeerUpdates updates : collected) {
+      if (!truncatedPeers.contains(updates.peer())) {
+        latestUpdate(updates.changes())
+            .ifPresent(ts -> cursors.advance(CHANGES, updates.peer(), ts));
+      }
+    }
+    if (audit) {
+      auditChangeDeletions(
+          Sets.difference(ourChanges.keySet(), deletedChanges), theirChanges, indexer);
+    }
+    log.atFine().log("Finished indexSync");
+
     return !failed;
   }
 
-  private List<String> collectUpdatedChanges(PeerInfo peer) throws IOException {
+  private boolean isDeletionAuditDue() {
+    return !Instant.now().isBefore(lastDeletionAudit.plus(deletionAuditInterval));
+  }
+
+  private String ageSinceLastDeletionAudit() {
+    long seconds =
+        Duration.between(lastDeletionAudit, Instant.now()).plus(cursorOverlap).toSeconds();
+    return seconds + "s";
+  }
+
+  private PeerUpdates collectPeerUpdates(
+      PeerInfo peer, Optional<Instant> after, String queryAge) {
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    List<UpdatedChange> changes = List.of();
+    boolean changesCollected = false;
+    try {
+      changes = collectUpdatedChanges(peer, after, queryAge);
+      changesCollected = true;
+    } catch (IOException e) {
+      log.atSevere().withCause(e).log("Error while querying changes from %s", peer);
+    }
+
+    List<DeletedChange> deletions = List.of();
+    boolean deletionsCollected = false;
+    try {
+      deletions = collectDeletedChanges(peer);
+      deletionsCollected = true;
+    } catch (HttpResponseException e) {
+      if (e.getStatusCode() == SC_NOT_FOUND) {
+        // Peer running an older version: deletions are only caught by the audit
+        log.atFine().log("%s does not expose its change deletion journal", peer);
+        deletionsCollected = true;
+      } else {
+        log.atSevere().withCause(e).log("Error while querying deleted changes from %s", peer);
+      }
+    } catch (IOException e) {
+      log.atSevere().withCause(e).log("Error while querying deleted changes from %s", peer);
+    }
+
+    metrics.recordPeerQuery(peer, stopwatch.elapsed(TimeUnit.MILLISECONDS), changes.size());
+    if (!changesCollected || !deletionsCollected) {
+      metrics.recordPeerQueryFailure(peer);
+    }
+    return new PeerUpdates(peer, changes, deletions, changesCollected, deletionsCollected);
+  }
+
+  private List<UpdatedChange> collectUpdatedChanges(
+      PeerInfo peer, Optional<Instant> after, String queryAge) throws IOException {
     log.atFine().log("Collecting out of sync changes from %s", peer.getDirectUrl());
     String peerUrl = peer.getDirectUrl();
+    String query =
+        after.isPresent()
+            ? Joiner.on("/").join("query/changes.updated.after", after.get().toEpochMilli())
+            : Joiner.on("/").join("query/changes.updated.since", queryAge);
     String uri =
-        Joiner.on("/").join(peerUrl, pluginRelativePath, "query/changes.updated.since", age);
+        Joiner.on("/").join(peerUrl, pluginRelativePath, query) + "?" + UpdatedChange.WITH_META_SHA;
     HttpGet queryRequest = new HttpGet(uri);
     log.atFine().log("Executing %s", queryRequest);
     return httpClient.execute(queryRequest, queryChangesResponseHandler);
   }
 
-  private boolean syncIndex(Set<String> updatedChanges) {
-    ChangeIndexer indexer = changeIndexerFactory.create(executor, changeIndexes, false);
-    try {
-      List<ListenableFuture<Boolean>> indexingTasks = new ArrayList<>(updatedChanges.size());
-      for (String id : updatedChanges) {
-        indexingTasks.add(indexAsync(id, indexer));
-      }
-      Futures.allAsList(indexingTasks).get();
-    } catch (InterruptedException | ExecutionException e) {
-      log.atSevere().withCause(e).log("Error while reindexing %s", updatedChanges);
-      return false;
-    }
+  private List<DeletedChange> collectDeletedChanges(PeerInfo peer) throws IOException {
+    log.atFine().log("Collecting deleted changes from %s", peer.getDirectUrl());
+    long after = cursors.get(CHANGE_DELETIONS, peer).map(Instant::toEpochMilli).orElse(0L);
+    String uri =
+        Joiner.on("/")
+            .join(peer.getDirectUrl(), pluginRelativePath, "query/changes.deleted.after", after);
+    HttpGet queryRequest = new HttpGet(uri);
+    log.atFine().log("Executing %s", queryRequest);
+    return httpClient.execute(queryRequest, queryDeletedChangesResponseHandler);
+  }
 
-    syncChangeDeletions(updatedChanges, indexer);
+  private static Optional<Instant> latestUpdate(List<UpdatedChange> changes) {
+    return changes.stream()
+        .map(UpdatedChange::lastUpdatedOn)
+        .filter(Objects::nonNull)
+        .max(Long::compare)
+        .map(Instant::ofEpochMilli);
+  }
 
-    return true;
+  private static Optional<Instant> latestDeletion(List<DeletedChange> deletions) {
+    return deletions.stream()
+        .map(DeletedChange::deletedOn)
+        .max(Long::compare)
+        .map(Instant::ofEpochMilli);
   }
 
   private ListenableFuture<Boolean> indexAsync(String id, ChangeIndexer indexer) {
@@ -168,32 +399,49 @@ public class IndexSyncRunner implements CheckedSupplier<Boolean> {
           String.format("Unexpected change number format %s", fields.get(1)));
     }
     log.atInfo().log("Scheduling async reindex of: %s", id);
+    metrics.recordReindexed();
     return indexer.asyncReindexIfStale(projectName, Change.id(changeNumber));
   }
 
-  private void syncChangeDeletions(Set<String> theirChanges, ChangeIndexer indexer) {
-    Set<String> ourChanges = queryLocalIndex();
+  /**
+   * Catches the deletions missing from the journals of the peers, e.g. because a peer restarted,
+   * by comparing the changes of both indexes.
+   */
+  private void auditChangeDeletions(
+      Set<String> ourChanges, Set<String> theirChanges, ChangeIndexer indexer) {
+    log.atFine().log("Auditing deleted changes");
     for (String d : Sets.difference(ourChanges, ImmutableSet.copyOf(theirChanges))) {
       deleteIfMissingInNoteDb(d, indexer);
     }
   }
 
-  private Set<String> queryLocalIndex() {
+  /**
+   * Returns the locally indexed changes updated after {@code windowStart}, or within {@code
+   * queryAge} when not set, with their meta SHA-1.
+   */
+  private Map<String, String> queryLocalIndex(Optional<Instant> windowStart, String queryAge) {
     ChangeQueryProcessor queryProcessor = queryProcessorProvider.get();
     queryProcessor.enforceVisibility(false);
     queryProcessor.setNoLimit(true);
-    Predicate<ChangeData> predicate = Predicate.not(queryBuilder.age(age));
     QueryResult<ChangeData> result;
     try {
+      Predicate<ChangeData> predicate =
+          windowStart.isPresent()
+              ? queryBuilder.after(UpdatedChange.queryTimestamp(windowStart.get()))
+              : Predicate.not(queryBuilder.age(queryAge));
       result = queryProcessor.query(predicate);
     } catch (QueryParseException e) {
       throw new RuntimeException(e);
     }
 
     ImmutableList<ChangeData> cds = result.entities();
-    return cds.stream()
-        .map(cd -> cd.project().get() + "~" + cd.getId().get())
-        .collect(Collectors.toSet());
+    // Meta SHA-1 may be null, hence no Collectors.toMap()
+    Map<String, String> changes = new HashMap<>(cds.size());
+    for (ChangeData cd : cds) {
+      UpdatedChange change = UpdatedChange.fromIndex(cd);
+      changes.put(change.id(), change.metaSha());
+    }
+    return changes;
   }
 
   private void deleteIfMissingInNoteDb(String id, ChangeIndexer indexer) {
@@ -19,6 +19,7 @@ import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.extensions.events.LifecycleListener;
 import com.google.gerrit.server.git.WorkQueue;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import dev.failsafe.Failsafe;
 import dev.failsafe.FailsafeExecutor;
@@ -34,15 +35,20 @@ public class IndexSyncScheduler implements LifecycleListener {
 
   private final WorkQueue workQueue;
   private final IndexSyncRunner.Factory indexSyncRunnerFactory;
+  private final Provider<EntityIndexSyncRunner> entityIndexSyncRunnerProvider;
   private final Configuration.IndexSync indexSync;
 
   private ScheduledExecutorService executor;
 
   @Inject
   IndexSyncScheduler(
-      WorkQueue workQueue, IndexSyncRunner.Factory indexSyncRunnerFactory, Configuration cfg) {
+      WorkQueue workQueue,
+      IndexSyncRunner.Factory indexSyncRunnerFactory,
+      Provider<EntityIndexSyncRunner> entityIndexSyncRunnerProvider,
+      Configuration cfg) {
     this.workQueue = workQueue;
     this.indexSyncRunnerFactory = indexSyncRunnerFactory;
+    this.entityIndexSyncRunnerProvider = entityIndexSyncRunnerProvider;
     this.indexSync = cfg.indexSync();
   }
 
@@ -67,18 +73,28 @@ public class IndexSyncScheduler implements LifecycleListener {
             .build();
     FailsafeExecutor<Boolean> failsafeExecutor = Failsafe.with(retryPolicy).with(executor);
 
-    IndexSyncRunner sync = indexSyncRunnerFactory.create(indexSync.initialSyncAge());
+    IndexSyncRunner sync = indexSyncRunnerFactory.create(indexSync.initialSyncAge(), false);
     failsafeExecutor.getAsync(sync);
+    failsafeExecutor.getAsync(entityIndexSyncRunnerProvider.get());
   }
 
   private void schedulePeriodicSync() {
-    // Periodic sync runs at fixed rate and we don't need failsafe for retries
-    IndexSyncRunner sync = indexSyncRunnerFactory.create(indexSync.syncAge());
+    // Periodic sync runs at fixed rate and we don't need failsafe for retries.
+    // It only asks each peer for the changes updated after its cursor, once known.
+    IndexSyncRunner sync = indexSyncRunnerFactory.create(indexSync.syncAge(), true);
     executor.scheduleAtFixedRate(
         () -> sync.get(),
         indexSync.delay().getSeconds(),
         indexSync.period().getSeconds(),
         TimeUnit.SECONDS);
+
+    // Accounts, groups and projects are synced from the index journals of the peers
+    EntityIndexSyncRunner entitySync = entityIndexSyncRunnerProvider.get();
+    executor.scheduleAtFixedRate(
+        () -> entitySync.get(),
+        indexSync.delay().getSeconds(),
+        indexSync.period().getSeconds(),
+        TimeUnit.SECONDS);
   }
 
   private void logRetriesExceeded(ExecutionCompletedEvent<Boolean> e) {
@@ -0,0 +1,32 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Optional;
+
+/**
+ * The entities journaled by a peer past a cursor, oldest first.
+ *
+ * <p>{@code retainedSince} is the position after which the journal of the peer is complete, absent
+ * for peers running an older version: a cursor older than it means entities were missed.
+ */
+public record IndexedEntities(ImmutableList<IndexedEntity> entities, Optional<Long> retainedSince) {
+
+  /** Whether the peer dropped entities journaled after {@code cursor}. */
+  public boolean hasGapAfter(long cursor) {
+    return retainedSince.isPresent() && retainedSince.get() > cursor;
+  }
+}
@@ -0,0 +1,24 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+/**
+ * An account, group or project indexed by a peer: the account id, the group UUID or the project
+ * name.
+ *
+ * <p>{@code indexedOn} is in milliseconds since the epoch, as seen by the peer, and strictly
+ * increasing within its journal so that it can be used as a cursor.
+ */
+public record IndexedEntity(String id, long indexedOn) {}
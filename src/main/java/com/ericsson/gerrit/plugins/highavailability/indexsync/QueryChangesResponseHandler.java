@@ -16,8 +16,11 @@ package com.ericsson.gerrit.plugins.highavailability.indexsync;
 
 import static javax.servlet.http.HttpServletResponse.SC_OK;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.inject.Singleton;
 import java.io.IOException;
 import java.util.List;
@@ -30,12 +33,11 @@ import org.apache.http.client.ResponseHandler;
 import org.apache.http.util.EntityUtils;
 
 @Singleton
-public class QueryChangesResponseHandler implements ResponseHandler<List<String>> {
-
-  private final Gson gson = new Gson();
+public class QueryChangesResponseHandler implements ResponseHandler<List<UpdatedChange>> {
 
   @Override
-  public List<String> handleResponse(HttpResponse rsp) throws ClientProtocolException, IOException {
+  public List<UpdatedChange> handleResponse(HttpResponse rsp)
+      throws ClientProtocolException, IOException {
     StatusLine status = rsp.getStatusLine();
     if (rsp.getStatusLine().getStatusCode() != SC_OK) {
       throw new HttpResponseException(status.getStatusCode(), "Query failed");
@@ -45,6 +47,26 @@ public class QueryChangesResponseHandler implements ResponseHandler<List<String>
       return List.of();
     }
     String body = EntityUtils.toString(entity);
-    return gson.fromJson(body, new TypeToken<List<String>>() {}.getType());
+    JsonArray changes = JsonParser.parseString(body).getAsJsonArray();
+    ImmutableList.Builder<UpdatedChange> result =
+        ImmutableList.builderWithExpectedSize(changes.size());
+    for (JsonElement change : changes) {
+      result.add(toUpdatedChange(change));
+    }
+    return result.build();
+  }
+
+  private static UpdatedChange toUpdatedChange(JsonElement change) {
+    // Peers running an older version of the plugin only return the change ids
+    if (change.isJsonPrimitive()) {
+      return new UpdatedChange(change.getAsString(), null, null);
+    }
+    JsonObject obj = change.getAsJsonObject();
+    JsonElement metaSha = obj.get("metaSha");
+    JsonElement lastUpdatedOn = obj.get("lastUpdatedOn");
+    return new UpdatedChange(
+        obj.get("id").getAsString(),
+        metaSha == null || metaSha.isJsonNull() ? null : metaSha.getAsString(),
+        lastUpdatedOn == null || lastUpdatedOn.isJsonNull() ? null : lastUpdatedOn.getAsLong());
   }
 }
@@ -0,0 +1,66 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Longs;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.util.Optional;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.util.EntityUtils;
+
+@Singleton
+public class QueryIndexedEntitiesResponseHandler implements ResponseHandler<IndexedEntities> {
+  /** Position after which the index journal is complete, see {@link IndexedEntities}. */
+  public static final String HEADER_JOURNAL_RETAINED_SINCE = "Index-Journal-Retained-Since";
+
+  @Override
+  public IndexedEntities handleResponse(HttpResponse rsp)
+      throws ClientProtocolException, IOException {
+    StatusLine status = rsp.getStatusLine();
+    if (rsp.getStatusLine().getStatusCode() != SC_OK) {
+      throw new HttpResponseException(status.getStatusCode(), "Query failed");
+    }
+    Header retainedSinceHeader = rsp.getFirstHeader(HEADER_JOURNAL_RETAINED_SINCE);
+    Optional<Long> retainedSince =
+        Optional.ofNullable(retainedSinceHeader).map(h -> Longs.tryParse(h.getValue()));
+    HttpEntity entity = rsp.getEntity();
+    if (entity == null) {
+      return new IndexedEntities(ImmutableList.of(), retainedSince);
+    }
+    String body = EntityUtils.toString(entity);
+    JsonArray entities = JsonParser.parseString(body).getAsJsonArray();
+    ImmutableList.Builder<IndexedEntity> result =
+        ImmutableList.builderWithExpectedSize(entities.size());
+    for (JsonElement indexed : entities) {
+      JsonObject obj = indexed.getAsJsonObject();
+      result.add(new IndexedEntity(obj.get("id").getAsString(), obj.get("indexedOn").getAsLong()));
+    }
+    return new IndexedEntities(result.build(), retainedSince);
+  }
+}
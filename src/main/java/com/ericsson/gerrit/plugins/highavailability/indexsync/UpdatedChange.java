@@ -0,0 +1,62 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.server.query.change.ChangeData;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A change reported by a peer as updated, identified by {@code project~number}.
+ *
+ * <p>The SHA-1 of the change meta ref, as stored in the index of the peer, is included when known
+ * so that the receiving side can skip changes whose local index entry is already up-to-date. The
+ * last update timestamp, in milliseconds since the epoch, is used to advance the sync cursor of the
+ * peer.
+ */
+public record UpdatedChange(
+    String id, @Nullable String metaSha, @Nullable Long lastUpdatedOn) {
+
+  /** Query parameter asking {@code changes.updated.since} to include the meta ref SHA-1. */
+  public static final String WITH_META_SHA = "with-meta-sha";
+
+  private static final DateTimeFormatter QUERY_TIMESTAMP_FORMAT =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS Z").withZone(ZoneOffset.UTC);
+
+  public static UpdatedChange fromIndex(ChangeData cd) {
+    return new UpdatedChange(
+        String.format("%s~%s", cd.project().get(), cd.getId().get()),
+        indexedMetaSha(cd),
+        cd.change().getLastUpdatedOn().toEpochMilli());
+  }
+
+  /** Formats a timestamp as expected by the {@code after:} and {@code before:} operators. */
+  public static String queryTimestamp(Instant ts) {
+    return QUERY_TIMESTAMP_FORMAT.format(ts);
+  }
+
+  @Nullable
+  static String indexedMetaSha(ChangeData cd) {
+    String metaRef = RefNames.changeMetaRef(cd.getId());
+    return cd.getRefStates().get(cd.project()).stream()
+        .filter(refState -> refState.ref().equals(metaRef))
+        .map(refState -> refState.id().name())
+        .findFirst()
+        .orElse(null);
+  }
+}
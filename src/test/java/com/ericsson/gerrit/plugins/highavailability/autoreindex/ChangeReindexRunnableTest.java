@@ -15,19 +15,23 @@
 package com.ericsson.gerrit.plugins.highavailability.autoreindex;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexChangeHandler;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexingHandler.Operation;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.AbstractIndexRestApiServlet;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.BranchNameKey;
 import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
 import com.google.gerrit.server.config.AllUsersName;
 import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.gerrit.server.group.db.Groups;
@@ -35,6 +39,7 @@ import com.google.gerrit.server.notedb.ChangeNotes;
 import com.google.gerrit.server.notedb.ChangeNotes.Factory.ChangeNotesResult;
 import com.google.gerrit.server.project.ProjectCache;
 import com.google.gerrit.server.util.OneOffRequestContext;
+import java.io.IOException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
@@ -63,14 +68,20 @@ public class ChangeReindexRunnableTest {
   @Mock private ChangeNotesResult changeNotesResSecond;
   @Mock private ChangeNotes changeNotesFirst;
   @Mock private ChangeNotes changeNotesSecond;
+  @Mock private ChangeMetaRefsSnapshot metaRefsSnapshot;
+  @Mock private ProjectWatermarks watermarks;
+  @Mock private AutoReindexMetrics metrics;
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration configurationMock;
 
   private ChangeReindexRunnable changeReindexRunnable;
 
   @Before
   public void setUp() throws Exception {
-    changeReindexRunnable =
-        new ChangeReindexRunnable(
-            indexer, indexTs, ctx, projectCache, repoManager, changeNotesFactory);
+    when(configurationMock.autoReindex().hotSetSize()).thenReturn(10);
+    when(configurationMock.autoReindex().maxQueuedChanges()).thenReturn(100);
+    changeReindexRunnable = newChangeReindexRunnable();
   }
 
   @Test
@@ -174,16 +185,165 @@ public class ChangeReindexRunnableTest {
     verify(indexer).index(changeProjectIndexKey(secondChange), Operation.INDEX, Optional.empty());
   }
 
+  @Test
+  public void projectIsNotScannedWhenItsChangeMetaRefsAreUnchanged() throws Exception {
+    LocalDateTime currentTime = LocalDateTime.now(ZoneOffset.UTC);
+    Project.NameKey project = Project.nameKey("projectname");
+
+    when(indexTs.getUpdateTs(AbstractIndexRestApiServlet.IndexName.CHANGE))
+        .thenReturn(Optional.of(currentTime));
+    when(projectCache.all()).thenReturn(ImmutableSortedSet.of(project));
+    when(repoManager.openRepository(project)).thenReturn(repo);
+    when(metaRefsSnapshot.isUnchanged(project, repo)).thenReturn(true);
+
+    changeReindexRunnable.run();
+
+    verify(changeNotesFactory, never()).scan(repo, project);
+    verify(metaRefsSnapshot).completeScan();
+    verify(metrics).recordProjectScanned(true);
+  }
+
+  @Test
+  public void changesOfAllProjectsAreIndexedDuringRun() throws Exception {
+    LocalDateTime currentTime = LocalDateTime.now(ZoneOffset.UTC);
+    Timestamp afterCurrentTime =
+        new Timestamp(currentTime.toEpochSecond(ZoneOffset.UTC) * 1000 + 1000L);
+    Change firstChange = newChange(123, "first", afterCurrentTime);
+    Change secondChange = newChange(456, "second", afterCurrentTime);
+    Repository otherRepo = mock(Repository.class);
+
+    when(indexTs.getUpdateTs(AbstractIndexRestApiServlet.IndexName.CHANGE))
+        .thenReturn(Optional.of(currentTime));
+    when(projectCache.all())
+        .thenReturn(ImmutableSortedSet.of(firstChange.getProject(), secondChange.getProject()));
+    when(repoManager.openRepository(firstChange.getProject())).thenReturn(repo);
+    when(repoManager.openRepository(secondChange.getProject())).thenReturn(otherRepo);
+    when(changeNotesFactory.scan(repo, firstChange.getProject()))
+        .thenReturn(Stream.of(changeNotesResFirst));
+    when(changeNotesFactory.scan(otherRepo, secondChange.getProject()))
+        .thenReturn(Stream.of(changeNotesResSecond));
+    lenient().when(changeNotesResFirst.error()).thenReturn(Optional.empty());
+    lenient().when(changeNotesResSecond.error()).thenReturn(Optional.empty());
+    when(changeNotesResFirst.notes()).thenReturn(changeNotesFirst);
+    when(changeNotesResSecond.notes()).thenReturn(changeNotesSecond);
+    when(changeNotesFirst.getChange()).thenReturn(firstChange);
+    when(changeNotesSecond.getChange()).thenReturn(secondChange);
+
+    changeReindexRunnable.run();
+
+    verify(indexer).index(changeProjectIndexKey(firstChange), Operation.INDEX, Optional.empty());
+    verify(indexer).index(changeProjectIndexKey(secondChange), Operation.INDEX, Optional.empty());
+    verify(metaRefsSnapshot).completeScan();
+  }
+
+  @Test
+  public void changeIsNotIndexedWhenItIsUpdatedBeforeProjectWatermark() throws Exception {
+    LocalDateTime currentTime = LocalDateTime.now(ZoneOffset.UTC);
+    Timestamp afterCurrentTime =
+        new Timestamp(currentTime.toEpochSecond(ZoneOffset.UTC) * 1000 + 1000L);
+    Timestamp projectWatermark = new Timestamp(afterCurrentTime.getTime() + 1000L);
+    Change change = newChange(123, afterCurrentTime);
+
+    when(indexTs.getUpdateTs(AbstractIndexRestApiServlet.IndexName.CHANGE))
+        .thenReturn(Optional.of(currentTime));
+    when(projectCache.all()).thenReturn(ImmutableSortedSet.of(change.getProject()));
+    when(watermarks.get(change.getProject())).thenReturn(Optional.of(projectWatermark));
+    when(repoManager.openRepository(change.getProject())).thenReturn(repo);
+    when(changeNotesFactory.scan(repo, change.getProject()))
+        .thenReturn(Stream.of(changeNotesResFirst));
+    lenient().when(changeNotesResFirst.error()).thenReturn(Optional.empty());
+    when(changeNotesResFirst.notes()).thenReturn(changeNotesFirst);
+    when(changeNotesFirst.getChange()).thenReturn(change);
+
+    changeReindexRunnable.run();
+
+    verify(indexer, never())
+        .index(changeProjectIndexKey(change), Operation.INDEX, Optional.empty());
+    verify(watermarks).advance(change.getProject(), projectWatermark);
+  }
+
+  @Test
+  public void projectIsPinnedWhenItsFirstScanFails() throws Exception {
+    LocalDateTime currentTime = LocalDateTime.now(ZoneOffset.UTC);
+    Project.NameKey project = Project.nameKey("projectname");
+
+    when(indexTs.getUpdateTs(AbstractIndexRestApiServlet.IndexName.CHANGE))
+        .thenReturn(Optional.of(currentTime));
+    when(projectCache.all()).thenReturn(ImmutableSortedSet.of(project));
+    when(repoManager.openRepository(project)).thenThrow(new IOException("cannot open"));
+
+    changeReindexRunnable.run();
+
+    verify(metaRefsSnapshot).forget(project);
+    verify(watermarks).advance(project, Timestamp.valueOf(currentTime));
+    verify(indexTs).update(AbstractIndexRestApiServlet.IndexName.CHANGE, currentTime);
+  }
+
+  @Test
+  public void projectIsPinnedWhenSomeOfItsStaleChangesAreDropped() throws Exception {
+    LocalDateTime currentTime = LocalDateTime.now(ZoneOffset.UTC);
+    Timestamp afterCurrentTime =
+        new Timestamp(currentTime.toEpochSecond(ZoneOffset.UTC) * 1000 + 1000L);
+    Timestamp secondAfterCurrentTime =
+        new Timestamp(currentTime.toEpochSecond(ZoneOffset.UTC) * 1000 + 2000L);
+    Change recentChange = newChange(123, secondAfterCurrentTime);
+    Change droppedChange = newChange(456, afterCurrentTime);
+
+    when(configurationMock.autoReindex().hotSetSize()).thenReturn(1);
+    when(configurationMock.autoReindex().maxQueuedChanges()).thenReturn(0);
+    changeReindexRunnable = newChangeReindexRunnable();
+    when(indexTs.getUpdateTs(AbstractIndexRestApiServlet.IndexName.CHANGE))
+        .thenReturn(Optional.of(currentTime));
+    when(projectCache.all()).thenReturn(ImmutableSortedSet.of(recentChange.getProject()));
+    when(repoManager.openRepository(recentChange.getProject())).thenReturn(repo);
+    when(changeNotesFactory.scan(repo, recentChange.getProject()))
+        .thenReturn(Stream.of(changeNotesResFirst, changeNotesResSecond));
+    lenient().when(changeNotesResFirst.error()).thenReturn(Optional.empty());
+    lenient().when(changeNotesResSecond.error()).thenReturn(Optional.empty());
+    when(changeNotesResFirst.notes()).thenReturn(changeNotesFirst);
+    when(changeNotesResSecond.notes()).thenReturn(changeNotesSecond);
+    when(changeNotesFirst.getChange()).thenReturn(recentChange);
+    when(changeNotesSecond.getChange()).thenReturn(droppedChange);
+
+    changeReindexRunnable.run();
+
+    verify(indexer).index(changeProjectIndexKey(recentChange), Operation.INDEX, Optional.empty());
+    verify(indexer, never())
+        .index(changeProjectIndexKey(droppedChange), Operation.INDEX, Optional.empty());
+    verify(metrics).recordDroppedChanges(1);
+    verify(watermarks).advance(recentChange.getProject(), Timestamp.valueOf(currentTime));
+    verify(watermarks, never()).advance(recentChange.getProject(), secondAfterCurrentTime);
+  }
+
+  private ChangeReindexRunnable newChangeReindexRunnable() {
+    return new ChangeReindexRunnable(
+        indexer,
+        indexTs,
+        ctx,
+        projectCache,
+        repoManager,
+        changeNotesFactory,
+        metaRefsSnapshot,
+        watermarks,
+        metrics,
+        MoreExecutors.newDirectExecutorService(),
+        configurationMock);
+  }
+
   private String changeProjectIndexKey(Change change) {
     return change.getProject() + "~" + change.getChangeId();
   }
 
   private Change newChange(int id, Timestamp changeTs) {
+    return newChange(id, "projectname", changeTs);
+  }
+
+  private Change newChange(int id, String project, Timestamp changeTs) {
     return new Change(
         Change.key("changekey"),
         Change.id(id),
         Account.id(1000000),
-        BranchNameKey.create("projectname", "main"),
+        BranchNameKey.create(project, "main"),
         changeTs.toInstant());
   }
 }
@@ -0,0 +1,69 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.autoreindex;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Project;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProjectWatermarksTest {
+  private static final Project.NameKey PROJECT = Project.nameKey("foo");
+  private static final Project.NameKey OTHER_PROJECT = Project.nameKey("bar");
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path dataDir;
+
+  @Before
+  public void setUp() throws Exception {
+    dataDir = tempFolder.newFolder().toPath();
+  }
+
+  @Test
+  public void watermarkIsEmptyForUnknownProject() {
+    assertThat(new ProjectWatermarks(dataDir).get(PROJECT)).isEmpty();
+  }
+
+  @Test
+  public void watermarkOnlyMovesForward() {
+    ProjectWatermarks watermarks = new ProjectWatermarks(dataDir);
+    watermarks.advance(PROJECT, new Timestamp(2000L));
+    watermarks.advance(PROJECT, new Timestamp(1000L));
+
+    assertThat(watermarks.get(PROJECT)).hasValue(new Timestamp(2000L));
+    assertThat(watermarks.get(OTHER_PROJECT)).isEmpty();
+  }
+
+  @Test
+  public void watermarksOfExistingProjectsArePersisted() {
+    ProjectWatermarks watermarks = new ProjectWatermarks(dataDir);
+    Timestamp ts = new Timestamp(1000L);
+    ts.setNanos(123456789);
+    watermarks.advance(PROJECT, ts);
+    watermarks.advance(OTHER_PROJECT, new Timestamp(2000L));
+    watermarks.flush(ImmutableSet.of(PROJECT));
+
+    ProjectWatermarks reloaded = new ProjectWatermarks(dataDir);
+    assertThat(reloaded.get(PROJECT)).hasValue(ts);
+    assertThat(reloaded.get(OTHER_PROJECT)).isEmpty();
+  }
+}
@@ -0,0 +1,137 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.cache;
+
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder.Result;
+import com.google.gerrit.extensions.registration.DynamicItem;
+import com.google.gerrit.server.git.WorkQueue;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheEvictionBatcherTest {
+  private static final String CACHE = "groups_members";
+  private static final CompletableFuture<Result> FORWARDED =
+      CompletableFuture.completedFuture(new Result(EventType.CACHE_EVICTION, true));
+
+  @Mock private DynamicItem<Forwarder> forwarderItem;
+  @Mock private Forwarder forwarder;
+  @Mock private WorkQueue workQueue;
+  @Mock private ScheduledExecutorService exec;
+  @Mock private CacheEvictionMetrics metrics;
+  @Mock private HotKeySampler hotKeySampler;
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration cfg;
+
+  @Before
+  public void setUp() {
+    when(forwarderItem.get()).thenReturn(forwarder);
+    when(workQueue.getDefaultQueue()).thenReturn(exec);
+  }
+
+  private CacheEvictionBatcher newBatcher() {
+    return new CacheEvictionBatcher(forwarderItem, workQueue, cfg, metrics, hotKeySampler);
+  }
+
+  @Test
+  public void evictionIsForwardedImmediatelyWithoutWindow() {
+    when(cfg.cache().evictionBatchWindow()).thenReturn(Duration.ZERO);
+    when(forwarder.evict(CACHE, "key")).thenReturn(FORWARDED);
+    CacheEvictionBatcher batcher = newBatcher();
+
+    batcher.evict(CACHE, "key");
+
+    verify(forwarder).evict(CACHE, "key");
+    verify(exec, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    verify(hotKeySampler).record(CACHE, "key");
+    verify(metrics).recordForward(eq(CACHE), eq(1), eq(true), anyLong());
+  }
+
+  @Test
+  public void evictionsWithinWindowAreForwardedAtOnce() {
+    when(cfg.cache().evictionBatchWindow()).thenReturn(Duration.ofMillis(100));
+    CacheEvictionBatcher batcher = newBatcher();
+
+    when(forwarder.evictAll(CACHE, List.of("key1", "key2"))).thenReturn(FORWARDED);
+
+    batcher.evict(CACHE, "key1");
+    batcher.evict(CACHE, "key2");
+    batcher.evict(CACHE, "key1");
+
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec).schedule(flush.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+    flush.getValue().run();
+
+    verify(forwarder).evictAll(CACHE, List.of("key1", "key2"));
+    verify(forwarder, never()).evict(any(), any());
+  }
+
+  @Test
+  public void singleEvictionWithinWindowIsForwardedAlone() {
+    when(cfg.cache().evictionBatchWindow()).thenReturn(Duration.ofMillis(100));
+    CacheEvictionBatcher batcher = newBatcher();
+    when(forwarder.evict(CACHE, "key")).thenReturn(FORWARDED);
+
+    batcher.evict(CACHE, "key");
+
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec).schedule(flush.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+    flush.getValue().run();
+
+    verify(forwarder).evict(CACHE, "key");
+    verify(forwarder, never()).evictAll(any(), any());
+  }
+
+  @Test
+  public void evictionsDuringForwardAreForwardedOnceAfterIt() {
+    when(cfg.cache().evictionBatchWindow()).thenReturn(Duration.ZERO);
+    CompletableFuture<Result> inFlight = new CompletableFuture<>();
+    when(forwarder.evict(CACHE, "key")).thenReturn(inFlight, FORWARDED);
+    CacheEvictionBatcher batcher = newBatcher();
+
+    batcher.evict(CACHE, "key");
+    batcher.evict(CACHE, "key");
+    batcher.evict(CACHE, "key");
+    verify(forwarder).evict(CACHE, "key");
+
+    inFlight.complete(new Result(EventType.CACHE_EVICTION, true));
+    verify(forwarder, times(2)).evict(CACHE, "key");
+
+    batcher.evict(CACHE, "key");
+    verify(forwarder, times(3)).evict(CACHE, "key");
+  }
+}
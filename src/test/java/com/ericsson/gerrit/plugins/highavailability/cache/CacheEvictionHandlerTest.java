@@ -17,10 +17,8 @@ package com.ericsson.gerrit.plugins.highavailability.cache;
 import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.ericsson.gerrit.plugins.highavailability.Configuration;
-import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
 import com.google.common.cache.RemovalCause;
 import com.google.common.cache.RemovalNotification;
-import com.google.gerrit.extensions.registration.DynamicItem;
 import com.google.gerrit.server.config.PluginConfigFactory;
 import com.google.gerrit.server.config.SitePaths;
 import java.io.IOException;
@@ -35,7 +33,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
 public class CacheEvictionHandlerTest {
-  @Mock private DynamicItem<Forwarder> forwarder;
+  @Mock private CacheEvictionBatcher batcher;
+  @Mock private CacheEvictionMetrics metrics;
   @Mock private PluginConfigFactory pluginConfigFactoryMock;
 
   private static final Path SITE_PATH = Paths.get("/site_path");
@@ -44,15 +43,16 @@ public class CacheEvictionHandlerTest {
   @Before
   public void setUp() throws IOException {
     defaultCacheMatcher =
-        new CachePatternMatcher(new Configuration(new Config(), new SitePaths(SITE_PATH)));
+        new CachePatternMatcher(
+            new Configuration(new Config(), new SitePaths(SITE_PATH)), metrics);
   }
 
   @Test
   public void shouldNotPublishAccountsCacheEvictions() {
     CacheEvictionHandler<String, String> handler =
-        new CacheEvictionHandler<>(forwarder, defaultCacheMatcher);
+        new CacheEvictionHandler<>(batcher, defaultCacheMatcher);
     handler.onRemoval(
         "test", "accounts", RemovalNotification.create("test", "accounts", RemovalCause.EXPLICIT));
-    verifyNoInteractions(forwarder);
+    verifyNoInteractions(batcher);
   }
 }
@@ -16,6 +16,8 @@ package com.ericsson.gerrit.plugins.highavailability.cache;
 
 import static com.google.common.truth.Truth.assertWithMessage;
 import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ericsson.gerrit.plugins.highavailability.Configuration;
@@ -32,10 +34,12 @@ public class CachePatternMatcherTest {
   @Mock(answer = RETURNS_DEEP_STUBS)
   private Configuration configurationMock;
 
+  @Mock private CacheEvictionMetrics metrics;
+
   @Test
   public void testCachePatternMatcher() throws Exception {
     when(configurationMock.cache().patterns()).thenReturn(ImmutableList.of("^my_cache.*", "other"));
-    CachePatternMatcher matcher = new CachePatternMatcher(configurationMock);
+    CachePatternMatcher matcher = new CachePatternMatcher(configurationMock, metrics);
     for (String cache :
         ImmutableList.of(
             "groups",
@@ -84,7 +88,7 @@ public class CachePatternMatcherTest {
     String cache = "web_sessions";
     when(configurationMock.cache().patterns()).thenReturn(Collections.emptyList());
     when(configurationMock.websession().synchronize()).thenReturn(false);
-    CachePatternMatcher matcher = new CachePatternMatcher(configurationMock);
+    CachePatternMatcher matcher = new CachePatternMatcher(configurationMock, metrics);
 
     assertWithMessage(cache + " should NOT match when websession.synchronize is false")
         .that(matcher.matches(cache))
@@ -96,10 +100,23 @@ public class CachePatternMatcherTest {
     String cache = "web_sessions";
     when(configurationMock.cache().patterns()).thenReturn(Collections.emptyList());
     when(configurationMock.websession().synchronize()).thenReturn(true);
-    CachePatternMatcher matcher = new CachePatternMatcher(configurationMock);
+    CachePatternMatcher matcher = new CachePatternMatcher(configurationMock, metrics);
 
     assertWithMessage(cache + " should match when websession.synchronize is true")
         .that(matcher.matches(cache))
         .isTrue();
   }
+
+  @Test
+  public void testDecisionIsRecordedForEachRemoval() {
+    when(configurationMock.cache().patterns()).thenReturn(ImmutableList.of("my_plugin.my_cache"));
+    CachePatternMatcher matcher = new CachePatternMatcher(configurationMock, metrics);
+
+    matcher.matches("my_plugin.my_cache");
+    matcher.matches("my_plugin.my_cache");
+    matcher.matches("accounts");
+
+    verify(metrics, times(2)).recordRemoval("my_plugin_my_cache", true);
+    verify(metrics).recordRemoval("accounts", false);
+  }
 }
@@ -0,0 +1,55 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.ericsson.gerrit.plugins.highavailability.cache.HotKeySampler.HotKey;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import org.junit.Test;
+
+public class HotKeySamplerTest {
+  private static final String CACHE = "projects";
+
+  private final HotKeySampler sampler = new HotKeySampler();
+
+  @Test
+  public void mostFrequentlyEvictedKeysAreRetained() {
+    for (int i = 0; i < 1000; i++) {
+      sampler.record(CACHE, "cold" + i);
+      if (i % 10 == 0) {
+        sampler.record(CACHE, "hot");
+      }
+    }
+
+    ImmutableList<HotKey> topKeys = sampler.topKeys();
+    assertThat(topKeys).hasSize(HotKeySampler.TOP_KEYS);
+    assertThat(topKeys.get(0).cache()).isEqualTo(CACHE);
+    assertThat(topKeys.get(0).key()).isEqualTo("hot");
+    assertThat(topKeys.get(0).count()).isAtLeast(100L);
+  }
+
+  @Test
+  public void countsDecayOverTime() {
+    for (int i = 0; i < HotKeySampler.DECAY_INTERVAL; i++) {
+      sampler.record(CACHE, "hot");
+    }
+
+    HotKey hotKey = Iterables.getOnlyElement(sampler.topKeys());
+    assertThat(hotKey.key()).isEqualTo("hot");
+    assertThat(hotKey.count()).isEqualTo((long) HotKeySampler.DECAY_INTERVAL / 2);
+  }
+}
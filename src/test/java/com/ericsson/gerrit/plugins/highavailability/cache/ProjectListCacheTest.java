@@ -0,0 +1,85 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.registration.DynamicMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectListCacheTest {
+  private static final String LIST_KEY = "ALL";
+  private static final Project.NameKey FOO = Project.nameKey("foo");
+  private static final Project.NameKey BAR = Project.nameKey("bar");
+
+  @Mock private DynamicMap<Cache<?, ?>> cacheMap;
+
+  private final Cache<Object, Object> cache = CacheBuilder.newBuilder().build();
+  private ProjectListCache projectListCache;
+
+  @Before
+  public void setUp() {
+    when(cacheMap.get(Constants.GERRIT, Constants.PROJECT_LIST)).thenReturn(cache);
+    projectListCache = new ProjectListCache(cacheMap);
+  }
+
+  @Test
+  public void updatesAreNotAppliedToAListNotLoaded() {
+    assertThat(projectListCache.add(FOO)).isFalse();
+    assertThat(projectListCache.remove(FOO)).isFalse();
+
+    assertThat(cache.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void updatesAreAppliedToTheLoadedListInPlace() {
+    cache.put(LIST_KEY, ImmutableSortedSet.of(FOO));
+
+    assertThat(projectListCache.add(BAR)).isTrue();
+    assertThat(projectListCache.get()).hasValue(ImmutableSortedSet.of(BAR, FOO));
+
+    assertThat(projectListCache.remove(FOO)).isTrue();
+    assertThat(cache.getIfPresent(LIST_KEY)).isEqualTo(ImmutableSortedSet.of(BAR));
+  }
+
+  @Test
+  public void listIsOnlyReplacedWhenUnchangedSinceRead() {
+    cache.put(LIST_KEY, ImmutableSortedSet.of(FOO));
+
+    assertThat(projectListCache.replace(ImmutableSortedSet.of(), ImmutableSortedSet.of(BAR)))
+        .isFalse();
+    assertThat(projectListCache.replace(ImmutableSortedSet.of(FOO), ImmutableSortedSet.of(BAR)))
+        .isTrue();
+    assertThat(projectListCache.get()).hasValue(ImmutableSortedSet.of(BAR));
+  }
+
+  @Test
+  public void listOfAnUnexpectedTypeIsEvicted() {
+    cache.put(LIST_KEY, ImmutableSortedSet.of("foo"));
+
+    assertThat(projectListCache.add(BAR)).isFalse();
+    assertThat(cache.size()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,169 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.event;
+
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.google.gerrit.extensions.registration.DynamicItem;
+import com.google.gerrit.server.events.ProjectEvent;
+import com.google.gerrit.server.git.WorkQueue;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventBatcherTest {
+  @Mock private DynamicItem<Forwarder> forwarderItem;
+  @Mock private Forwarder forwarder;
+  @Mock private WorkQueue workQueue;
+  @Mock private ScheduledExecutorService exec;
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration cfg;
+
+  @Before
+  public void setUp() {
+    when(forwarderItem.get()).thenReturn(forwarder);
+    when(workQueue.getDefaultQueue()).thenReturn(exec);
+    when(cfg.event().batchMaxSize()).thenReturn(100);
+  }
+
+  @Test
+  public void eventIsForwardedImmediatelyWithoutWindow() {
+    when(cfg.event().batchWindow()).thenReturn(Duration.ZERO);
+    EventBatcher batcher = new EventBatcher(forwarderItem, workQueue, cfg);
+    SequencedEvent event = sequenced(1);
+
+    batcher.send(event);
+
+    verify(forwarder).send(event);
+    verify(exec, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+  }
+
+  @Test
+  public void eventsOfTheWindowAreForwardedAsOneBatchInOrder() {
+    when(cfg.event().batchWindow()).thenReturn(Duration.ofMillis(50));
+    EventBatcher batcher = new EventBatcher(forwarderItem, workQueue, cfg);
+    SequencedEvent first = sequenced(1);
+    SequencedEvent second = sequenced(2);
+    SequencedEvent third = sequenced(3);
+
+    batcher.send(first);
+    batcher.send(second);
+    batcher.send(third);
+    verifyNoInteractions(forwarder);
+
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec, times(1)).schedule(flush.capture(), eq(50L), eq(TimeUnit.MILLISECONDS));
+    flush.getValue().run();
+
+    verify(forwarder).sendAll(List.of(first, second, third));
+    verify(forwarder, never()).send(any());
+  }
+
+  @Test
+  public void singleEventOfTheWindowIsForwardedOnItsOwn() {
+    when(cfg.event().batchWindow()).thenReturn(Duration.ofMillis(50));
+    EventBatcher batcher = new EventBatcher(forwarderItem, workQueue, cfg);
+    SequencedEvent event = sequenced(1);
+
+    batcher.send(event);
+
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec).schedule(flush.capture(), eq(50L), eq(TimeUnit.MILLISECONDS));
+    flush.getValue().run();
+
+    verify(forwarder).send(event);
+    verify(forwarder, never()).sendAll(any());
+  }
+
+  @Test
+  public void newWindowIsStartedAfterFlush() {
+    when(cfg.event().batchWindow()).thenReturn(Duration.ofMillis(50));
+    EventBatcher batcher = new EventBatcher(forwarderItem, workQueue, cfg);
+
+    batcher.send(sequenced(1));
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec).schedule(flush.capture(), eq(50L), eq(TimeUnit.MILLISECONDS));
+    flush.getValue().run();
+    batcher.send(sequenced(2));
+
+    verify(exec, times(2)).schedule(any(Runnable.class), eq(50L), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void fullBatchIsForwardedWithoutWaitingForTheWindow() {
+    when(cfg.event().batchWindow()).thenReturn(Duration.ofMillis(50));
+    when(cfg.event().batchMaxSize()).thenReturn(2);
+    EventBatcher batcher = new EventBatcher(forwarderItem, workQueue, cfg);
+    SequencedEvent first = sequenced(1);
+    SequencedEvent second = sequenced(2);
+    SequencedEvent third = sequenced(3);
+
+    batcher.send(first);
+    batcher.send(second);
+    verify(forwarder).sendAll(List.of(first, second));
+
+    batcher.send(third);
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec, times(2)).schedule(flush.capture(), eq(50L), eq(TimeUnit.MILLISECONDS));
+    flush.getAllValues().get(0).run();
+    verify(forwarder, never()).send(any());
+
+    flush.getAllValues().get(1).run();
+    verify(forwarder).send(third);
+  }
+
+  @Test
+  public void pendingEventsAreForwardedWhenStopped() {
+    when(cfg.event().batchWindow()).thenReturn(Duration.ofMillis(50));
+    EventBatcher batcher = new EventBatcher(forwarderItem, workQueue, cfg);
+    SequencedEvent first = sequenced(1);
+    SequencedEvent second = sequenced(2);
+
+    batcher.send(first);
+    batcher.send(second);
+    batcher.stop();
+    verify(forwarder).sendAll(List.of(first, second));
+
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec).schedule(flush.capture(), eq(50L), eq(TimeUnit.MILLISECONDS));
+    flush.getValue().run();
+    verify(forwarder, times(1)).sendAll(any());
+  }
+
+  private static SequencedEvent sequenced(long sequence) {
+    return new SequencedEvent(mock(ProjectEvent.class), "origin", sequence);
+  }
+}
@@ -0,0 +1,127 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.event;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.common.base.Suppliers;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.data.ApprovalAttribute;
+import com.google.gerrit.server.data.PatchAttribute;
+import com.google.gerrit.server.data.PatchSetAttribute;
+import com.google.gerrit.server.events.Event;
+import com.google.gerrit.server.events.EventGsonProvider;
+import com.google.gerrit.server.events.PatchSetCreatedEvent;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventFilterTest {
+  private static final String PROJECT = "platform/base";
+  private static final String REVISION = "4b825dc642cb6eb9a060e54bf8d69288fbee4904";
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration cfg;
+
+  private EventFilter newFilter(Set<String> types, List<String> projects, List<String> excluded) {
+    when(cfg.event().types()).thenReturn(types);
+    when(cfg.event().projects()).thenReturn(projects);
+    when(cfg.event().excludedAttributes()).thenReturn(excluded);
+    return new EventFilter(cfg, new EventGsonProvider().get());
+  }
+
+  @Test
+  public void allEventsAreForwardedByDefault() {
+    EventFilter filter = newFilter(Set.of(), List.of(), List.of());
+    PatchSetCreatedEvent event = patchSetCreated(PROJECT);
+
+    assertThat(filter.isForwarded(event)).isTrue();
+    assertThat(filter.project(event)).isSameInstanceAs(event);
+  }
+
+  @Test
+  public void eventsOfOtherTypesAreNotForwarded() {
+    EventFilter filter = newFilter(Set.of("ref-updated"), List.of(), List.of());
+
+    assertThat(filter.isForwarded(patchSetCreated(PROJECT))).isFalse();
+  }
+
+  @Test
+  public void eventsOfConfiguredTypesAreForwarded() {
+    EventFilter filter = newFilter(Set.of(PatchSetCreatedEvent.TYPE), List.of(), List.of());
+
+    assertThat(filter.isForwarded(patchSetCreated(PROJECT))).isTrue();
+  }
+
+  @Test
+  public void eventsOfProjectsMatchingPatternsAreForwarded() {
+    EventFilter filter = newFilter(Set.of(), List.of("platform/.*", "tools"), List.of());
+
+    assertThat(filter.isForwarded(patchSetCreated(PROJECT))).isTrue();
+    assertThat(filter.isForwarded(patchSetCreated("tools"))).isTrue();
+    assertThat(filter.isForwarded(patchSetCreated("tools/other"))).isFalse();
+  }
+
+  @Test
+  public void excludedAttributesAreRemovedFromForwardedCopy() {
+    EventFilter filter =
+        newFilter(Set.of(), List.of(), List.of("patchSet.approvals", "patchSet.files"));
+    PatchSetCreatedEvent event = patchSetCreated(PROJECT);
+
+    Event projection = filter.project(event);
+
+    assertThat(projection).isInstanceOf(PatchSetCreatedEvent.class);
+    PatchSetAttribute patchSet = ((PatchSetCreatedEvent) projection).patchSet.get();
+    assertThat(patchSet.revision).isEqualTo(REVISION);
+    assertThat(patchSet.approvals).isNull();
+    assertThat(patchSet.files).isNull();
+    assertThat(event.patchSet.get().approvals).hasSize(1);
+    assertThat(event.patchSet.get().files).hasSize(1);
+  }
+
+  private static PatchSetCreatedEvent patchSetCreated(String project) {
+    Change change =
+        new Change(
+            Change.key("I0123456789abcdef0123456789abcdef01234567"),
+            Change.id(1),
+            Account.id(1000000),
+            BranchNameKey.create(Project.nameKey(project), "master"),
+            Instant.now());
+    PatchSetCreatedEvent event = new PatchSetCreatedEvent(change);
+    PatchSetAttribute patchSet = new PatchSetAttribute();
+    patchSet.number = 1;
+    patchSet.revision = REVISION;
+    ApprovalAttribute approval = new ApprovalAttribute();
+    approval.type = "Code-Review";
+    approval.value = "2";
+    patchSet.approvals = List.of(approval);
+    PatchAttribute file = new PatchAttribute();
+    file.file = "README.md";
+    patchSet.files = List.of(file);
+    event.patchSet = Suppliers.ofInstance(patchSet);
+    return event;
+  }
+}
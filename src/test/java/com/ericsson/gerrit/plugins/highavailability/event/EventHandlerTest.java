@@ -17,13 +17,13 @@ package com.ericsson.gerrit.plugins.highavailability.event;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 import com.ericsson.gerrit.plugins.highavailability.forwarder.Context;
-import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder;
-import com.google.gerrit.extensions.registration.DynamicItem;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.google.gerrit.entities.Project;
 import com.google.gerrit.server.events.Event;
 import com.google.gerrit.server.events.ProjectEvent;
-import com.google.inject.Inject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -32,28 +32,76 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
 public class EventHandlerTest {
+  private static final Project.NameKey PROJECT = Project.nameKey("foo");
+
   private EventHandler eventHandler;
 
-  @Mock private Forwarder forwarder;
-  @Inject DynamicItem<Forwarder> forwarderItem;
+  @Mock private EventBatcher batcher;
+  @Mock private EventFilter filter;
+  @Mock private EventSequencer sequencer;
+  @Mock private EventJournal journal;
 
   @Before
   public void setUp() {
-    forwarderItem = DynamicItem.itemOf(Forwarder.class, forwarder);
-    eventHandler = new EventHandler(forwarderItem);
+    eventHandler = new EventHandler(batcher, filter, sequencer, journal);
   }
 
   @Test
   public void shouldForwardAnyProjectEvent() throws Exception {
-    Event event = mock(ProjectEvent.class);
+    ProjectEvent event = projectEvent();
+    SequencedEvent sequenced = new SequencedEvent(event, "origin", 1);
+    when(filter.isForwarded(event)).thenReturn(true);
+    when(filter.project(event)).thenReturn(event);
+    when(sequencer.next(PROJECT, event)).thenReturn(sequenced);
+    when(journal.append(sequenced)).thenReturn(sequenced);
+    eventHandler.onEvent(event);
+    verify(batcher).send(sequenced);
+  }
+
+  @Test
+  public void shouldForwardEventWithItsJournalPosition() throws Exception {
+    ProjectEvent event = projectEvent();
+    SequencedEvent sequenced = new SequencedEvent(event, "origin", 1);
+    SequencedEvent journaled = sequenced.journaled("journal", 7);
+    when(filter.isForwarded(event)).thenReturn(true);
+    when(filter.project(event)).thenReturn(event);
+    when(sequencer.next(PROJECT, event)).thenReturn(sequenced);
+    when(journal.append(sequenced)).thenReturn(journaled);
+    eventHandler.onEvent(event);
+    verify(batcher).send(journaled);
+  }
+
+  @Test
+  public void shouldForwardProjectionOfEvent() throws Exception {
+    ProjectEvent event = projectEvent();
+    Event projection = mock(ProjectEvent.class);
+    SequencedEvent sequenced = new SequencedEvent(projection, "origin", 1);
+    when(filter.isForwarded(event)).thenReturn(true);
+    when(filter.project(event)).thenReturn(projection);
+    when(sequencer.next(PROJECT, projection)).thenReturn(sequenced);
+    when(journal.append(sequenced)).thenReturn(sequenced);
+    eventHandler.onEvent(event);
+    verify(batcher).send(sequenced);
+  }
+
+  private static ProjectEvent projectEvent() {
+    ProjectEvent event = mock(ProjectEvent.class);
+    when(event.getProjectNameKey()).thenReturn(PROJECT);
+    return event;
+  }
+
+  @Test
+  public void shouldNotForwardFilteredOutEvent() throws Exception {
+    ProjectEvent event = mock(ProjectEvent.class);
+    when(filter.isForwarded(event)).thenReturn(false);
     eventHandler.onEvent(event);
-    verify(forwarder).send(event);
+    verifyNoInteractions(batcher);
   }
 
   @Test
   public void shouldNotForwardNonProjectEvent() throws Exception {
     eventHandler.onEvent(mock(Event.class));
-    verifyNoInteractions(forwarder);
+    verifyNoInteractions(batcher);
   }
 
   @Test
@@ -61,6 +109,6 @@ public class EventHandlerTest {
     Context.setForwardedEvent(true);
     eventHandler.onEvent(mock(ProjectEvent.class));
     Context.unsetForwardedEvent();
-    verifyNoInteractions(forwarder);
+    verifyNoInteractions(batcher);
   }
 }
@@ -0,0 +1,243 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.event;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.google.gerrit.server.events.EventGsonProvider;
+import com.google.gerrit.server.events.ProjectCreatedEvent;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gson.Gson;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventJournalTest {
+  private static final long MAX_SIZE = 1024 * 1024;
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration cfg;
+
+  @Mock private WorkQueue queue;
+  @Mock private ScheduledExecutorService writer;
+  @Captor private ArgumentCaptor<Runnable> writeCaptor;
+
+  private final Gson gson = new EventGsonProvider().get();
+
+  private EventJournal newJournal(boolean enabled, long maxSize) {
+    when(cfg.event().journal()).thenReturn(enabled);
+    when(cfg.event().journalMaxSize()).thenReturn(maxSize);
+    when(cfg.event().journalMaxAge()).thenReturn(Duration.ofDays(1));
+    if (enabled) {
+      when(queue.createQueue(anyInt(), anyString())).thenReturn(writer);
+      // Writes when appending, unless a test holds them back
+      lenient()
+          .doAnswer(
+              invocation -> {
+                invocation.getArgument(0, Runnable.class).run();
+                return null;
+              })
+          .when(writer)
+          .execute(any());
+    }
+    EventJournal journal = new EventJournal(tempFolder.getRoot().toPath(), cfg, gson, queue);
+    journal.start();
+    return journal;
+  }
+
+  @Test
+  public void eventsAreNotJournaledWhenDisabled() {
+    EventJournal journal = newJournal(false, MAX_SIZE);
+    SequencedEvent event = sequenced(1);
+
+    assertThat(journal.append(event)).isSameInstanceAs(event);
+    assertThat(journal.info()).isEmpty();
+  }
+
+  @Test
+  public void journaledEventsAreReadAfterAPosition() throws Exception {
+    EventJournal journal = newJournal(true, MAX_SIZE);
+    for (int i = 1; i <= 3; i++) {
+      SequencedEvent journaled = journal.append(sequenced(i));
+      assertThat(journaled.getJournalPosition()).isEqualTo(i);
+    }
+
+    EventJournal.Info info = journal.info().get();
+    assertThat(info.first()).isEqualTo(1);
+    assertThat(info.last()).isEqualTo(3);
+    assertThat(positions(journal.readAfter(1, 10))).containsExactly(2L, 3L).inOrder();
+    assertThat(positions(journal.readAfter(0, 2))).containsExactly(1L, 2L).inOrder();
+    assertThat(journal.readAfter(3, 10)).isEmpty();
+  }
+
+  @Test
+  public void journaledEventsKeepTheirSequence() throws Exception {
+    EventJournal journal = newJournal(true, MAX_SIZE);
+    journal.append(sequenced(5));
+
+    SequencedEvent read = gson.fromJson(journal.readAfter(0, 1).get(0), SequencedEvent.class);
+    assertThat(read.getOrigin()).isEqualTo("origin");
+    assertThat(read.getSequence()).isEqualTo(5);
+    assertThat(read.getJournal()).isEqualTo(journal.info().get().id());
+    assertThat(read.getEvent()).isInstanceOf(ProjectCreatedEvent.class);
+  }
+
+  @Test
+  public void positionIsRecoveredAfterRestart() throws Exception {
+    EventJournal journal = newJournal(true, MAX_SIZE);
+    journal.append(sequenced(1));
+    journal.append(sequenced(2));
+    String id = journal.info().get().id();
+    journal.stop();
+
+    journal = newJournal(true, MAX_SIZE);
+    SequencedEvent journaled = journal.append(sequenced(3));
+
+    assertThat(journaled.getJournal()).isEqualTo(id);
+    assertThat(journaled.getJournalPosition()).isEqualTo(3);
+    assertThat(positions(journal.readAfter(0, 10))).containsExactly(1L, 2L, 3L).inOrder();
+  }
+
+  @Test
+  public void eventsAreWrittenByTheWriter() throws Exception {
+    EventJournal journal = newJournal(true, MAX_SIZE);
+    doNothing().when(writer).execute(any());
+    journal.append(sequenced(1));
+    journal.append(sequenced(2));
+    Path journalDir = tempFolder.getRoot().toPath().resolve(EventJournal.JOURNAL_DIR);
+    assertThat(segmentsIn(journalDir)).isEmpty();
+
+    // A single write is scheduled for the events appended meanwhile
+    verify(writer).execute(writeCaptor.capture());
+    writeCaptor.getValue().run();
+
+    List<Path> segments = segmentsIn(journalDir);
+    assertThat(segments).hasSize(1);
+    List<String> lines = Files.readAllLines(segments.get(0));
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(0)).startsWith("1 {");
+    assertThat(lines.get(1)).startsWith("2 {");
+  }
+
+  @Test
+  public void eventsAreReadableBeforeTheyAreWritten() throws Exception {
+    EventJournal journal = newJournal(true, MAX_SIZE);
+    doNothing().when(writer).execute(any());
+    journal.append(sequenced(1));
+
+    assertThat(positions(journal.readAfter(0, 10))).containsExactly(1L);
+  }
+
+  @Test
+  public void positionsPossiblyUnwrittenAreSkippedWhenNotStopped() throws Exception {
+    EventJournal journal = newJournal(true, MAX_SIZE);
+    journal.append(sequenced(1));
+
+    journal = newJournal(true, MAX_SIZE);
+    SequencedEvent journaled = journal.append(sequenced(2));
+
+    assertThat(journaled.getJournalPosition()).isEqualTo(EventJournal.MAX_UNWRITTEN + 2);
+    assertThat(positions(journal.readAfter(0, 10)))
+        .containsExactly(1L, EventJournal.MAX_UNWRITTEN + 2L)
+        .inOrder();
+  }
+
+  @Test
+  public void partiallyWrittenEventIsNotRead() throws Exception {
+    EventJournal journal = newJournal(true, MAX_SIZE);
+    journal.append(sequenced(1));
+    journal.stop();
+    Path journalDir = tempFolder.getRoot().toPath().resolve(EventJournal.JOURNAL_DIR);
+    Files.writeString(segmentsIn(journalDir).get(0), "2 {\"event\":", APPEND);
+
+    journal = newJournal(true, MAX_SIZE);
+
+    assertThat(journal.info().get().last()).isEqualTo(1);
+    assertThat(positions(journal.readAfter(0, 10))).containsExactly(1L);
+  }
+
+  @Test
+  public void emptyJournalStartsOverWithANewId() throws Exception {
+    EventJournal journal = newJournal(true, MAX_SIZE);
+    String id = journal.info().get().id();
+    journal.stop();
+
+    journal = newJournal(true, MAX_SIZE);
+
+    assertThat(journal.info().get().id()).isNotEqualTo(id);
+  }
+
+  @Test
+  public void oldestEventsArePrunedBeyondMaxSize() throws Exception {
+    // Segments of 100 bytes hold a single event each
+    EventJournal journal = newJournal(true, 400);
+    for (int i = 1; i <= 10; i++) {
+      journal.append(sequenced(i));
+    }
+
+    EventJournal.Info info = journal.info().get();
+    assertThat(info.first()).isGreaterThan(1);
+    assertThat(info.last()).isEqualTo(10);
+    List<Long> positions = positions(journal.readAfter(0, 10));
+    assertThat(positions.get(0)).isEqualTo(info.first());
+    assertThat(positions.get(positions.size() - 1)).isEqualTo(10);
+  }
+
+  private static List<Path> segmentsIn(Path journalDir) throws Exception {
+    try (Stream<Path> files = Files.list(journalDir)) {
+      return files
+          .filter(f -> f.getFileName().toString().endsWith(EventJournal.SEGMENT_SUFFIX))
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static SequencedEvent sequenced(long sequence) {
+    ProjectCreatedEvent event = new ProjectCreatedEvent();
+    event.projectName = "foo";
+    return new SequencedEvent(event, "origin", sequence);
+  }
+
+  private List<Long> positions(List<String> events) {
+    return events.stream()
+        .map(e -> gson.fromJson(e, SequencedEvent.class).getJournalPosition())
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,138 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.AccountGroup;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.gerrit.server.events.EventGsonProvider;
+import com.google.gson.Gson;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheKeyCodecsTest {
+  private static final String PLUGIN_CACHE = "my_plugin.my_cache";
+
+  private final Gson gson = new EventGsonProvider().get();
+
+  @Mock private DynamicMap<CacheKeyCodec> pluginCodecs;
+  private CacheKeyCodecs objectUnderTest;
+
+  @Before
+  public void setUp() {
+    objectUnderTest = new CacheKeyCodecs(pluginCodecs, ForwarderModule.buildRestGson(gson));
+  }
+
+  @Test
+  public void accountIdIsDecoded() {
+    Account.Id accountId = Account.id(1);
+    String json = gson.toJson(accountId);
+    assertThat(objectUnderTest.decode(Constants.ACCOUNTS, json)).isEqualTo(accountId);
+  }
+
+  @Test
+  public void accountGroupIdIsDecoded() {
+    AccountGroup.Id accountGroupId = AccountGroup.id(1);
+    String json = gson.toJson(accountGroupId);
+    assertThat(objectUnderTest.decode(Constants.GROUPS, json)).isEqualTo(accountGroupId);
+  }
+
+  @Test
+  public void accountGroupUuidIsDecoded() {
+    AccountGroup.UUID accountGroupUuid = AccountGroup.uuid("abc123");
+    String json = gson.toJson(accountGroupUuid);
+    assertThat(objectUnderTest.decode(Constants.GROUPS_BYINCLUDE, json))
+        .isEqualTo(accountGroupUuid);
+  }
+
+  @Test
+  public void projectNameKeyIsDecoded() {
+    Project.NameKey name = Project.nameKey("foo");
+    String json = gson.toJson(name);
+    assertThat(objectUnderTest.decode(Constants.PROJECTS, json)).isEqualTo(name);
+  }
+
+  @Test
+  public void builtInKeysAreEncodedAsBefore() {
+    Account.Id accountId = Account.id(1);
+    AccountGroup.UUID groupUuid = AccountGroup.uuid("abc123");
+    assertThat(objectUnderTest.encode(Constants.ACCOUNTS, accountId))
+        .isEqualTo(gson.toJson(accountId));
+    assertThat(objectUnderTest.encode(Constants.GROUPS_MEMBERS, groupUuid))
+        .isEqualTo(gson.toJson(groupUuid));
+    assertThat(objectUnderTest.encode(Constants.PROJECTS, Project.nameKey("foo")))
+        .isEqualTo(gson.toJson("foo"));
+  }
+
+  @Test
+  public void stringKeyOfOtherCacheIsDecoded() {
+    String key = "key";
+    String json = gson.toJson(key);
+    assertThat(objectUnderTest.decode("string-keyed-cache", json)).isEqualTo(key);
+  }
+
+  @Test
+  public void objectKeyOfOtherCacheIsDecodedAsMap() {
+    assertThat(objectUnderTest.decode("object-keyed-cache", "{\"a\":\"b\"}"))
+        .isEqualTo(Map.of("a", "b"));
+  }
+
+  @Test
+  public void missingKeyIsDecodedAsNull() {
+    assertThat(objectUnderTest.decode(Constants.ACCOUNTS, "{}")).isNull();
+    assertThat(objectUnderTest.decode("string-keyed-cache", "")).isNull();
+  }
+
+  @Test
+  public void keyOfPluginCacheWithoutCodecIsEncodedByTheRestGson() {
+    Instant key = Instant.ofEpochMilli(1000);
+
+    assertThat(objectUnderTest.encode(PLUGIN_CACHE, key))
+        .isEqualTo(ForwarderModule.buildRestGson(gson).toJson(key));
+  }
+
+  @Test
+  public void keyOfPluginCacheIsDecodedByItsCodec() {
+    when(pluginCodecs.get("my_plugin", "my_cache")).thenReturn(new StringBytesCodec());
+    String encoded = objectUnderTest.encode(PLUGIN_CACHE, "key");
+
+    assertThat(encoded).isEqualTo(gson.toJson("a2V5"));
+    assertThat(objectUnderTest.decode(PLUGIN_CACHE, encoded)).isEqualTo("key");
+  }
+
+  private static class StringBytesCodec extends BinaryCacheKeyCodec {
+    @Override
+    protected byte[] toBytes(Object key) {
+      return ((String) key).getBytes(UTF_8);
+    }
+
+    @Override
+    protected Object fromBytes(byte[] bytes) {
+      return new String(bytes, UTF_8);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EventJournalCursorsTest {
+  private static final String JOURNAL = "e4d1c5a8-journal";
+  private static final String OTHER_JOURNAL = "0b7f2e91-journal";
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path dataDir;
+
+  @Before
+  public void setUp() throws Exception {
+    dataDir = tempFolder.newFolder().toPath();
+  }
+
+  @Test
+  public void cursorIsEmptyForUnknownJournal() {
+    assertThat(new EventJournalCursors(dataDir).get(JOURNAL)).isEmpty();
+  }
+
+  @Test
+  public void cursorOnlyMovesForward() {
+    EventJournalCursors cursors = new EventJournalCursors(dataDir);
+    cursors.markDispatched(JOURNAL, 20);
+    cursors.markDispatched(JOURNAL, 10);
+
+    assertThat(cursors.get(JOURNAL)).hasValue(20L);
+    assertThat(cursors.get(OTHER_JOURNAL)).isEmpty();
+  }
+
+  @Test
+  public void cursorIsPersistedWhenFlushed() {
+    EventJournalCursors cursors = new EventJournalCursors(dataDir);
+    cursors.markDispatched(JOURNAL, 10);
+    assertThat(new EventJournalCursors(dataDir).get(JOURNAL)).isEmpty();
+
+    cursors.flush();
+    assertThat(new EventJournalCursors(dataDir).get(JOURNAL)).hasValue(10L);
+  }
+
+  @Test
+  public void cursorStopsAtTheFirstEventNotDispatched() {
+    EventJournalCursors cursors = new EventJournalCursors(dataDir);
+    cursors.markDispatched(JOURNAL, 10);
+    cursors.markDispatched(JOURNAL, 12);
+    cursors.markDispatched(JOURNAL, 13);
+
+    assertThat(cursors.get(JOURNAL)).hasValue(10L);
+    assertThat(cursors.isDispatched(JOURNAL, 11)).isFalse();
+    assertThat(cursors.isDispatched(JOURNAL, 12)).isTrue();
+
+    cursors.markDispatched(JOURNAL, 11);
+    assertThat(cursors.get(JOURNAL)).hasValue(13L);
+  }
+
+  @Test
+  public void eventIsOnlyMarkedDispatchedOnce() {
+    EventJournalCursors cursors = new EventJournalCursors(dataDir);
+
+    assertThat(cursors.markDispatched(JOURNAL, 10)).isTrue();
+    assertThat(cursors.markDispatched(JOURNAL, 12)).isTrue();
+    assertThat(cursors.markDispatched(JOURNAL, 12)).isFalse();
+    assertThat(cursors.markDispatched(JOURNAL, 10)).isFalse();
+    assertThat(cursors.markDispatched(JOURNAL, 11)).isTrue();
+  }
+
+  @Test
+  public void onlyTheEventsDispatchedInSequenceArePersisted() {
+    EventJournalCursors cursors = new EventJournalCursors(dataDir);
+    cursors.markDispatched(JOURNAL, 10);
+    cursors.markDispatched(JOURNAL, 12);
+    cursors.flush();
+
+    EventJournalCursors restarted = new EventJournalCursors(dataDir);
+    assertThat(restarted.get(JOURNAL)).hasValue(10L);
+    assertThat(restarted.isDispatched(JOURNAL, 12)).isFalse();
+  }
+
+  @Test
+  public void skippedEventsAreDispatched() {
+    EventJournalCursors cursors = new EventJournalCursors(dataDir);
+    cursors.markDispatched(JOURNAL, 10);
+    cursors.markDispatched(JOURNAL, 15);
+    cursors.markDispatched(JOURNAL, 20);
+
+    cursors.skipTo(JOURNAL, 14);
+    assertThat(cursors.get(JOURNAL)).hasValue(15L);
+
+    cursors.skipTo(OTHER_JOURNAL, 30);
+    assertThat(cursors.get(OTHER_JOURNAL)).hasValue(30L);
+  }
+
+  @Test
+  public void oldestEventsNotDispatchedAreGivenUpOn() {
+    EventJournalCursors cursors = new EventJournalCursors(dataDir);
+    cursors.markDispatched(JOURNAL, 1);
+    for (long position = 3; position <= EventJournalCursors.MAX_DISPATCHED_AHEAD + 3; position++) {
+      cursors.markDispatched(JOURNAL, position);
+    }
+
+    assertThat(cursors.get(JOURNAL)).hasValue(EventJournalCursors.MAX_DISPATCHED_AHEAD + 3L);
+  }
+}
@@ -17,6 +17,7 @@ package com.ericsson.gerrit.plugins.highavailability.forwarder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 import com.google.gerrit.extensions.registration.DynamicSet;
 import com.google.gerrit.server.events.Event;
@@ -30,6 +31,7 @@ public class ForwardedAwareEventBrokerTest {
 
   private EventListener listenerMock;
   private AllowedForwardedEventListener allowListenerMock;
+  private ForwardedEventListenerDispatcher listenerDispatcherMock;
   private ForwardedAwareEventBroker broker;
   private Event event = new TestEvent();
 
@@ -38,11 +40,13 @@ public class ForwardedAwareEventBrokerTest {
     PluginMetrics mockMetrics = mock(PluginMetrics.class);
     listenerMock = mock(EventListener.class);
     allowListenerMock = mock(AllowedForwardedEventListener.class);
+    listenerDispatcherMock = mock(ForwardedEventListenerDispatcher.class);
     DynamicSet<EventListener> set = DynamicSet.emptySet();
     set.add("high-availability", listenerMock);
     PluginSetContext<EventListener> listeners = new PluginSetContext<>(set, mockMetrics);
     broker =
-        new ForwardedAwareEventBroker(null, listeners, null, null, null, null, allowListenerMock);
+        new ForwardedAwareEventBroker(
+            null, listeners, null, null, null, null, allowListenerMock, listenerDispatcherMock);
   }
 
   @Test
@@ -59,6 +63,19 @@ public class ForwardedAwareEventBrokerTest {
     } finally {
       Context.unsetForwardedEvent();
     }
+    verifyNoInteractions(listenerMock, listenerDispatcherMock);
+  }
+
+  @Test
+  public void shouldHandForwardedEventsOverToAllowedListenersQueue() {
+    when(allowListenerMock.isAllowed(listenerMock)).thenReturn(true);
+    Context.setForwardedEvent(true);
+    try {
+      broker.fireEventForUnrestrictedListeners(event);
+    } finally {
+      Context.unsetForwardedEvent();
+    }
+    verify(listenerDispatcherMock).dispatch(listenerMock, event);
     verifyNoInteractions(listenerMock);
   }
 }
@@ -24,6 +24,7 @@ import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
 import com.google.common.cache.Cache;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.extensions.registration.DynamicMap;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,11 +37,12 @@ public class ForwardedCacheEvictionHandlerTest {
 
   @Mock private DynamicMap<Cache<?, ?>> cacheMapMock;
   @Mock private Cache<?, ?> cacheMock;
+  @Mock private ForwardedCacheRefresher refresherMock;
   private ForwardedCacheEvictionHandler handler;
 
   @Before
   public void setUp() throws Exception {
-    handler = new ForwardedCacheEvictionHandler(cacheMapMock);
+    handler = new ForwardedCacheEvictionHandler(cacheMapMock, refresherMock);
   }
 
   @Test
@@ -60,6 +62,20 @@ public class ForwardedCacheEvictionHandlerTest {
 
     handler.evict(entry);
     verify(cacheMock).invalidate(entry.getKey());
+    verify(refresherMock).refresh(entry, cacheMock);
+  }
+
+  @Test
+  public void testSuccessfulBatchCacheEviction() throws Exception {
+    List<Account.Id> keys = List.of(Account.id(123), Account.id(456));
+    doReturn(cacheMock).when(cacheMapMock).get(Constants.GERRIT, Constants.ACCOUNTS);
+
+    handler.evictAll(Constants.ACCOUNTS, keys);
+    verify(cacheMock).invalidateAll(keys);
+    for (Account.Id key : keys) {
+      verify(refresherMock)
+          .refresh(new CacheEntry(Constants.GERRIT, Constants.ACCOUNTS, key), cacheMock);
+    }
   }
 
   @Test
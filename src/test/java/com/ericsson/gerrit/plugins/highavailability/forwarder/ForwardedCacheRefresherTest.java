@@ -0,0 +1,97 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
+import com.google.common.cache.LoadingCache;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.git.WorkQueue;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ForwardedCacheRefresherTest {
+  private static final Project.NameKey KEY = Project.nameKey("someProject");
+
+  @Mock private WorkQueue workQueue;
+  @Mock private ScheduledExecutorService exec;
+  @Mock private LoadingCache<Project.NameKey, Object> cache;
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration cfg;
+
+  private ForwardedCacheRefresher refresher;
+
+  @Before
+  public void setUp() {
+    when(cfg.cache().refreshAhead()).thenReturn(Set.of(Constants.PROJECTS));
+    refresher = new ForwardedCacheRefresher(cfg, workQueue);
+  }
+
+  @Test
+  public void evictedEntryOfConfiguredCacheIsReloaded() throws Exception {
+    when(workQueue.createQueue(anyInt(), anyString())).thenReturn(exec);
+
+    refresher.refresh(new CacheEntry(Constants.GERRIT, Constants.PROJECTS, KEY), cache);
+
+    ArgumentCaptor<Runnable> reload = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec).execute(reload.capture());
+    reload.getValue().run();
+    verify(cache).get(KEY);
+  }
+
+  @Test
+  public void pendingReloadIsNotQueuedAgain() {
+    when(workQueue.createQueue(anyInt(), anyString())).thenReturn(exec);
+    CacheEntry entry = new CacheEntry(Constants.GERRIT, Constants.PROJECTS, KEY);
+
+    refresher.refresh(entry, cache);
+    refresher.refresh(entry, cache);
+
+    verify(exec).execute(any());
+  }
+
+  @Test
+  public void evictedEntryOfOtherCacheIsNotReloaded() {
+    refresher.refresh(new CacheEntry(Constants.GERRIT, Constants.ACCOUNTS, KEY), cache);
+
+    verifyNoInteractions(workQueue, cache);
+  }
+
+  @Test
+  public void refreshPoolIsShutDownWhenStopped() {
+    when(workQueue.createQueue(anyInt(), anyString())).thenReturn(exec);
+    refresher.refresh(new CacheEntry(Constants.GERRIT, Constants.PROJECTS, KEY), cache);
+
+    refresher.stop();
+
+    verify(exec).shutdownNow();
+  }
+}
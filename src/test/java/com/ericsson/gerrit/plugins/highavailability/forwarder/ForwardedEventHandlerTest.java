@@ -15,8 +15,11 @@
 package com.ericsson.gerrit.plugins.highavailability.forwarder;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 import com.google.gerrit.server.events.Event;
 import com.google.gerrit.server.events.EventDispatcher;
@@ -25,6 +28,7 @@ import com.google.gerrit.server.permissions.PermissionBackendException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
@@ -33,11 +37,13 @@ import org.mockito.stubbing.Answer;
 public class ForwardedEventHandlerTest {
 
   @Mock private EventDispatcher dispatcherMock;
+  @Mock private ForwardedEventReorderBuffer reorderBufferMock;
+  @Mock private EventJournalCursors journalCursorsMock;
   private ForwardedEventHandler handler;
 
   @Before
   public void setUp() throws Exception {
-    handler = new ForwardedEventHandler(dispatcherMock);
+    handler = new ForwardedEventHandler(dispatcherMock, reorderBufferMock, journalCursorsMock);
   }
 
   @Test
@@ -47,6 +53,44 @@ public class ForwardedEventHandlerTest {
     verify(dispatcherMock).postEvent(event);
   }
 
+  @Test
+  public void unsequencedEventIsDispatchedImmediately() throws Exception {
+    Event event = new ProjectCreatedEvent();
+    handler.dispatch(SequencedEvent.unsequenced(event));
+    verify(dispatcherMock).postEvent(event);
+    verifyNoInteractions(reorderBufferMock, journalCursorsMock);
+  }
+
+  @Test
+  public void sequencedEventIsDispatchedInOrderOfItsProject() throws Exception {
+    ProjectCreatedEvent event = new ProjectCreatedEvent();
+    event.projectName = "foo";
+    handler.dispatch(new SequencedEvent(event, "origin", 7));
+
+    ArgumentCaptor<Runnable> dispatch = ArgumentCaptor.forClass(Runnable.class);
+    verify(reorderBufferMock).add(eq("origin"), eq("foo"), eq(7L), dispatch.capture());
+    verifyNoInteractions(dispatcherMock);
+
+    dispatch.getValue().run();
+    verify(dispatcherMock).postEvent(event);
+  }
+
+  @Test
+  public void journaledEventIsMarkedDispatchedInItsJournal() throws Exception {
+    Event event = new ProjectCreatedEvent();
+    when(journalCursorsMock.markDispatched("journal", 42)).thenReturn(true);
+    handler.dispatch(SequencedEvent.unsequenced(event).journaled("journal", 42));
+    verify(dispatcherMock).postEvent(event);
+  }
+
+  @Test
+  public void journaledEventAlreadyDispatchedIsNotDispatchedAgain() throws Exception {
+    Event event = new ProjectCreatedEvent();
+    when(journalCursorsMock.markDispatched("journal", 42)).thenReturn(false);
+    handler.dispatch(SequencedEvent.unsequenced(event).journaled("journal", 42));
+    verifyNoInteractions(dispatcherMock);
+  }
+
   @Test
   public void shouldSetAndUnsetForwardedContext() throws Exception {
     Event event = new ProjectCreatedEvent();
@@ -0,0 +1,187 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import static com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedEventListenerDispatcher.FORWARDED_EVENT_LISTENER_THREAD_PREFIX;
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.gerrit.server.events.Event;
+import com.google.gerrit.server.events.EventListener;
+import com.google.gerrit.server.events.ProjectCreatedEvent;
+import com.google.gerrit.server.git.WorkQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ForwardedEventListenerDispatcherTest {
+  @Mock private WorkQueue workQueue;
+  @Mock private ScheduledExecutorService exec;
+  @Mock private ForwardedEventListenerMetrics metrics;
+  @Mock private EventListener listener;
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration cfg;
+
+  private final List<Runnable> tasks = new ArrayList<>();
+  private final Event first = new ProjectCreatedEvent();
+  private final Event second = new ProjectCreatedEvent();
+
+  private ForwardedEventListenerDispatcher newDispatcher(int threadPoolSize, int maxQueuedEvents) {
+    when(cfg.event().threadPoolSize()).thenReturn(threadPoolSize);
+    when(cfg.event().maxQueuedEvents()).thenReturn(maxQueuedEvents);
+    if (threadPoolSize > 0) {
+      when(workQueue.createQueue(threadPoolSize, FORWARDED_EVENT_LISTENER_THREAD_PREFIX))
+          .thenReturn(exec);
+      doAnswer(
+              (Answer<Void>)
+                  invocation -> {
+                    tasks.add(invocation.getArgument(0));
+                    return null;
+                  })
+          .when(exec)
+          .execute(any());
+    }
+    return new ForwardedEventListenerDispatcher(workQueue, cfg, metrics);
+  }
+
+  private void runNextTask() {
+    tasks.remove(0).run();
+  }
+
+  @Test
+  public void eventIsHandledOnTheCallingThreadWithoutPool() {
+    newDispatcher(0, 10).dispatch(listener, first);
+
+    verify(listener).onEvent(first);
+    verifyNoInteractions(workQueue, metrics);
+  }
+
+  @Test
+  public void eventsAreHandledOneAtATimeInDispatchOrder() {
+    ForwardedEventListenerDispatcher dispatcher = newDispatcher(2, 10);
+    dispatcher.dispatch(listener, first);
+    dispatcher.dispatch(listener, second);
+
+    assertThat(tasks).hasSize(1);
+    verifyNoInteractions(listener);
+
+    runNextTask();
+    assertThat(tasks).hasSize(1);
+    runNextTask();
+    assertThat(tasks).isEmpty();
+
+    InOrder inOrder = inOrder(listener);
+    inOrder.verify(listener).onEvent(first);
+    inOrder.verify(listener).onEvent(second);
+    verify(metrics, never()).recordDropped(any());
+  }
+
+  @Test
+  public void listenersDoNotWaitForEachOther() {
+    EventListener slowListener = event -> {};
+    ForwardedEventListenerDispatcher dispatcher = newDispatcher(2, 10);
+    dispatcher.dispatch(slowListener, first);
+    dispatcher.dispatch(listener, first);
+
+    assertThat(tasks).hasSize(2);
+    tasks.get(1).run();
+    verify(listener).onEvent(first);
+  }
+
+  @Test
+  public void eventsBeyondTheQueueLimitAreDropped() {
+    ForwardedEventListenerDispatcher dispatcher = newDispatcher(2, 1);
+    dispatcher.dispatch(listener, first);
+    dispatcher.dispatch(listener, second);
+    runNextTask();
+
+    assertThat(tasks).isEmpty();
+    verify(listener).onEvent(first);
+    verify(listener, never()).onEvent(second);
+    verify(metrics).recordDropped(ForwardedEventListenerMetrics.label(listener.getClass()));
+  }
+
+  @Test
+  public void eventIsHandledAsForwarded() {
+    doAnswer(
+            (Answer<Void>)
+                invocation -> {
+                  assertThat(Context.isForwardedEvent()).isTrue();
+                  return null;
+                })
+        .when(listener)
+        .onEvent(first);
+    newDispatcher(2, 10).dispatch(listener, first);
+    runNextTask();
+
+    verify(listener).onEvent(first);
+    assertThat(Context.isForwardedEvent()).isFalse();
+  }
+
+  @Test
+  public void listenerFailureDoesNotStopItsQueue() {
+    doThrow(new IllegalStateException("boom")).when(listener).onEvent(first);
+    ForwardedEventListenerDispatcher dispatcher = newDispatcher(2, 10);
+    dispatcher.dispatch(listener, first);
+    dispatcher.dispatch(listener, second);
+    runNextTask();
+    runNextTask();
+
+    verify(listener).onEvent(second);
+    verify(metrics, times(2))
+        .recordLatency(eq(ForwardedEventListenerMetrics.label(listener.getClass())), anyLong());
+  }
+
+  @Test
+  public void listenerIsNotHeldOnceItsEventsAreHandled() throws Exception {
+    ForwardedEventListenerDispatcher dispatcher = newDispatcher(2, 10);
+    EventListener unregistered =
+        new EventListener() {
+          @Override
+          public void onEvent(Event event) {}
+        };
+    WeakReference<EventListener> ref = new WeakReference<>(unregistered);
+    dispatcher.dispatch(unregistered, first);
+    runNextTask();
+
+    unregistered = null;
+    for (int i = 0; i < 10 && ref.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(ref.get()).isNull();
+  }
+}
@@ -0,0 +1,156 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.gerrit.server.git.WorkQueue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ForwardedEventReorderBufferTest {
+  private static final String ORIGIN = "origin";
+  private static final String PROJECT = "foo";
+
+  @Mock private WorkQueue workQueue;
+  @Mock private ScheduledExecutorService exec;
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration cfg;
+
+  private final List<Long> dispatched = new ArrayList<>();
+  private ForwardedEventReorderBuffer buffer;
+
+  @Before
+  public void setUp() {
+    when(workQueue.getDefaultQueue()).thenReturn(exec);
+    when(cfg.event().reorderTimeout()).thenReturn(Duration.ofSeconds(5));
+    buffer = new ForwardedEventReorderBuffer(cfg, workQueue);
+  }
+
+  private void add(String project, long sequence) {
+    buffer.add(ORIGIN, project, sequence, () -> dispatched.add(sequence));
+  }
+
+  @Test
+  public void eventsReceivedInOrderAreDispatchedImmediately() {
+    add(PROJECT, 1);
+    add(PROJECT, 2);
+    add(PROJECT, 3);
+
+    assertThat(dispatched).containsExactly(1L, 2L, 3L).inOrder();
+    verify(exec, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+  }
+
+  @Test
+  public void eventReceivedAheadIsHeldUntilItsPredecessorArrives() {
+    add(PROJECT, 1);
+    add(PROJECT, 3);
+    add(PROJECT, 4);
+    assertThat(dispatched).containsExactly(1L);
+
+    add(PROJECT, 2);
+
+    assertThat(dispatched).containsExactly(1L, 2L, 3L, 4L).inOrder();
+  }
+
+  @Test
+  public void eventsOfOtherProjectsAreNotHeld() {
+    add(PROJECT, 1);
+    add(PROJECT, 3);
+    add("bar", 1);
+
+    assertThat(dispatched).containsExactly(1L, 1L);
+  }
+
+  @Test
+  public void missingEventIsGivenUpOnAfterTimeout() {
+    add(PROJECT, 1);
+    add(PROJECT, 3);
+    ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec).schedule(timeout.capture(), eq(5000L), eq(TimeUnit.MILLISECONDS));
+
+    timeout.getValue().run();
+    assertThat(dispatched).containsExactly(1L, 3L).inOrder();
+
+    add(PROJECT, 2);
+    assertThat(dispatched).containsExactly(1L, 3L, 2L).inOrder();
+  }
+
+  @Test
+  public void firstEventOfASequenceIsHeldUntilItsPredecessorArrives() {
+    add(PROJECT, 2);
+    assertThat(dispatched).isEmpty();
+
+    add(PROJECT, 1);
+
+    assertThat(dispatched).containsExactly(1L, 2L).inOrder();
+  }
+
+  @Test
+  public void sequenceStartedEarlierIsTakenUpFromTheLowestEventAfterTimeout() {
+    add(PROJECT, 12);
+    add(PROJECT, 11);
+    assertThat(dispatched).isEmpty();
+    ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+    verify(exec).schedule(timeout.capture(), eq(5000L), eq(TimeUnit.MILLISECONDS));
+
+    timeout.getValue().run();
+    assertThat(dispatched).containsExactly(11L, 12L).inOrder();
+
+    add(PROJECT, 13);
+    assertThat(dispatched).containsExactly(11L, 12L, 13L).inOrder();
+  }
+
+  @Test
+  public void eventsAreDispatchedImmediatelyWithoutTimeout() {
+    when(cfg.event().reorderTimeout()).thenReturn(Duration.ZERO);
+    buffer = new ForwardedEventReorderBuffer(cfg, workQueue);
+
+    add(PROJECT, 2);
+    add(PROJECT, 1);
+
+    assertThat(dispatched).containsExactly(2L, 1L).inOrder();
+  }
+
+  @Test
+  public void tooManyHeldEventsAreDispatchedWithoutWaiting() {
+    int maxPending = ForwardedEventReorderBuffer.MAX_PENDING_EVENTS;
+    add(PROJECT, 1);
+    for (long sequence = 3; sequence <= maxPending + 3; ++sequence) {
+      add(PROJECT, sequence);
+    }
+
+    assertThat(dispatched).hasSize(maxPending + 2);
+  }
+}
@@ -19,6 +19,7 @@ import static com.google.gerrit.testing.GerritJUnit.assertThrows;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 
+import com.ericsson.gerrit.plugins.highavailability.cache.ProjectListCache;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.gerrit.server.project.ProjectCache;
@@ -36,76 +37,79 @@ public class ForwardedProjectListUpdateHandlerTest {
   private static final String SOME_MESSAGE = "someMessage";
   private static final Project.NameKey PROJECT_KEY = Project.nameKey(PROJECT_NAME);
   @Mock private ProjectCache projectCacheMock;
+  @Mock private ProjectListCache projectListCacheMock;
   @Mock private GitRepositoryManager repoMgrMock;
   private ForwardedProjectListUpdateHandler handler;
 
   @Before
   public void setUp() throws Exception {
-    handler = new ForwardedProjectListUpdateHandler(projectCacheMock, repoMgrMock);
+    handler =
+        new ForwardedProjectListUpdateHandler(projectCacheMock, projectListCacheMock, repoMgrMock);
   }
 
   @Test
   public void testSuccessfulAdd() throws Exception {
     handler.update(PROJECT_NAME, false);
-    verify(projectCacheMock).onCreateProject(PROJECT_KEY);
+    verify(projectListCacheMock).add(PROJECT_KEY);
   }
 
   @Test
   public void testSuccessfulRemove() throws Exception {
     handler.update(PROJECT_NAME, true);
-    verify(projectCacheMock).remove(PROJECT_KEY);
+    verify(projectCacheMock).evict(PROJECT_KEY);
+    verify(projectListCacheMock).remove(PROJECT_KEY);
   }
 
   @Test
   public void shouldSetAndUnsetForwardedContextOnAdd() throws Exception {
     // this doAnswer is to allow to assert that context is set to forwarded
-    // while cache eviction is called.
+    // while the project list is updated.
     doAnswer(
-            (Answer<Void>)
+            (Answer<Boolean>)
                 invocation -> {
                   assertThat(Context.isForwardedEvent()).isTrue();
-                  return null;
+                  return true;
                 })
-        .when(projectCacheMock)
-        .onCreateProject(PROJECT_KEY);
+        .when(projectListCacheMock)
+        .add(PROJECT_KEY);
 
     assertThat(Context.isForwardedEvent()).isFalse();
     handler.update(PROJECT_NAME, false);
     assertThat(Context.isForwardedEvent()).isFalse();
 
-    verify(projectCacheMock).onCreateProject(PROJECT_KEY);
+    verify(projectListCacheMock).add(PROJECT_KEY);
   }
 
   @Test
   public void shouldSetAndUnsetForwardedContextOnRemove() throws Exception {
     // this doAnswer is to allow to assert that context is set to forwarded
-    // while cache eviction is called.
+    // while the project list is updated.
     doAnswer(
-            (Answer<Void>)
+            (Answer<Boolean>)
                 invocation -> {
                   assertThat(Context.isForwardedEvent()).isTrue();
-                  return null;
+                  return true;
                 })
-        .when(projectCacheMock)
+        .when(projectListCacheMock)
         .remove(PROJECT_KEY);
 
     assertThat(Context.isForwardedEvent()).isFalse();
     handler.update(PROJECT_NAME, true);
     assertThat(Context.isForwardedEvent()).isFalse();
 
-    verify(projectCacheMock).remove(PROJECT_KEY);
+    verify(projectListCacheMock).remove(PROJECT_KEY);
   }
 
   @Test
   public void shouldSetAndUnsetForwardedContextEvenIfExceptionIsThrownOnAdd() throws Exception {
     doAnswer(
-            (Answer<Void>)
+            (Answer<Boolean>)
                 invocation -> {
                   assertThat(Context.isForwardedEvent()).isTrue();
                   throw new RuntimeException(SOME_MESSAGE);
                 })
-        .when(projectCacheMock)
-        .onCreateProject(PROJECT_KEY);
+        .when(projectListCacheMock)
+        .add(PROJECT_KEY);
 
     assertThat(Context.isForwardedEvent()).isFalse();
     RuntimeException thrown =
@@ -113,18 +117,18 @@ public class ForwardedProjectListUpdateHandlerTest {
     assertThat(thrown).hasMessageThat().isEqualTo(SOME_MESSAGE);
     assertThat(Context.isForwardedEvent()).isFalse();
 
-    verify(projectCacheMock).onCreateProject(PROJECT_KEY);
+    verify(projectListCacheMock).add(PROJECT_KEY);
   }
 
   @Test
   public void shouldSetAndUnsetForwardedContextEvenIfExceptionIsThrownOnRemove() throws Exception {
     doAnswer(
-            (Answer<Void>)
+            (Answer<Boolean>)
                 invocation -> {
                   assertThat(Context.isForwardedEvent()).isTrue();
                   throw new RuntimeException(SOME_MESSAGE);
                 })
-        .when(projectCacheMock)
+        .when(projectListCacheMock)
         .remove(PROJECT_KEY);
 
     assertThat(Context.isForwardedEvent()).isFalse();
@@ -133,6 +137,6 @@ public class ForwardedProjectListUpdateHandlerTest {
     assertThat(thrown).hasMessageThat().isEqualTo(SOME_MESSAGE);
     assertThat(Context.isForwardedEvent()).isFalse();
 
-    verify(projectCacheMock).remove(PROJECT_KEY);
+    verify(projectListCacheMock).remove(PROJECT_KEY);
   }
 }
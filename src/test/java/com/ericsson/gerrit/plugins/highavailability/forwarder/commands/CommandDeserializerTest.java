@@ -17,9 +17,11 @@ package com.ericsson.gerrit.plugins.highavailability.forwarder.commands;
 import static com.google.common.truth.Truth.assertThat;
 
 import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.EventType;
-import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.CacheKeyJsonParser;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
 import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.registration.DynamicMap;
 import com.google.gerrit.server.events.Event;
 import com.google.gerrit.server.events.EventGsonProvider;
 import com.google.gerrit.server.events.ProjectCreatedEvent;
@@ -30,13 +32,14 @@ import org.junit.Test;
 public class CommandDeserializerTest {
 
   private Gson gson;
-  private CacheKeyJsonParser cacheKeyParser;
+  private CacheKeyCodecs cacheKeyCodecs;
 
   @Before
   public void setUp() {
     Gson eventGson = new EventGsonProvider().get();
     this.gson = new ForwarderCommandsModule().buildCommandsGson(eventGson);
-    this.cacheKeyParser = new CacheKeyJsonParser(eventGson);
+    this.cacheKeyCodecs =
+        new CacheKeyCodecs(DynamicMap.emptyMap(), ForwarderModule.buildRestGson(eventGson));
   }
 
   @Test
@@ -145,7 +148,7 @@ public class CommandDeserializerTest {
     assertThat(cmd).isInstanceOf(EvictCache.class);
     EvictCache evict = (EvictCache) cmd;
 
-    Object cacheKey = cacheKeyParser.fromJson(Constants.PROJECTS, evict.getKeyJson());
+    Object cacheKey = cacheKeyCodecs.decode(Constants.PROJECTS, evict.getKeyJson());
     assertThat(cacheKey).isInstanceOf(Project.NameKey.class);
     assertThat(cacheKey).isEqualTo(nameKey);
   }
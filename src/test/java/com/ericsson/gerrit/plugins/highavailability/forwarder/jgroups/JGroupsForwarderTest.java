@@ -23,11 +23,15 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.Forwarder.Result;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderMetrics;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.IndexEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CacheEvictionGenerations;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.ForwarderCommandsModule;
+import com.google.gerrit.extensions.registration.DynamicMap;
 import com.google.gerrit.server.events.EventGsonProvider;
 import com.google.gerrit.server.git.WorkQueue;
 import com.google.gson.Gson;
@@ -88,7 +92,9 @@ public class JGroupsForwarderTest {
             cfg,
             gson,
             new FailsafeExecutorProvider(cfg, workQueue).get(),
-            metricsRegistry);
+            metricsRegistry,
+            new CacheEvictionGenerations(),
+            new CacheKeyCodecs(DynamicMap.emptyMap(), ForwarderModule.buildRestGson(eventGson)));
   }
 
   @Test
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheEntry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheNotFoundException;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedCacheEvictionHandler;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedEventHandler;
@@ -31,19 +32,24 @@ import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexBatc
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexChangeHandler;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedIndexingHandler.Operation;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedProjectListUpdateHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetrics;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.AddToProjectList;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CacheEvictionGenerations;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CommandProcessorImpl;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.EvictCache;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.EvictCacheBatch;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.ForwarderCommandsModule;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.IndexAccount;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.IndexChange;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.PostEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.PostEventBatch;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.RemoveFromProjectList;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.Change;
-import com.google.gerrit.server.events.Event;
+import com.google.gerrit.extensions.registration.DynamicMap;
 import com.google.gerrit.server.events.EventGsonProvider;
 import com.google.gerrit.server.events.EventTypes;
 import com.google.gerrit.server.permissions.PermissionBackendException;
@@ -99,6 +105,8 @@ public class MessageProcessorTest {
                 indexBatchChangeHandler,
                 indexAccountHandler,
                 cacheEvictionHandler,
+                new CacheEvictionGenerations(),
+                new CacheKeyCodecs(DynamicMap.emptyMap(), ForwarderModule.buildRestGson(eventGson)),
                 eventHandler,
                 projectListUpdateHandler,
                 metricsRegistry));
@@ -169,6 +177,55 @@ public class MessageProcessorTest {
     verifyOtherHandlersNotUsed(cacheEvictionHandler);
   }
 
+  @Test
+  public void evictCacheOfAppliedGenerationIsSkipped() throws CacheNotFoundException {
+    String CACHE = "foo";
+    String KEY_JSON = gson.toJson(100);
+    String ORIGIN = "bar";
+
+    EvictCache cmd = new EvictCache(CACHE, KEY_JSON, ORIGIN, 2, Instant.now());
+    assertThat(processor.handle(new ObjectMessage(null, gson.toJson(cmd)))).isEqualTo(true);
+    EvictCache older = new EvictCache(CACHE, KEY_JSON, ORIGIN, 1, Instant.now());
+    assertThat(processor.handle(new ObjectMessage(null, gson.toJson(older)))).isEqualTo(true);
+    EvictCache newer = new EvictCache(CACHE, KEY_JSON, ORIGIN, 3, Instant.now());
+    assertThat(processor.handle(new ObjectMessage(null, gson.toJson(newer)))).isEqualTo(true);
+
+    verify(cacheEvictionHandler, times(2)).evict(CacheEntry.from(CACHE, KEY_JSON));
+    verifyOtherHandlersNotUsed(cacheEvictionHandler);
+  }
+
+  @Test
+  public void evictCacheBatchOfAppliedGenerationSkipsItsKeys() throws CacheNotFoundException {
+    String CACHE = "foo";
+    String ORIGIN = "bar";
+
+    EvictCacheBatch cmd =
+        new EvictCacheBatch(CACHE, List.of(gson.toJson(100)), ORIGIN, 2, Instant.now());
+    assertThat(processor.handle(new ObjectMessage(null, gson.toJson(cmd)))).isEqualTo(true);
+    EvictCacheBatch older =
+        new EvictCacheBatch(
+            CACHE, List.of(gson.toJson(100), gson.toJson(200)), ORIGIN, 1, Instant.now());
+    assertThat(processor.handle(new ObjectMessage(null, gson.toJson(older)))).isEqualTo(true);
+
+    verify(cacheEvictionHandler).evictAll(CACHE, List.of("100"));
+    verify(cacheEvictionHandler).evictAll(CACHE, List.of("200"));
+    verifyOtherHandlersNotUsed(cacheEvictionHandler);
+  }
+
+  @Test
+  public void evictCacheBatchAlreadyAppliedEvictsNothing() throws CacheNotFoundException {
+    String CACHE = "foo";
+    String ORIGIN = "bar";
+
+    EvictCacheBatch cmd =
+        new EvictCacheBatch(CACHE, List.of(gson.toJson(100)), ORIGIN, 1, Instant.now());
+    assertThat(processor.handle(new ObjectMessage(null, gson.toJson(cmd)))).isEqualTo(true);
+    assertThat(processor.handle(new ObjectMessage(null, gson.toJson(cmd)))).isEqualTo(true);
+
+    verify(cacheEvictionHandler).evictAll(CACHE, List.of("100"));
+    verifyOtherHandlersNotUsed(cacheEvictionHandler);
+  }
+
   @Test
   public void postEvent() throws PermissionBackendException {
     String FOO = "foo";
@@ -176,17 +233,37 @@ public class MessageProcessorTest {
 
     EventTypes.register(TestEvent.TYPE, TestEvent.class);
     TestEvent event = new TestEvent(FOO, BAR);
-    PostEvent cmd = new PostEvent(event, Instant.now());
+    PostEvent cmd = new PostEvent(new SequencedEvent(event, "origin", 3), Instant.now());
     assertThat(processor.handle(new ObjectMessage(null, gson.toJson(cmd)))).isEqualTo(true);
-    ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+    ArgumentCaptor<SequencedEvent> captor = ArgumentCaptor.forClass(SequencedEvent.class);
     verify(eventHandler, times(1)).dispatch(captor.capture());
-    assertThat(captor.getValue()).isInstanceOf(TestEvent.class);
-    TestEvent v = (TestEvent) captor.getValue();
+    assertThat(captor.getValue().getOrigin()).isEqualTo("origin");
+    assertThat(captor.getValue().getSequence()).isEqualTo(3);
+    assertThat(captor.getValue().getEvent()).isInstanceOf(TestEvent.class);
+    TestEvent v = (TestEvent) captor.getValue().getEvent();
     assertThat(v.foo).isEqualTo(FOO);
     assertThat(v.bar).isEqualTo(BAR);
     verifyOtherHandlersNotUsed(eventHandler);
   }
 
+  @Test
+  public void postEventBatch() throws PermissionBackendException {
+    EventTypes.register(TestEvent.TYPE, TestEvent.class);
+    PostEventBatch cmd =
+        new PostEventBatch(
+            List.of(
+                new SequencedEvent(new TestEvent("first", 1), "origin", 1),
+                new SequencedEvent(new TestEvent("second", 2), "origin", 2)),
+            Instant.now());
+    assertThat(processor.handle(new ObjectMessage(null, gson.toJson(cmd)))).isEqualTo(true);
+    ArgumentCaptor<SequencedEvent> captor = ArgumentCaptor.forClass(SequencedEvent.class);
+    verify(eventHandler, times(2)).dispatch(captor.capture());
+    assertThat(captor.getAllValues().stream().map(e -> ((TestEvent) e.getEvent()).foo).toList())
+        .containsExactly("first", "second")
+        .inOrder();
+    verifyOtherHandlersNotUsed(eventHandler);
+  }
+
   @Test
   public void addToProjectList() throws IOException {
     String PROJECT = "foo";
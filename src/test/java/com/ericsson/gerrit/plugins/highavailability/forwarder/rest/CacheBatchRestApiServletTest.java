@@ -0,0 +1,137 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
+
+import static com.google.common.truth.Truth.assertThat;
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedCacheEvictionHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetrics;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CacheEvictionGenerations;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.gerrit.server.events.EventGsonProvider;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheBatchRestApiServletTest {
+  @Mock private HttpServletRequest requestMock;
+  @Mock private HttpServletResponse responseMock;
+  @Mock private ForwardedCacheEvictionHandler forwardedCacheEvictionHandlerMock;
+  @Mock private ProcessorMetricsRegistry metricsRegistry;
+  @Mock private ProcessorMetrics metrics;
+  @Captor private ArgumentCaptor<List<Object>> keysCaptor;
+  private CacheBatchRestApiServlet servlet;
+
+  @Before
+  public void setUp() {
+    when(metricsRegistry.get(any())).thenReturn(metrics);
+    servlet =
+        new CacheBatchRestApiServlet(
+            forwardedCacheEvictionHandlerMock,
+            new CacheKeyCodecs(
+                DynamicMap.emptyMap(),
+                ForwarderModule.buildRestGson(new EventGsonProvider().get())),
+            new CacheEvictionGenerations(),
+            metricsRegistry);
+    when(requestMock.getPathInfo()).thenReturn("/" + Constants.PROJECTS);
+  }
+
+  @Test
+  public void evictAllKeys() throws Exception {
+    postKeys("[\"foo\",\"bar\"]");
+
+    verify(forwardedCacheEvictionHandlerMock)
+        .evictAll(eq(Constants.PROJECTS), keysCaptor.capture());
+    assertThat(keysCaptor.getValue())
+        .containsExactly(Project.nameKey("foo"), Project.nameKey("bar"));
+    verify(responseMock).setStatus(SC_NO_CONTENT);
+  }
+
+  @Test
+  public void keysOfAnAlreadyAppliedGenerationAreSkipped() throws Exception {
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_ORIGIN)).thenReturn("origin");
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_GENERATION))
+        .thenReturn("2", "1");
+
+    postKeys("[\"foo\"]");
+    postKeys("[\"foo\",\"bar\"]");
+
+    verify(forwardedCacheEvictionHandlerMock, times(2))
+        .evictAll(eq(Constants.PROJECTS), keysCaptor.capture());
+    assertThat(keysCaptor.getAllValues().get(0)).containsExactly(Project.nameKey("foo"));
+    assertThat(keysCaptor.getAllValues().get(1)).containsExactly(Project.nameKey("bar"));
+  }
+
+  @Test
+  public void batchOfKeysAllAlreadyAppliedEvictsNothing() throws Exception {
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_ORIGIN)).thenReturn("origin");
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_GENERATION)).thenReturn("1");
+
+    postKeys("[\"foo\"]");
+    postKeys("[\"foo\"]");
+
+    verify(forwardedCacheEvictionHandlerMock).evictAll(eq(Constants.PROJECTS), any());
+    verify(responseMock, times(2)).setStatus(SC_NO_CONTENT);
+  }
+
+  @Test
+  public void keysWithoutGenerationAreAlwaysEvicted() throws Exception {
+    postKeys("[\"foo\"]");
+    postKeys("[\"foo\"]");
+
+    verify(forwardedCacheEvictionHandlerMock, times(2))
+        .evictAll(eq(Constants.PROJECTS), keysCaptor.capture());
+    assertThat(keysCaptor.getAllValues().get(1)).containsExactly(Project.nameKey("foo"));
+  }
+
+  @Test
+  public void badRequestCausedByMalformedGeneration() throws Exception {
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_ORIGIN)).thenReturn("origin");
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_GENERATION)).thenReturn("x");
+
+    postKeys("[\"foo\"]");
+
+    verify(responseMock).sendError(eq(SC_BAD_REQUEST), any());
+    verify(forwardedCacheEvictionHandlerMock, never()).evictAll(any(), any());
+  }
+
+  private void postKeys(String keysJson) throws Exception {
+    when(requestMock.getReader()).thenReturn(new BufferedReader(new StringReader(keysJson)));
+    servlet.doPost(requestMock, responseMock);
+  }
+}
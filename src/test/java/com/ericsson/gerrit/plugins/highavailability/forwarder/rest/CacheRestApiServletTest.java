@@ -17,15 +17,23 @@ package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
 import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheNotFoundException;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedCacheEvictionHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetrics;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CacheEvictionGenerations;
+import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.gerrit.server.events.EventGsonProvider;
 import com.google.gson.Gson;
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -50,9 +58,13 @@ public class CacheRestApiServletTest {
   @Before
   public void setUp() {
     when(metricsRegistry.get(any())).thenReturn(metrics);
+    Gson eventGson = new EventGsonProvider().get();
     servlet =
         new CacheRestApiServlet(
-            forwardedCacheEvictionHandlerMock, new CacheKeyJsonParser(new Gson()), metricsRegistry);
+            forwardedCacheEvictionHandlerMock,
+            new CacheKeyCodecs(DynamicMap.emptyMap(), ForwarderModule.buildRestGson(eventGson)),
+            new CacheEvictionGenerations(),
+            metricsRegistry);
   }
 
   @Test
@@ -123,6 +135,43 @@ public class CacheRestApiServletTest {
     verify(responseMock).sendError(SC_BAD_REQUEST, e.getMessage());
   }
 
+  @Test
+  public void evictionOfAnAlreadyAppliedGenerationIsSkipped() throws Exception {
+    configureMocksFor(Constants.ACCOUNTS);
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_ORIGIN)).thenReturn("origin");
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_GENERATION))
+        .thenReturn("2", "1", "3");
+
+    servlet.doPost(requestMock, responseMock);
+    servlet.doPost(requestMock, responseMock);
+    servlet.doPost(requestMock, responseMock);
+
+    verify(forwardedCacheEvictionHandlerMock, times(2)).evict(any());
+    verify(responseMock, times(3)).setStatus(SC_NO_CONTENT);
+  }
+
+  @Test
+  public void evictionWithoutGenerationIsAlwaysApplied() throws Exception {
+    configureMocksFor(Constants.ACCOUNTS);
+
+    servlet.doPost(requestMock, responseMock);
+    servlet.doPost(requestMock, responseMock);
+
+    verify(forwardedCacheEvictionHandlerMock, times(2)).evict(any());
+  }
+
+  @Test
+  public void badRequestCausedByMalformedGeneration() throws Exception {
+    configureMocksFor(Constants.ACCOUNTS);
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_ORIGIN)).thenReturn("origin");
+    when(requestMock.getHeader(HttpSession.HEADER_CACHE_EVICTION_GENERATION)).thenReturn("x");
+
+    servlet.doPost(requestMock, responseMock);
+
+    verify(responseMock).sendError(eq(SC_BAD_REQUEST), any());
+    verify(forwardedCacheEvictionHandlerMock, never()).evict(any());
+  }
+
   private void verifyResponseIsOK() throws Exception {
     servlet.doPost(requestMock, responseMock);
     verify(responseMock).setStatus(SC_NO_CONTENT);
@@ -0,0 +1,165 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedEventHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetrics;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.EventRestApiServletTest.RefReplicationDoneEvent;
+import com.google.common.net.MediaType;
+import com.google.gerrit.server.events.EventGsonProvider;
+import com.google.gerrit.server.events.EventTypes;
+import com.google.gson.Gson;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventBatchRestApiServletTest {
+  private static final String EVENTS =
+      "[{\"event\":{\"project\":\"gerrit/some-project\",\"ref\":\"refs/heads/master\","
+          + "\"nodesCount\":1,\"type\":\"ref-replication-done\",\"eventCreatedOn\":1451415011},"
+          + "\"origin\":\"origin\",\"sequence\":1},"
+          + "{\"event\":{\"project\":\"gerrit/some-project\",\"ref\":\"refs/heads/stable\","
+          + "\"nodesCount\":2,\"type\":\"ref-replication-done\",\"eventCreatedOn\":1451415012},"
+          + "\"origin\":\"origin\",\"sequence\":2}]";
+
+  @Mock private ForwardedEventHandler forwardedEventHandlerMock;
+  @Mock private HttpServletRequest requestMock;
+  @Mock private HttpServletResponse responseMock;
+  @Mock private ProcessorMetricsRegistry metricsRegistryMock;
+  @Mock private ProcessorMetrics metrics;
+  private EventBatchRestApiServlet servlet;
+  private Gson gson = ForwarderModule.buildRestGson(new EventGsonProvider().get());
+
+  @BeforeClass
+  public static void setup() {
+    EventTypes.register(RefReplicationDoneEvent.TYPE, RefReplicationDoneEvent.class);
+  }
+
+  @Before
+  public void createServlet() throws Exception {
+    when(metricsRegistryMock.get(any())).thenReturn(metrics);
+    servlet = new EventBatchRestApiServlet(forwardedEventHandlerMock, gson, metricsRegistryMock);
+    when(requestMock.getContentType()).thenReturn(MediaType.JSON_UTF_8.toString());
+  }
+
+  @Test
+  public void eventsAreDispatchedInOrder() throws Exception {
+    when(requestMock.getReader()).thenReturn(new BufferedReader(new StringReader(EVENTS)));
+
+    servlet.doPost(requestMock, responseMock);
+
+    verifyDispatchedRefs("refs/heads/master", "refs/heads/stable");
+    verify(responseMock).setStatus(SC_NO_CONTENT);
+  }
+
+  @Test
+  public void compressedEventsAreDispatchedInOrder() throws Exception {
+    when(requestMock.getHeader("Content-Encoding")).thenReturn("gzip");
+    when(requestMock.getInputStream()).thenReturn(new BytesInputStream(gzip(EVENTS)));
+
+    servlet.doPost(requestMock, responseMock);
+
+    verifyDispatchedRefs("refs/heads/master", "refs/heads/stable");
+    verify(responseMock).setStatus(SC_NO_CONTENT);
+  }
+
+  @Test
+  public void malformedBatchIsRejected() throws Exception {
+    when(requestMock.getReader()).thenReturn(new BufferedReader(new StringReader("{\"a\":")));
+
+    servlet.doPost(requestMock, responseMock);
+
+    verify(responseMock).sendError(eq(SC_BAD_REQUEST), any());
+    verifyNoInteractions(forwardedEventHandlerMock);
+  }
+
+  private void verifyDispatchedRefs(String... refs) {
+    ArgumentCaptor<SequencedEvent> dispatched = ArgumentCaptor.forClass(SequencedEvent.class);
+    verify(forwardedEventHandlerMock, times(refs.length)).dispatch(dispatched.capture());
+    assertThat(dispatched.getAllValues().stream().map(SequencedEvent::getSequence).toList())
+        .containsExactly(1L, 2L)
+        .inOrder();
+    assertThat(
+            dispatched.getAllValues().stream()
+                .map(e -> ((RefReplicationDoneEvent) e.getEvent()).getRefName())
+                .toList())
+        .containsExactlyElementsIn(List.of(refs))
+        .inOrder();
+  }
+
+  private static byte[] gzip(String content) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(content.getBytes(UTF_8));
+    }
+    return out.toByteArray();
+  }
+
+  private static class BytesInputStream extends ServletInputStream {
+    private final ByteArrayInputStream in;
+
+    BytesInputStream(byte[] content) {
+      this.in = new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public int read() {
+      return in.read();
+    }
+
+    @Override
+    public boolean isFinished() {
+      return in.available() == 0;
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {}
+  }
+}
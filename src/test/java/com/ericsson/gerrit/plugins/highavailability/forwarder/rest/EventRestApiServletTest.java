@@ -15,6 +15,7 @@
 package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
 
 import static com.google.common.net.MediaType.JSON_UTF_8;
+import static com.google.common.truth.Truth.assertThat;
 import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
 import static javax.servlet.http.HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE;
@@ -23,9 +24,13 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.ericsson.gerrit.plugins.highavailability.forwarder.EventJournalCursors;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedEventHandler;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwardedEventReorderBuffer;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetrics;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ProcessorMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
 import com.google.common.net.MediaType;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.server.events.EventDispatcher;
@@ -43,6 +48,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -57,7 +63,7 @@ public class EventRestApiServletTest {
   @Mock private ProcessorMetricsRegistry metricsRegistryMock;
   @Mock private ProcessorMetrics metrics;
   private EventRestApiServlet eventRestApiServlet;
-  private Gson gson = RestForwarderModule.buildRestGson(new EventGsonProvider().get());
+  private Gson gson = ForwarderModule.buildRestGson(new EventGsonProvider().get());
 
   @BeforeClass
   public static void setup() {
@@ -82,10 +88,58 @@ public class EventRestApiServletTest {
 
     eventRestApiServlet.doPost(requestMock, responseMock);
 
-    verify(forwardedEventHandlerMock).dispatch(any(RefReplicationDoneEvent.class));
+    SequencedEvent dispatched = verifyDispatched();
+    assertThat(dispatched.getEvent()).isInstanceOf(RefReplicationDoneEvent.class);
+    assertThat(dispatched.isSequenced()).isFalse();
     verify(responseMock).setStatus(SC_NO_CONTENT);
   }
 
+  @Test
+  public void testDoPostSequencedEvent() throws Exception {
+    String event =
+        "{\"project\":\"gerrit/some-project\",\"ref\":"
+            + "\"refs/changes/76/669676/2\",\"nodesCount\":1,\"type\":"
+            + "\"ref-replication-done\",\"eventCreatedOn\":1451415011}";
+    when(requestMock.getReader()).thenReturn(new BufferedReader(new StringReader(event)));
+    when(requestMock.getHeader(HttpSession.HEADER_EVENT_ORIGIN)).thenReturn("origin");
+    when(requestMock.getHeader(HttpSession.HEADER_EVENT_SEQUENCE)).thenReturn("42");
+
+    eventRestApiServlet.doPost(requestMock, responseMock);
+
+    SequencedEvent dispatched = verifyDispatched();
+    assertThat(dispatched.getEvent()).isInstanceOf(RefReplicationDoneEvent.class);
+    assertThat(dispatched.getOrigin()).isEqualTo("origin");
+    assertThat(dispatched.getSequence()).isEqualTo(42);
+    verify(responseMock).setStatus(SC_NO_CONTENT);
+  }
+
+  @Test
+  public void testDoPostJournaledEvent() throws Exception {
+    String event =
+        "{\"project\":\"gerrit/some-project\",\"ref\":"
+            + "\"refs/changes/76/669676/2\",\"nodesCount\":1,\"type\":"
+            + "\"ref-replication-done\",\"eventCreatedOn\":1451415011}";
+    when(requestMock.getReader()).thenReturn(new BufferedReader(new StringReader(event)));
+    when(requestMock.getHeader(HttpSession.HEADER_EVENT_ORIGIN)).thenReturn("origin");
+    when(requestMock.getHeader(HttpSession.HEADER_EVENT_SEQUENCE)).thenReturn("42");
+    when(requestMock.getHeader(HttpSession.HEADER_EVENT_JOURNAL)).thenReturn("journal");
+    when(requestMock.getHeader(HttpSession.HEADER_EVENT_JOURNAL_POSITION)).thenReturn("7");
+
+    eventRestApiServlet.doPost(requestMock, responseMock);
+
+    SequencedEvent dispatched = verifyDispatched();
+    assertThat(dispatched.getSequence()).isEqualTo(42);
+    assertThat(dispatched.getJournal()).isEqualTo("journal");
+    assertThat(dispatched.getJournalPosition()).isEqualTo(7);
+    verify(responseMock).setStatus(SC_NO_CONTENT);
+  }
+
+  private SequencedEvent verifyDispatched() {
+    ArgumentCaptor<SequencedEvent> dispatched = ArgumentCaptor.forClass(SequencedEvent.class);
+    verify(forwardedEventHandlerMock).dispatch(dispatched.capture());
+    return dispatched.getValue();
+  }
+
   @Test
   public void testDoPostDispatcherFailure() throws Exception {
     String event =
@@ -98,7 +152,11 @@ public class EventRestApiServletTest {
     doThrow(new PermissionBackendException(ERR_MSG))
         .when(dispatcher)
         .postEvent(any(RefReplicationDoneEvent.class));
-    ForwardedEventHandler forwardedEventHandler = new ForwardedEventHandler(dispatcher);
+    ForwardedEventHandler forwardedEventHandler =
+        new ForwardedEventHandler(
+            dispatcher,
+            Mockito.mock(ForwardedEventReorderBuffer.class),
+            Mockito.mock(EventJournalCursors.class));
     eventRestApiServlet = new EventRestApiServlet(forwardedEventHandler, gson, metricsRegistryMock);
     eventRestApiServlet.doPost(requestMock, responseMock);
     verify(responseMock).setStatus(SC_NO_CONTENT);
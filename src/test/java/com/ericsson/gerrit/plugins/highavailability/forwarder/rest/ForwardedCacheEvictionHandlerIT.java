@@ -16,6 +16,7 @@ package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
 import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -50,7 +51,7 @@ public class ForwardedCacheEvictionHandlerIT extends LightweightPluginDaemonTest
   @Inject
   private DynamicSet<CacheRemovalListener> cacheRemovalListeners;
 
-  private Gson gson = RestForwarderModule.buildRestGson(new EventGsonProvider().get());
+  private Gson gson = ForwarderModule.buildRestGson(new EventGsonProvider().get());
 
   private CacheEvictionsTracker<?, ?> evictionsCacheTracker;
   private RegistrationHandle cacheEvictionRegistrationHandle;
@@ -93,6 +93,15 @@ public class HttpSessionTest {
     assertThat(httpSession.post(uri, BODY, Instant.now()).isSuccessful()).isTrue();
   }
 
+  @Test
+  public void testPostCompressedResponseOK() throws Exception {
+    wireMockRule.givenThat(
+        post(urlEqualTo(ENDPOINT))
+            .withHeader("Content-Encoding", equalTo("gzip"))
+            .willReturn(aResponse().withStatus(NO_CONTENT)));
+    assertThat(httpSession.postCompressed(uri, BODY, Instant.now()).isSuccessful()).isTrue();
+  }
+
   @Test
   public void testDeleteResponseOK() throws Exception {
     wireMockRule.givenThat(
@@ -17,17 +17,24 @@ package com.ericsson.gerrit.plugins.highavailability.forwarder.rest;
 import static com.ericsson.gerrit.plugins.highavailability.forwarder.rest.RestForwarder.buildAllChangesForProjectEndpoint;
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ericsson.gerrit.plugins.highavailability.Configuration;
 import com.ericsson.gerrit.plugins.highavailability.cache.Constants;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.CacheKeyCodecs;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderMetrics;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderMetricsRegistry;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.ForwarderModule;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.IndexEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.SequencedEvent;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.TestEvent;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.commands.CacheEvictionGenerations;
 import com.ericsson.gerrit.plugins.highavailability.forwarder.rest.HttpResponseHandler.HttpResult;
 import com.ericsson.gerrit.plugins.highavailability.peers.PeerInfo;
 import com.google.common.base.Joiner;
@@ -35,11 +42,15 @@ import com.google.common.collect.ImmutableSet;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.AccountGroup;
 import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.registration.DynamicMap;
 import com.google.gerrit.server.events.Event;
+import com.google.gerrit.server.events.EventGsonProvider;
 import com.google.gson.Gson;
 import com.google.inject.Provider;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLException;
@@ -47,6 +58,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 
 @RunWith(org.mockito.junit.MockitoJUnitRunner.class)
@@ -101,6 +114,8 @@ public class RestForwarderTest {
   private static Event event = new TestEvent();
   private static final String EVENT_ENDPOINT =
       Joiner.on("/").join(URL, PLUGINS, PLUGIN_NAME, "event", event.type);
+  private static final String EVENT_BATCH_ENDPOINT =
+      Joiner.on("/").join(URL, PLUGINS, PLUGIN_NAME, "event/batch", 2);
 
   private static final long TEST_TIMEOUT = 10;
   private static final TimeUnit TEST_TIMEOUT_UNITS = TimeUnit.SECONDS;
@@ -113,10 +128,12 @@ public class RestForwarderTest {
 
   @Mock ForwarderMetricsRegistry metricsRegistry;
   @Mock ForwarderMetrics metrics;
+  @Captor ArgumentCaptor<Map<String, String>> headersCaptor;
 
   @SuppressWarnings("unchecked")
   @Before
   public void setUp() {
+    Gson eventGson = new EventGsonProvider().get();
     httpSessionMock = mock(HttpSession.class);
     configMock = mock(Configuration.class, Answers.RETURNS_DEEP_STUBS);
     when(configMock.http().maxTries()).thenReturn(3);
@@ -131,9 +148,10 @@ public class RestForwarderTest {
             PLUGIN_NAME,
             configMock,
             peersMock,
-            gson, // TODO: Create provider
             new FailsafeExecutorProvider(configMock).get(),
-            metricsRegistry);
+            metricsRegistry,
+            new CacheKeyCodecs(DynamicMap.emptyMap(), ForwarderModule.buildRestGson(eventGson)),
+            new CacheEvictionGenerations());
   }
 
   @Test
@@ -330,27 +348,88 @@ public class RestForwarderTest {
   public void testEventSentOK() throws Exception {
     when(httpSessionMock.post(eq(EVENT_ENDPOINT), eq(event), any()))
         .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
-    assertThat(forwarder.send(event).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS).result()).isTrue();
+    assertThat(
+            forwarder
+                .send(SequencedEvent.unsequenced(event))
+                .get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS)
+                .result())
+        .isTrue();
   }
 
   @Test
   public void testEventSentFailed() throws Exception {
     when(httpSessionMock.post(eq(EVENT_ENDPOINT), eq(event), any()))
         .thenReturn(new HttpResult(FAILED, EMPTY_MSG));
-    assertThat(forwarder.send(event).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS).result()).isFalse();
+    assertThat(
+            forwarder
+                .send(SequencedEvent.unsequenced(event))
+                .get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS)
+                .result())
+        .isFalse();
   }
 
   @Test
   public void testEventSentThrowsException() throws Exception {
     when(httpSessionMock.post(eq(EVENT_ENDPOINT), eq(event), any())).thenThrow(IOException.class);
-    assertThat(forwarder.send(event).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS).result()).isFalse();
+    assertThat(
+            forwarder
+                .send(SequencedEvent.unsequenced(event))
+                .get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS)
+                .result())
+        .isFalse();
+  }
+
+  @Test
+  public void testSequencedEventSentWithItsPosition() throws Exception {
+    Map<String, String> headers =
+        Map.of(HttpSession.HEADER_EVENT_ORIGIN, "origin", HttpSession.HEADER_EVENT_SEQUENCE, "3");
+    when(httpSessionMock.post(eq(EVENT_ENDPOINT), eq(event), any(), eq(headers)))
+        .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
+    assertThat(
+            forwarder
+                .send(new SequencedEvent(event, "origin", 3))
+                .get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS)
+                .result())
+        .isTrue();
+  }
+
+  @Test
+  public void testJournaledEventSentWithItsJournalPosition() throws Exception {
+    Map<String, String> headers =
+        Map.of(
+            HttpSession.HEADER_EVENT_ORIGIN,
+            "origin",
+            HttpSession.HEADER_EVENT_SEQUENCE,
+            "3",
+            HttpSession.HEADER_EVENT_JOURNAL,
+            "journal",
+            HttpSession.HEADER_EVENT_JOURNAL_POSITION,
+            "7");
+    when(httpSessionMock.post(eq(EVENT_ENDPOINT), eq(event), any(), eq(headers)))
+        .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
+    assertThat(
+            forwarder
+                .send(new SequencedEvent(event, "origin", 3).journaled("journal", 7))
+                .get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS)
+                .result())
+        .isTrue();
+  }
+
+  @Test
+  public void testEventsSentCompressedOK() throws Exception {
+    List<SequencedEvent> events =
+        List.of(new SequencedEvent(event, "origin", 1), new SequencedEvent(event, "origin", 2));
+    when(httpSessionMock.postCompressed(eq(EVENT_BATCH_ENDPOINT), eq(events), any()))
+        .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
+    assertThat(forwarder.sendAll(events).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS).result()).isTrue();
   }
 
   @Test
   public void testEvictProjectOK() throws Exception {
     String key = PROJECT_NAME;
     String keyJson = gson.toJson(key);
-    when(httpSessionMock.post(eq(buildCacheEndpoint(Constants.PROJECTS)), eq(keyJson), any()))
+    when(httpSessionMock.post(
+            eq(buildCacheEndpoint(Constants.PROJECTS)), eq(keyJson), any(), anyMap()))
         .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
     assertThat(
             forwarder.evict(Constants.PROJECTS, key).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS).result())
@@ -361,7 +440,8 @@ public class RestForwarderTest {
   public void testEvictAccountsOK() throws Exception {
     Account.Id key = Account.id(123);
     String keyJson = gson.toJson(key);
-    when(httpSessionMock.post(eq(buildCacheEndpoint(Constants.ACCOUNTS)), eq(keyJson), any()))
+    when(httpSessionMock.post(
+            eq(buildCacheEndpoint(Constants.ACCOUNTS)), eq(keyJson), any(), anyMap()))
         .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
     assertThat(
             forwarder.evict(Constants.ACCOUNTS, key).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS).result())
@@ -373,7 +453,7 @@ public class RestForwarderTest {
     AccountGroup.Id key = AccountGroup.id(123);
     String keyJson = gson.toJson(key);
     String endpoint = buildCacheEndpoint(Constants.GROUPS);
-    when(httpSessionMock.post(eq(endpoint), eq(keyJson), any()))
+    when(httpSessionMock.post(eq(endpoint), eq(keyJson), any(), anyMap()))
         .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
     assertThat(
             forwarder.evict(Constants.GROUPS, key).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS).result())
@@ -385,7 +465,7 @@ public class RestForwarderTest {
     AccountGroup.UUID key = AccountGroup.uuid("90b3042d9094a37985f3f9281391dbbe9a5addad");
     String keyJson = gson.toJson(key);
     when(httpSessionMock.post(
-            eq(buildCacheEndpoint(Constants.GROUPS_BYINCLUDE)), eq(keyJson), any()))
+            eq(buildCacheEndpoint(Constants.GROUPS_BYINCLUDE)), eq(keyJson), any(), anyMap()))
         .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
     assertThat(
             forwarder
@@ -399,7 +479,8 @@ public class RestForwarderTest {
   public void testEvictGroupsMembersOK() throws Exception {
     AccountGroup.UUID key = AccountGroup.uuid("90b3042d9094a37985f3f9281391dbbe9a5addad");
     String keyJson = gson.toJson(key);
-    when(httpSessionMock.post(eq(buildCacheEndpoint(Constants.GROUPS_MEMBERS)), eq(keyJson), any()))
+    when(httpSessionMock.post(
+            eq(buildCacheEndpoint(Constants.GROUPS_MEMBERS)), eq(keyJson), any(), anyMap()))
         .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
     assertThat(
             forwarder
@@ -413,7 +494,8 @@ public class RestForwarderTest {
   public void testEvictCacheFailed() throws Exception {
     String key = PROJECT_NAME;
     String keyJson = gson.toJson(key);
-    when(httpSessionMock.post(eq(buildCacheEndpoint(Constants.PROJECTS)), eq(keyJson), any()))
+    when(httpSessionMock.post(
+            eq(buildCacheEndpoint(Constants.PROJECTS)), eq(keyJson), any(), anyMap()))
         .thenReturn(new HttpResult(FAILED, EMPTY_MSG));
     assertThat(
             forwarder.evict(Constants.PROJECTS, key).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS).result())
@@ -424,13 +506,54 @@ public class RestForwarderTest {
   public void testEvictCacheThrowsException() throws Exception {
     String key = PROJECT_NAME;
     String keyJson = gson.toJson(key);
-    when(httpSessionMock.post(eq(buildCacheEndpoint(Constants.PROJECTS)), eq(keyJson), any()))
+    when(httpSessionMock.post(
+            eq(buildCacheEndpoint(Constants.PROJECTS)), eq(keyJson), any(), anyMap()))
         .thenThrow(IOException.class);
     assertThat(
             forwarder.evict(Constants.PROJECTS, key).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS).result())
         .isFalse();
   }
 
+  @Test
+  public void testEvictSendsOriginAndGeneration() throws Exception {
+    String keyJson = gson.toJson(PROJECT_NAME);
+    when(httpSessionMock.post(
+            eq(buildCacheEndpoint(Constants.PROJECTS)), eq(keyJson), any(), anyMap()))
+        .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
+
+    forwarder.evict(Constants.PROJECTS, PROJECT_NAME).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS);
+    forwarder.evict(Constants.PROJECTS, PROJECT_NAME).get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS);
+
+    verify(httpSessionMock, times(2)).post(any(), any(), any(), headersCaptor.capture());
+    Map<String, String> first = headersCaptor.getAllValues().get(0);
+    Map<String, String> second = headersCaptor.getAllValues().get(1);
+    assertThat(first.get(HttpSession.HEADER_CACHE_EVICTION_ORIGIN)).isNotEmpty();
+    assertThat(second.get(HttpSession.HEADER_CACHE_EVICTION_ORIGIN))
+        .isEqualTo(first.get(HttpSession.HEADER_CACHE_EVICTION_ORIGIN));
+    assertThat(first).containsEntry(HttpSession.HEADER_CACHE_EVICTION_GENERATION, "1");
+    assertThat(second).containsEntry(HttpSession.HEADER_CACHE_EVICTION_GENERATION, "2");
+  }
+
+  @Test
+  public void testEvictAllSendsKeysWithOriginAndGeneration() throws Exception {
+    String keysJson = "[" + gson.toJson(PROJECT_NAME) + "," + gson.toJson(PROJECT_TO_ADD) + "]";
+    String endpoint =
+        Joiner.on("/").join(URL, PLUGINS, PLUGIN_NAME, "cache/batch", Constants.PROJECTS);
+    when(httpSessionMock.post(eq(endpoint), eq(keysJson), any(), headersCaptor.capture()))
+        .thenReturn(new HttpResult(SUCCESSFUL, EMPTY_MSG));
+
+    assertThat(
+            forwarder
+                .evictAll(Constants.PROJECTS, List.of(PROJECT_NAME, PROJECT_TO_ADD))
+                .get(TEST_TIMEOUT, TEST_TIMEOUT_UNITS)
+                .result())
+        .isTrue();
+    assertThat(headersCaptor.getValue().get(HttpSession.HEADER_CACHE_EVICTION_ORIGIN))
+        .isNotEmpty();
+    assertThat(headersCaptor.getValue())
+        .containsEntry(HttpSession.HEADER_CACHE_EVICTION_GENERATION, "1");
+  }
+
   private static String buildCacheEndpoint(String name) {
     return Joiner.on("/").join(URL, PLUGINS, PLUGIN_NAME, "cache", name);
   }
@@ -0,0 +1,70 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.index;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+public class RecentFirstQueueTest {
+
+  @Test
+  public void hotSetIsDrainedMostRecentFirst() {
+    RecentFirstQueue<String> queue = new RecentFirstQueue<>(3, 10);
+    queue.add("b", 2L);
+    queue.add("c", 3L);
+    queue.add("a", 1L);
+
+    assertThat(queue.drainHotSet()).containsExactly("c", "b", "a").inOrder();
+    assertThat(queue.drainOverflow()).isEmpty();
+    assertThat(queue.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void leastRecentItemsOverflowInInsertionOrder() {
+    RecentFirstQueue<String> queue = new RecentFirstQueue<>(2, 10);
+    queue.add("b", 2L);
+    queue.add("d", 4L);
+    queue.add("a", 1L);
+    queue.add("c", 3L);
+    queue.add("e", 5L);
+
+    assertThat(queue.drainHotSet()).containsExactly("e", "d").inOrder();
+    assertThat(queue.drainOverflow()).containsExactly("a", "b", "c").inOrder();
+  }
+
+  @Test
+  public void allItemsOverflowWithoutCapacity() {
+    RecentFirstQueue<String> queue = new RecentFirstQueue<>(0, 10);
+    queue.add("a", 1L);
+    queue.add("b", 2L);
+
+    assertThat(queue.drainHotSet()).isEmpty();
+    assertThat(queue.drainOverflow()).containsExactly("a", "b").inOrder();
+  }
+
+  @Test
+  public void itemsPastMaxOverflowAreDroppedAndCounted() {
+    RecentFirstQueue<String> queue = new RecentFirstQueue<>(1, 1);
+    assertThat(queue.add("b", 2L)).isEmpty();
+    assertThat(queue.add("a", 1L)).isEmpty();
+    assertThat(queue.add("c", 3L)).hasValue("b");
+    assertThat(queue.add("d", 0L)).hasValue("d");
+
+    assertThat(queue.dropped()).isEqualTo(2);
+    assertThat(queue.drainHotSet()).containsExactly("c");
+    assertThat(queue.drainOverflow()).containsExactly("a");
+  }
+}
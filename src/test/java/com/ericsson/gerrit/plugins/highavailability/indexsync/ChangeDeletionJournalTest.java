@@ -0,0 +1,72 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ChangeDeletionJournalTest {
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration configurationMock;
+
+  private ChangeDeletionJournal journal;
+
+  @Before
+  public void setUp() {
+    when(configurationMock.indexSync().deletionJournalSize()).thenReturn(2);
+    journal = new ChangeDeletionJournal(configurationMock);
+  }
+
+  @Test
+  public void deletionsAreReturnedOldestFirst() {
+    journal.onChangeDeleted("foo", 1);
+    journal.onChangeDeleted("foo", 2);
+
+    assertThat(ids(journal.deletedAfter(0L))).containsExactly("foo~1", "foo~2").inOrder();
+  }
+
+  @Test
+  public void deletionsAfterCursorAreReturned() {
+    journal.onChangeDeleted("foo", 1);
+    long cursor = journal.deletedAfter(0L).get(0).deletedOn();
+    journal.onChangeDeleted("foo", 2);
+
+    assertThat(ids(journal.deletedAfter(cursor))).containsExactly("foo~2");
+  }
+
+  @Test
+  public void oldestDeletionsAreDroppedWhenJournalIsFull() {
+    journal.onChangeDeleted("foo", 1);
+    journal.onChangeDeleted("foo", 2);
+    journal.onChangeDeleted("foo", 3);
+
+    assertThat(ids(journal.deletedAfter(0L))).containsExactly("foo~2", "foo~3").inOrder();
+  }
+
+  private static ImmutableList<String> ids(ImmutableList<DeletedChange> deletions) {
+    return deletions.stream().map(DeletedChange::id).collect(ImmutableList.toImmutableList());
+  }
+}
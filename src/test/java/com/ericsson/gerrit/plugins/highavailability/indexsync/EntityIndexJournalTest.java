@@ -0,0 +1,114 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.ACCOUNTS;
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.CHANGES;
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.GROUPS;
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.PROJECTS;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.when;
+
+import com.ericsson.gerrit.plugins.highavailability.Configuration;
+import com.ericsson.gerrit.plugins.highavailability.forwarder.Context;
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EntityIndexJournalTest {
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Configuration configurationMock;
+
+  private EntityIndexJournal journal;
+
+  @Before
+  public void setUp() {
+    when(configurationMock.indexSync().entityJournalSize()).thenReturn(2);
+    journal = new EntityIndexJournal(configurationMock);
+  }
+
+  @After
+  public void tearDown() {
+    Context.unsetForwardedEvent();
+  }
+
+  @Test
+  public void entitiesAreJournaledPerKind() {
+    journal.onAccountIndexed(1000001);
+    journal.onGroupIndexed("group-uuid");
+    journal.onProjectIndexed("foo");
+
+    assertThat(ids(journal.indexedAfter(ACCOUNTS, 0L))).containsExactly("1000001");
+    assertThat(ids(journal.indexedAfter(GROUPS, 0L))).containsExactly("group-uuid");
+    assertThat(ids(journal.indexedAfter(PROJECTS, 0L))).containsExactly("foo");
+  }
+
+  @Test
+  public void entitiesAfterCursorAreReturned() {
+    journal.onProjectIndexed("foo");
+    long cursor = journal.indexedAfter(PROJECTS, 0L).get(0).indexedOn();
+    journal.onProjectIndexed("bar");
+
+    assertThat(ids(journal.indexedAfter(PROJECTS, cursor))).containsExactly("bar");
+  }
+
+  @Test
+  public void oldestEntitiesAreDroppedWhenJournalIsFull() {
+    journal.onProjectIndexed("foo");
+    journal.onProjectIndexed("bar");
+    journal.onProjectIndexed("baz");
+
+    assertThat(ids(journal.indexedAfter(PROJECTS, 0L))).containsExactly("bar", "baz").inOrder();
+  }
+
+  @Test
+  public void retainedSinceIsTheLastDroppedEntry() {
+    long startedOn = journal.retainedSince(PROJECTS);
+    journal.onProjectIndexed("foo");
+    long dropped = journal.indexedAfter(PROJECTS, 0L).get(0).indexedOn();
+    journal.onProjectIndexed("bar");
+    assertThat(journal.retainedSince(PROJECTS)).isEqualTo(startedOn);
+
+    journal.onProjectIndexed("baz");
+
+    assertThat(journal.retainedSince(PROJECTS)).isEqualTo(dropped);
+    assertThat(journal.retainedSince(ACCOUNTS)).isEqualTo(startedOn);
+  }
+
+  @Test
+  public void forwardedIndexingIsNotJournaled() {
+    Context.setForwardedEvent(true);
+    journal.onProjectIndexed("foo");
+
+    assertThat(journal.indexedAfter(PROJECTS, 0L)).isEmpty();
+  }
+
+  @Test
+  public void changesAreNotJournaled() {
+    assertThrows(IllegalArgumentException.class, () -> journal.indexedAfter(CHANGES, 0L));
+  }
+
+  private static ImmutableList<String> ids(ImmutableList<IndexedEntity> entities) {
+    return entities.stream().map(IndexedEntity::id).collect(ImmutableList.toImmutableList());
+  }
+}
@@ -0,0 +1,65 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.CHANGES;
+import static com.ericsson.gerrit.plugins.highavailability.indexsync.IndexSyncCursors.Kind.CHANGE_DELETIONS;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.ericsson.gerrit.plugins.highavailability.peers.PeerInfo;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexSyncCursorsTest {
+  private static final PeerInfo PEER = new PeerInfo("http://peer:8080");
+  private static final PeerInfo OTHER_PEER = new PeerInfo("http://other-peer:8080");
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path dataDir;
+
+  @Before
+  public void setUp() throws Exception {
+    dataDir = tempFolder.newFolder().toPath();
+  }
+
+  @Test
+  public void cursorIsEmptyForUnknownPeer() {
+    assertThat(new IndexSyncCursors(dataDir).get(CHANGES, PEER)).isEmpty();
+  }
+
+  @Test
+  public void cursorOnlyMovesForward() {
+    IndexSyncCursors cursors = new IndexSyncCursors(dataDir);
+    cursors.advance(CHANGES, PEER, Instant.ofEpochMilli(2000L));
+    cursors.advance(CHANGES, PEER, Instant.ofEpochMilli(1000L));
+
+    assertThat(cursors.get(CHANGES, PEER)).hasValue(Instant.ofEpochMilli(2000L));
+    assertThat(cursors.get(CHANGES, OTHER_PEER)).isEmpty();
+    assertThat(cursors.get(CHANGE_DELETIONS, PEER)).isEmpty();
+  }
+
+  @Test
+  public void cursorIsPersisted() {
+    new IndexSyncCursors(dataDir).advance(CHANGES, PEER, Instant.ofEpochMilli(1000L));
+
+    assertThat(new IndexSyncCursors(dataDir).get(CHANGES, PEER))
+        .hasValue(Instant.ofEpochMilli(1000L));
+  }
+}
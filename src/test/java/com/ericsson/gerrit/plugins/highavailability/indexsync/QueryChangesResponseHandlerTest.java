@@ -0,0 +1,78 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.ericsson.gerrit.plugins.highavailability.indexsync;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.UnsupportedEncodingException;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.entity.StringEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryChangesResponseHandlerTest {
+  private static final int OK = 200;
+  private static final int ERROR = 400;
+  private static final String META_SHA = "0123456789abcdef0123456789abcdef01234567";
+
+  private QueryChangesResponseHandler handler;
+
+  @Before
+  public void setUp() throws Exception {
+    handler = new QueryChangesResponseHandler();
+  }
+
+  @Test
+  public void shouldParseChangesWithMetaSha() throws Exception {
+    HttpResponse response =
+        setupMocks(
+            OK,
+            "[{\"id\":\"foo~1\",\"metaSha\":\""
+                + META_SHA
+                + "\",\"lastUpdatedOn\":1000},{\"id\":\"bar~2\"}]");
+
+    assertThat(handler.handleResponse(response))
+        .containsExactly(
+            new UpdatedChange("foo~1", META_SHA, 1000L), new UpdatedChange("bar~2", null, null));
+  }
+
+  @Test
+  public void shouldParsePlainChangeIds() throws Exception {
+    HttpResponse response = setupMocks(OK, "[\"foo~1\",\"bar~2\"]");
+
+    assertThat(handler.handleResponse(response))
+        .containsExactly(
+            new UpdatedChange("foo~1", null, null), new UpdatedChange("bar~2", null, null));
+  }
+
+  @Test(expected = HttpResponseException.class)
+  public void shouldFailWhenQueryFails() throws Exception {
+    handler.handleResponse(setupMocks(ERROR, ""));
+  }
+
+  private static HttpResponse setupMocks(int httpCode, String entity)
+      throws UnsupportedEncodingException {
+    StatusLine status = mock(StatusLine.class);
+    when(status.getStatusCode()).thenReturn(httpCode);
+    HttpResponse response = mock(HttpResponse.class);
+    when(response.getStatusLine()).thenReturn(status);
+    when(response.getEntity()).thenReturn(new StringEntity(entity));
+    return response;
+  }
+}